@@ -56,6 +56,7 @@ plugins {
     `java-library`
     `maven-publish`
     id("io.freefair.aspectj.post-compile-weaving") version "8.6"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 repositories {
@@ -102,6 +103,26 @@ tasks.test {
 
     if (runWithMetatester && aspectjAgent != null) {
         jvmArguments.add("-javaagent:${aspectjAgent}")
+        // woven classes are reused across test JVMs, and -Dmetatester.weavingCache=false turns it off.
+        // AspectJ keys cached classes by class loader URLs and aspect names only, so a rebuilt
+        // metatester at the same path would be served classes woven with the old aspects; each
+        // build of the compiled classes and the weaver therefore gets a cache directory of its own
+        if (System.getProperty("metatester.weavingCache") != "false") {
+            jvmArguments.add("-Daj.weaving.cache.enabled=true")
+            val weavingCacheRoot = file("${rootDir}/.metatester/weaving-cache")
+            val woven = sourceSets["main"].output
+            doFirst {
+                val digest = java.security.MessageDigest.getInstance("SHA-256")
+                digest.update(File(aspectjAgent).name.toByteArray())
+                woven.asFileTree.files.sortedBy { it.invariantSeparatorsPath }.forEach {
+                    digest.update(it.relativeTo(rootDir).invariantSeparatorsPath.toByteArray())
+                    digest.update(it.readBytes())
+                }
+                val hash = digest.digest().joinToString("") { "%02x".format(it) }.take(16)
+                weavingCacheRoot.listFiles()?.filter { it.name != hash }?.forEach { it.deleteRecursively() }
+                jvmArgs("-Daj.weaving.cache.dir=${weavingCacheRoot}/${hash}")
+            }
+        }
         // jvmArguments.addAll(listOf(
         //     "-Daj.weaving.verbose=true",
         //     "-Dorg.aspectj.weaver.showWeaveInfo=true",
@@ -110,5 +131,70 @@ tasks.test {
     }
     jvmArguments.add("-DrunWithMetatester=${System.getProperty("runWithMetatester")}")
 
+    // -Dmetatester.forks=N runs the fault campaign in N test JVMs, each writing its own shard report
+    maxParallelForks = (System.getProperty("metatester.forks") ?: "1").toInt()
+    if (maxParallelForks > 1) {
+        jvmArguments.add("-Dmetatester.forked=true")
+    }
+    listOf("metatester.shard.index", "metatester.shard.count").forEach { property ->
+        System.getProperty(property)?.let { jvmArguments.add("-D${property}=${it}") }
+    }
+
     jvmArgs = jvmArguments
-}
\ No newline at end of file
+
+    if (runWithMetatester && maxParallelForks > 1) {
+        doFirst {
+            // worker ids keep growing within a daemon, so reports of earlier runs would be merged too
+            delete(fileTree(projectDir) { include("fault_simulation_report.shard-*") })
+        }
+        finalizedBy("mergeFaultSimulationReports")
+    }
+}
+
+tasks.register<JavaExec>("mergeFaultSimulationReports") {
+    description = "Merges the shard reports of a forked or sharded fault campaign into fault_simulation_report.json."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("metatester.report.ReportMerger")
+    val shardReports = fileTree(projectDir) { include("fault_simulation_report.shard-*.json") }
+    onlyIf { !shardReports.isEmpty }
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(file("fault_simulation_report.json").absolutePath) + shardReports.files.map { it.absolutePath }
+    })
+}
+
+// ./gradlew :lib:jmh runs the benchmarks in src/jmh; jmhBaseline records the results as the
+// checked-in baseline and jmhCompare fails when a benchmark regressed by more than -PjmhThreshold percent.
+// Scores only compare on the machine the baseline was recorded on, so until one is checked in
+// jmhCompare is skipped rather than failing every run
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+val jmhBaseline = file("src/jmh/baseline/results.json")
+
+jmh {
+    warmupIterations.set(2)
+    iterations.set(3)
+    fork.set(1)
+    jvmArgs.set(listOf("-Xmx2g"))
+    resultFormat.set("JSON")
+    resultsFile.set(jmhResults)
+}
+
+tasks.register<Copy>("jmhBaseline") {
+    description = "Runs the benchmarks and stores the results as src/jmh/baseline/results.json."
+    dependsOn("jmh")
+    from(jmhResults)
+    into(jmhBaseline.parentFile)
+}
+
+tasks.register<JavaExec>("jmhCompare") {
+    description = "Runs the benchmarks and compares them with the checked-in baseline."
+    dependsOn("jmh")
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("metatester.benchmarks.BaselineComparator")
+    onlyIf("no baseline is checked in at src/jmh/baseline/results.json, record one with jmhBaseline") {
+        jmhBaseline.exists()
+    }
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(jmhBaseline.absolutePath, jmhResults.get().asFile.absolutePath,
+                (findProperty("jmhThreshold") ?: "10").toString())
+    })
+}
@@ -0,0 +1,83 @@
+package metatester.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with the checked-in baseline and exits with status 1 when a
+ * benchmark got slower by more than the threshold. Throughput scores regress when they drop,
+ * time-based scores when they grow. Benchmarks missing from either file are listed but ignored.
+ * A missing baseline fails the comparison too; the jmhCompare task is skipped until one is
+ * checked in.
+ *
+ * <p>Usage: {@code BaselineComparator <baseline.json> <results.json> <threshold-percent>}
+ */
+public class BaselineComparator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <results.json> <threshold-percent>");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        if (!baselineFile.exists()) {
+            System.err.println("No benchmark baseline at " + baselineFile + ", run jmhBaseline to record one.");
+            System.exit(1);
+        }
+        Map<String, JsonNode> baseline = load(baselineFile);
+        Map<String, JsonNode> current = load(new File(args[1]));
+        double threshold = Double.parseDouble(args[2]) / 100;
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println("[NEW] " + entry.getKey());
+                continue;
+            }
+            double change = change(before, entry.getValue());
+            boolean regressed = change > threshold;
+            if (regressed) regressions++;
+            System.out.printf("%s %s: %.3f -> %.3f %s (%+.1f%%)%n", regressed ? "[REGRESSION]" : "[OK]",
+                    entry.getKey(), score(before), score(entry.getValue()), unit(entry.getValue()), change * 100);
+        }
+        baseline.keySet().stream().filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.println("[MISSING] " + key));
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed by more than " + args[2] + "%");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Relative slowdown from the baseline; positive is worse.
+     */
+    private static double change(JsonNode before, JsonNode after) {
+        double ratio = score(after) / score(before);
+        return "thrpt".equals(after.path("mode").asText()) ? 1 / ratio - 1 : ratio - 1;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static String unit(JsonNode result) {
+        return result.path("primaryMetric").path("scoreUnit").asText();
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
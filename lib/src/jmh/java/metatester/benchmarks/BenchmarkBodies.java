@@ -0,0 +1,51 @@
+package metatester.benchmarks;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response fixtures shared by the benchmarks.
+ */
+final class BenchmarkBodies {
+
+    private BenchmarkBodies() {
+    }
+
+    /**
+     * A JSON object of roughly {@code size} bytes: a list of user objects and a total count.
+     */
+    static byte[] jsonBody(int size) {
+        StringBuilder body = new StringBuilder(size + 128).append("{\"items\":[");
+        for (int i = 0; body.length() < size; i++) {
+            if (i > 0) body.append(',');
+            body.append("{\"id\":").append(i)
+                    .append(",\"name\":\"user-").append(i)
+                    .append("\",\"active\":").append(i % 2 == 0)
+                    .append(",\"address\":{\"city\":\"city-").append(i % 10).append("\"}}");
+        }
+        return body.append("],\"total\":1}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static HttpResponse httpResponse(byte[] body) {
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+        return response;
+    }
+
+    /**
+     * Runner and the aspects log every request and variant; the benchmarks keep the cost of
+     * formatting those lines but drop the console output.
+     */
+    static void silenceConsole() {
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(discard);
+        System.setErr(discard);
+    }
+}
@@ -0,0 +1,77 @@
+package metatester.benchmarks;
+
+import metatester.aop.AspectExecutor;
+import metatester.runner.Runner;
+import org.apache.http.client.methods.HttpGet;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the Apache client advice on top of the client call it wraps. The advice is invoked
+ * directly with a join point whose proceed returns a canned response, so neither weaving nor
+ * network time is part of the score; {@link #baseline} performs the same proceed without advice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InterceptionBenchmark {
+
+    @Param({"1024", "65536"})
+    int bodySize;
+
+    @Param({"true", "false"})
+    boolean firstRun;
+
+    private final AspectExecutor aspect = new AspectExecutor();
+    private final Runner runner = Runner.getInstance();
+    private byte[] body;
+    private ProceedingJoinPoint joinPoint;
+
+    @Setup
+    public void setUp() throws Throwable {
+        BenchmarkBodies.silenceConsole();
+        body = BenchmarkBodies.jsonBody(bodySize);
+        joinPoint = joinPoint(new HttpGet("http://localhost:8080/users?page=1"));
+        runner.setFirstRun(true);
+        aspect.interceptApacheHttpClient(joinPoint);
+        runner.setFirstRun(firstRun);
+    }
+
+    @Benchmark
+    public Object baseline() throws Throwable {
+        return joinPoint.proceed(joinPoint.getArgs());
+    }
+
+    @Benchmark
+    public Object intercepted() throws Throwable {
+        return aspect.interceptApacheHttpClient(joinPoint);
+    }
+
+    private ProceedingJoinPoint joinPoint(HttpGet request) {
+        Object[] args = {request};
+        Signature signature = (Signature) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Signature.class}, (proxy, method, methodArgs) -> switch (method.getName()) {
+                    case "getName" -> "execute";
+                    case "getDeclaringTypeName" -> "org.apache.http.impl.client.CloseableHttpClient";
+                    default -> null;
+                });
+        return (ProceedingJoinPoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ProceedingJoinPoint.class}, (proxy, method, methodArgs) -> switch (method.getName()) {
+                    case "proceed" -> BenchmarkBodies.httpResponse(body);
+                    case "getArgs" -> args;
+                    case "getSignature" -> signature;
+                    default -> null;
+                });
+    }
+}
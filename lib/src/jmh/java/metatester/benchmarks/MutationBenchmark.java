@@ -0,0 +1,52 @@
+package metatester.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import metatester.config.FaultCollection;
+import metatester.http.HTTPFactory;
+import metatester.http.Response;
+import metatester.http.SimulatedResponse;
+import metatester.injection.FaultInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building one variant body, the work {@code Runner.setFieldFault} does per rerun: a
+ * copy-on-write fault on the parsed tree, serialized into a simulated response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MutationBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    int bodySize;
+
+    @Param({"null_field", "missing_field", "invalid_value"})
+    FaultCollection fault;
+
+    @Param({"/total", "/items/0/address/city"})
+    String path;
+
+    private Response original;
+    private JsonNode tree;
+
+    @Setup
+    public void setUp() {
+        original = HTTPFactory.createResponseFrom(
+                BenchmarkBodies.httpResponse(BenchmarkBodies.jsonBody(bodySize)));
+        tree = original.getResponseAsTree();
+    }
+
+    @Benchmark
+    public Response setFieldFault() {
+        return new SimulatedResponse(original, FaultInjector.inject(tree, path, fault));
+    }
+}
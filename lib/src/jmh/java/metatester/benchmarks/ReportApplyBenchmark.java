@@ -0,0 +1,64 @@
+package metatester.benchmarks;
+
+import metatester.report.FaultSimulationReport;
+import metatester.report.TestLevelSimulationResults;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording results in the report singleton. Its builder holds per-call state, so the runner
+ * serializes every call chain on the report; both benchmarks take that lock as
+ * {@code Runner.applyToReport} does, and the contended one measures it under four threads, as
+ * when JUnit runs tests in parallel. Every call adds a row, so keep iterations short or give the
+ * fork enough heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReportApplyBenchmark {
+
+    @State(Scope.Thread)
+    public static class Variant {
+        final TestLevelSimulationResults result = new TestLevelSimulationResults();
+        int field;
+
+        public Variant() {
+            result.setTest("testGetUser");
+            result.setCaught(true);
+            result.setError("expected:<user-1> but was:<null>");
+        }
+
+        String nextField() {
+            field = (field + 1) % 50;
+            return "/items/" + field + "/name";
+        }
+    }
+
+    private static void apply(FaultSimulationReport report, Variant variant) {
+        synchronized (report) {
+            report.setEndpoint("/users")
+                    .setTestResult(variant.result)
+                    .setField(variant.nextField())
+                    .setFaultType("null_field")
+                    .apply();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void apply(Variant variant) {
+        apply(FaultSimulationReport.getInstance(), variant);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void applyContended(Variant variant) {
+        apply(FaultSimulationReport.getInstance(), variant);
+    }
+}
@@ -0,0 +1,40 @@
+package metatester.benchmarks;
+
+import metatester.http.HTTPFactory;
+import metatester.http.Response;
+import org.apache.http.HttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capturing an Apache response: reading the entity and parsing it into the shared tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseParsingBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    int bodySize;
+
+    private HttpResponse response;
+
+    @Setup
+    public void setUp() {
+        // the entity is a repeatable byte array, so the same response can be captured every call
+        response = BenchmarkBodies.httpResponse(BenchmarkBodies.jsonBody(bodySize));
+    }
+
+    @Benchmark
+    public Response createResponseFrom() {
+        return HTTPFactory.createResponseFrom(response);
+    }
+}
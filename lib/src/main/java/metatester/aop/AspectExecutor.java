@@ -1,45 +1,142 @@
 package metatester.aop;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import metatester.config.FaultCollection;
+import metatester.config.ShardConfig;
 import metatester.config.SimulatorConfig;
+import metatester.http.ApacheHTTPResponse;
+import metatester.http.BodyPatch;
+import metatester.http.CapturingInputStream;
+import metatester.http.HttpURLConnectionResponse;
+import metatester.http.JdkHttpResponse;
+import metatester.http.OkHttpResponse;
+import metatester.http.ResponseSnapshot;
+import metatester.http.SimulatedResponse;
+import metatester.injection.DelayInjector;
+import metatester.metrics.MetricsRegistry;
+import metatester.metrics.Phase;
+import metatester.metrics.PhaseTimer;
+import metatester.metrics.StartupMetrics;
 import metatester.runner.Runner;
+import metatester.runner.TestContext;
 import metatester.schemacoverage.Logger;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.Response;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.StringEntity;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.Collection;
+import java.util.Map;
 
 @Aspect
 public class AspectExecutor {
 
     Runner runner = Runner.getInstance();
+    MetricsRegistry metrics = MetricsRegistry.getInstance();
 
     @Around("execution(@org.junit.jupiter.api.Test * *(..))")
     public Object interceptTestMethod(ProceedingJoinPoint joinPoint) throws Throwable {
         System.out.println("Intercepting test method: " + joinPoint.getSignature());
+        StartupMetrics.getInstance().markTestStarted();
 
         System.out.println("Executing test...");
-        Object result = joinPoint.proceed();
+        String testId = joinPoint.getSignature().getDeclaringTypeName() + "#" + joinPoint.getSignature().getName();
+        // a fresh context per test, so tests JUnit runs in parallel keep their captures apart
+        TestContext context = new TestContext(testId);
+        TestContext previous = TestContext.bind(context);
+        try {
+            return executeTest(joinPoint, testId);
+        } finally {
+            // pooled threads that inherited the context must not hand it to the next test
+            context.close();
+            TestContext.restore(previous);
+        }
+    }
+
+    /**
+     * Pooled threads may have been started by another test or by none, so tasks handed to an
+     * executor, by the test or by a client such as the OkHttp dispatcher, run in the context
+     * they were submitted from. This covers executors, scheduled executors and the async steps
+     * of CompletableFuture, whose default pool is shared by all tests.
+     */
+    @Around("call(void java.util.concurrent.Executor+.execute(Runnable)) && !within(metatester..*)")
+    public Object propagateContextToExecute(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        if (args[0] != null) {
+            args[0] = TestContext.current().wrap((Runnable) args[0]);
+        }
+        return joinPoint.proceed(args);
+    }
+
+    @Around("(call(* java.util.concurrent.ExecutorService+.submit(..))"
+            + " || call(* java.util.concurrent.ScheduledExecutorService+.schedule*(..))"
+            + " || call(* java.util.concurrent.CompletableFuture.*Async(..))"
+            + " || call(* java.util.concurrent.CompletionStage+.*Async(..))) && !within(metatester..*)")
+    public Object propagateContextToTasks(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        Class<?>[] types = ((MethodSignature) joinPoint.getSignature()).getParameterTypes();
+        TestContext context = TestContext.current();
+        for (int i = 0; i < args.length; i++) {
+            args[i] = context.wrap(types[i], args[i]);
+        }
+        return joinPoint.proceed(args);
+    }
+
+    @Around("call(* java.util.concurrent.ExecutorService+.invoke*(java.util.Collection, ..)) && !within(metatester..*)")
+    @SuppressWarnings("unchecked")
+    public Object propagateContextToInvoke(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        if (args[0] != null) {
+            args[0] = TestContext.current().wrapAll((Collection<Callable<Object>>) args[0]);
+        }
+        return joinPoint.proceed(args);
+    }
+
+    private Object executeTest(ProceedingJoinPoint joinPoint, String testId) throws Throwable {
+        Object result;
+        try (PhaseTimer ignored = metrics.start(Phase.ORIGINAL_RUN, testId, null)) {
+            result = joinPoint.proceed();
+        }
         if (runner.isFirstRun()) {
-            if (runner.getOriginalResponse() == null) {
+            if (runner.getOriginalResponse() == null && !runner.isResponseStreamed()
+                    && runner.getContext().getSkipReason() == null) {
                 throw new IllegalStateException("Original response was not captured. Ensure response interceptors are working.");
             }
             runner.setFirstRun(false);
             System.out.println("First run completed. Original response captured.");
         }
 
-        if(!SimulatorConfig.isTestExcluded(joinPoint.getSignature().getName())
-        && !SimulatorConfig.isEndpointExcluded(runner.getInterceptedUrl())){
+        if (runner.isResponseStreamed()) {
+            System.out.println("Response body exceeded the capture limit, fault simulation skipped for this test.");
+        } else if (runner.getContext().getSkipReason() != null) {
+            System.out.println(runner.getContext().getSkipReason() + ", fault simulation skipped for this test.");
+        } else if(!SimulatorConfig.isTestExcluded(joinPoint.getSignature().getName())
+        && !SimulatorConfig.isUrlExcluded(runner.getInterceptedUrl())
+        && !SimulatorConfig.isEndpointExcluded(runner.getInterceptedEndpoint())
+        && ShardConfig.isOwnedByThisShard(testId)){
                 runner.executeTestWithSimulatedFaults(joinPoint);
-                runner.setFirstRun(true); //reset flag after execution test
         }
 
         return result;
@@ -47,14 +144,16 @@ public class AspectExecutor {
 
     @Around("execution(* org.apache.http.impl.client.CloseableHttpClient.execute(..))")
     public Object interceptApacheHttpClient(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        boolean firstRun = runner.isFirstRun();
         Object[] args = joinPoint.getArgs();
         //request
         if (args.length > 0 && args[0] instanceof HttpRequestBase) {
             HttpRequestBase originalRequest = (HttpRequestBase) args[0];
-            runner.setOriginalRequest(originalRequest);
 
 //            System.out.println("Intercepted URL: " + runner.getOriginalRequest().getUrl());
             if(runner.isFirstRun()){
+                runner.setOriginalRequest(originalRequest);
                 Logger.parseResponse(originalRequest);
             } else {
 //                URI originalUri = new URI(runner.getOriginalRequest().getUrl());
@@ -68,68 +167,452 @@ public class AspectExecutor {
             }
         }
 
+        if (!runner.isFirstRun() && isSimulating(FaultCollection.delay_injection)) {
+            DelayInjector.delay(DelayInjector.apacheReadTimeout(joinPoint.getTarget(), args));
+        }
+
+        if (!runner.isFirstRun() && SimulatorConfig.isShortCircuitEnabled() && canShortCircuit(args)) {
+            System.out.println("Rerun response served from captured response (backend call skipped).");
+            ApacheHTTPResponse capturedResponse = (ApacheHTTPResponse) runner.getOriginalResponse();
+            BodyPatch patch = simulatedPatch();
+            Object simulated = patch != null
+                    ? capturedResponse.toSimulatedHttpResponse(patch, simulatedFault())
+                    : capturedResponse.toSimulatedHttpResponse(simulatedBody(), simulatedFault());
+            metrics.recordInterception("apache", false, true, System.nanoTime() - start);
+            return simulated;
+        }
+
+        long proceedStart = System.nanoTime();
         Object result = joinPoint.proceed(args);
+        long proceedNanos = System.nanoTime() - proceedStart;
         //response
         if (result instanceof HttpResponse) {
             HttpResponse response = (HttpResponse) result;
             if (runner.isFirstRun()) {
-                runner.setOriginalResponse(response);
-
-                response.setEntity(new StringEntity(runner.getOriginalResponse().getBody()));
+                ResponseSnapshot snapshot = ResponseSnapshot.capture(response);
+                try {
+                    runner.setOriginalResponse(new ApacheHTTPResponse(snapshot, apacheRequestUrl(args)));
+                    ((ApacheHTTPResponse) runner.getOriginalResponse()).restore(response);
+                } catch (JsonProcessingException e) {
+                    // the entity was consumed by the capture, the test still gets the body it asked for
+                    snapshot.applyTo(response, null);
+                    System.err.println("Response body of " + apacheRequestUrl(args) + " could not be captured: " + e.getMessage());
+                    runner.getContext().skipSimulation("Response body could not be captured");
+                }
             } else {
                 //run simulations
-                response.setEntity(new StringEntity(runner.getSimulatedResponse().getBody()));
+                BodyPatch patch = simulatedPatch();
+                if (patch != null) {
+                    ((ApacheHTTPResponse) runner.getOriginalResponse()).applyPatchTo(response, patch, simulatedFault());
+                } else if (runner.getOriginalResponse() instanceof ApacheHTTPResponse) {
+                    ((ApacheHTTPResponse) runner.getOriginalResponse()).applyTo(response,
+                            simulatedBody(), simulatedFault());
+                } else {
+                    response.setEntity(new StringEntity(runner.getSimulatedResponse().getBody()));
+                }
                 System.out.println("Rerun response intercepted (simulated fault applied).");
-                System.out.println(runner.getSimulatedResponse().getBody());
+                // a patched body is spilled, too large to print
+                System.out.println(patch != null ? patch : runner.getSimulatedResponse().getBody());
             }
         }
 
+        metrics.recordInterception("apache", firstRun, false, System.nanoTime() - start - proceedNanos);
         return result;
     }
 
+    /**
+     * URL of the request passed to CloseableHttpClient.execute, either as a request with its
+     * URI or as a target host and a request for a path on it; null for neither.
+     */
+    private static String apacheRequestUrl(Object[] args) {
+        if (args.length > 0 && args[0] instanceof HttpUriRequest) {
+            return ((HttpUriRequest) args[0]).getURI().toString();
+        }
+        if (args.length > 1 && args[0] instanceof HttpHost && args[1] instanceof org.apache.http.HttpRequest) {
+            String uri = ((org.apache.http.HttpRequest) args[1]).getRequestLine().getUri();
+            return URI.create(uri).isAbsolute() ? uri : ((HttpHost) args[0]).toURI() + uri;
+        }
+        return null;
+    }
+
+    private boolean isSimulating(FaultCollection fault) {
+        return simulatedFault() == fault;
+    }
+
+    private FaultCollection simulatedFault() {
+        return runner.getSimulatedResponse() instanceof SimulatedResponse
+                ? ((SimulatedResponse) runner.getSimulatedResponse()).getFault()
+                : null;
+    }
+
+    /**
+     * Bytes the rerun serves; encoded when the variant was prepared, ahead of the rerun.
+     */
+    private byte[] simulatedBody() {
+        metatester.http.Response simulated = runner.getSimulatedResponse();
+        return simulated instanceof SimulatedResponse
+                ? ((SimulatedResponse) simulated).getEncodedBody()
+                : runner.getOriginalResponse().encode(simulated.getBody());
+    }
+
+    /**
+     * The patch of the rerun's variant when the captured body was spilled, else null.
+     */
+    private BodyPatch simulatedPatch() {
+        return runner.getSimulatedResponse() instanceof SimulatedResponse
+                ? ((SimulatedResponse) runner.getSimulatedResponse()).getPatch()
+                : null;
+    }
+
+    /**
+     * Calls that hand the response to a ResponseHandler return the handler's result,
+     * so only the plain execute variants can be answered with a synthetic response.
+     */
+    private boolean canShortCircuit(Object[] args) {
+        if (!(runner.getOriginalResponse() instanceof ApacheHTTPResponse)) {
+            return false;
+        }
+        for (Object arg : args) {
+            if (arg instanceof ResponseHandler) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Around("execution(* okhttp3.Call.execute(..))")
     public Object interceptOkHttpClient(ProceedingJoinPoint joinPoint) throws Throwable {
-        System.out.println("Intercepted OkHttpClient call");
-        Object result = joinPoint.proceed();
+        long start = System.nanoTime();
+        boolean firstRun = runner.isFirstRun();
+        Call call = (Call) joinPoint.getTarget();
+        if (firstRun) {
+            runner.setOriginalRequest(call.request());
+        } else {
+            if (isSimulating(FaultCollection.delay_injection)) {
+                DelayInjector.delay(DelayInjector.okHttpReadTimeout(call));
+            }
+            if (SimulatorConfig.isShortCircuitEnabled() && runner.getOriginalResponse() instanceof OkHttpResponse) {
+                System.out.println("Rerun response served from captured response (backend call skipped).");
+                OkHttpResponse capturedResponse = (OkHttpResponse) runner.getOriginalResponse();
+                Response simulated = capturedResponse.applyTo(
+                        new Response.Builder().request(call.request()).protocol(capturedResponse.getProtocol()),
+                        simulatedBody(), simulatedFault());
+                metrics.recordInterception("okhttp", false, true, System.nanoTime() - start);
+                return simulated;
+            }
+        }
 
+        long proceedStart = System.nanoTime();
+        Object result = joinPoint.proceed();
+        long proceedNanos = System.nanoTime() - proceedStart;
         if (result instanceof Response) {
-            Response response = (Response) result;
+            result = serveOkHttpResponse((Response) result, runner.getContext(), firstRun,
+                    firstRun ? null : simulatedBody(), simulatedFault());
+        }
+        metrics.recordInterception("okhttp", firstRun, false, System.nanoTime() - start - proceedNanos);
+        return result;
+    }
 
-            String originalResponse = response.peekBody(Long.MAX_VALUE).string();
-            System.out.println("Response intercepted for OkHttpClient: " + originalResponse);
+    /**
+     * Async calls are answered on a dispatcher thread, so the test context and rerun state are
+     * taken from the thread that enqueues the call and the callback gets the response after capture or fault.
+     */
+    @Around("execution(* okhttp3.Call.enqueue(..))")
+    public Object interceptOkHttpEnqueue(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        if (args.length == 1 && args[0] instanceof Callback) {
+            Call call = (Call) joinPoint.getTarget();
+            boolean firstRun = runner.isFirstRun();
+            if (firstRun) {
+                runner.setOriginalRequest(call.request());
+            }
+            args[0] = new InterceptingCallback((Callback) args[0], runner.getContext(), firstRun,
+                    firstRun ? null : simulatedBody(), simulatedFault());
+        }
+        return joinPoint.proceed(args);
+    }
 
+    /**
+     * First run: captures the body and returns a response rebuilt around the captured bytes, or
+     * the untouched response when the body is too large to capture. A body that is not JSON is
+     * handed to the client as it is and fault simulation is skipped. Reruns: returns the
+     * response rebuilt with the simulated body and fault.
+     */
+    private Response serveOkHttpResponse(Response response, TestContext context, boolean firstRun,
+                                         byte[] simulatedBody, FaultCollection fault) throws IOException {
+        if (firstRun) {
+            byte[] body = OkHttpResponse.readBody(response, SimulatorConfig.getCaptureMaxBodyBytes());
+            if (body == null) {
+                context.setResponseStreamed(true);
+                System.out.println("Response body larger than " + SimulatorConfig.getCaptureMaxBodyBytes()
+                        + " bytes streamed to the client without capture.");
+                return response;
+            }
+            OkHttpResponse capturedResponse;
+            try {
+                capturedResponse = OkHttpResponse.of(response, body);
+            } catch (JsonProcessingException e) {
+                // the client still gets the body it asked for
+                System.err.println("Response body of " + response.request().url() + " could not be captured: " + e.getMessage());
+                context.skipSimulation("Response body could not be captured");
+                return OkHttpResponse.withBody(response, body);
+            }
+            context.setOriginalResponse(capturedResponse);
+            return capturedResponse.applyTo(response.newBuilder(), capturedResponse.getBody(), null);
+        }
+        if (!(context.getOriginalResponse() instanceof OkHttpResponse)) {
             return response;
         }
-
-        return result;
+        if (response.body() != null) {
+            response.body().close();
+        }
+        System.out.println("Rerun response intercepted (simulated fault applied).");
+        return ((OkHttpResponse) context.getOriginalResponse()).applyTo(response.newBuilder(), simulatedBody, fault);
     }
 
-    @Around("execution(* java.net.HttpURLConnection.connect(..))")
-    public Object interceptHttpURLConnection(ProceedingJoinPoint joinPoint) throws Throwable {
-        System.out.println("Intercepted HttpURLConnection call");
-        HttpURLConnection connection = (HttpURLConnection) joinPoint.getTarget();
-        Object result = joinPoint.proceed();
+    private class InterceptingCallback implements Callback {
+        private final Callback delegate;
+        private final TestContext context;
+        private final boolean firstRun;
+        private final byte[] simulatedBody;
+        private final FaultCollection fault;
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-            StringBuilder responseBuilder = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                responseBuilder.append(line);
+        InterceptingCallback(Callback delegate, TestContext context, boolean firstRun, byte[] simulatedBody,
+                             FaultCollection fault) {
+            this.delegate = delegate;
+            this.context = context;
+            this.firstRun = firstRun;
+            this.simulatedBody = simulatedBody;
+            this.fault = fault;
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            TestContext previous = TestContext.bind(context);
+            try {
+                delegate.onFailure(call, e);
+            } finally {
+                TestContext.restore(previous);
             }
-            String originalResponse = responseBuilder.toString();
-            System.out.println("Response intercepted for HttpURLConnection: " + originalResponse);
-        } catch (Exception e) {
-            System.out.println("Unable to read response for HttpURLConnection: " + e.getMessage());
         }
 
-        return result;
+        @Override
+        public void onResponse(Call call, Response response) throws IOException {
+            long start = System.nanoTime();
+            if (!firstRun && fault == FaultCollection.delay_injection) {
+                try {
+                    DelayInjector.delay(DelayInjector.okHttpReadTimeout(call));
+                } catch (SocketTimeoutException e) {
+                    response.close();
+                    onFailure(call, e);
+                    return;
+                }
+            }
+            Response served = serveOkHttpResponse(response, context, firstRun, simulatedBody, fault);
+            metrics.recordInterception("okhttp", firstRun, false, System.nanoTime() - start);
+            // the caller's callback may call again, which is intercepted in the test's context
+            TestContext previous = TestContext.bind(context);
+            try {
+                delegate.onResponse(call, served);
+            } finally {
+                TestContext.restore(previous);
+            }
+        }
+    }
+
+    /**
+     * JDK classes are not woven, so calls to java.net.http.HttpClient are intercepted at their
+     * call sites and the caller's BodyHandler is wrapped to capture or replace the body.
+     */
+    @Around("call(* java.net.http.HttpClient.send(..)) && !within(metatester..*)")
+    public Object interceptJdkHttpClient(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        boolean firstRun = runner.isFirstRun();
+        Object[] args = joinPoint.getArgs();
+        FaultCollection fault = simulatedFault();
+        JdkHttpResponse capturedResponse = wrapBodyHandler(args, firstRun);
+        if (capturedResponse != null && fault == FaultCollection.delay_injection) {
+            try {
+                DelayInjector.delay(jdkRequestTimeout((HttpRequest) args[0]));
+            } catch (SocketTimeoutException e) {
+                throw new HttpTimeoutException("request timed out");
+            }
+        }
+
+        long proceedStart = System.nanoTime();
+        java.net.http.HttpResponse<?> response = (java.net.http.HttpResponse<?>) joinPoint.proceed(args);
+        long proceedNanos = System.nanoTime() - proceedStart;
+        metrics.recordInterception("jdk", firstRun, false, System.nanoTime() - start - proceedNanos);
+        return capturedResponse != null ? capturedResponse.applyTo(response, fault) : response;
     }
 
+    /**
+     * The rerun state is read on the calling thread and the body is captured or replaced on the
+     * client's threads, with no lock in between, so concurrent calls are not serialized.
+     */
+    @Around("call(* java.net.http.HttpClient.sendAsync(..)) && !within(metatester..*)")
+    @SuppressWarnings("unchecked")
+    public Object interceptJdkHttpClientAsync(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        boolean firstRun = runner.isFirstRun();
+        Object[] args = joinPoint.getArgs();
+        FaultCollection fault = simulatedFault();
+        if (firstRun && runner.getContext().countAsyncCapture() == 2) {
+            // the captures complete in any order, so which response reruns would be served from is not known
+            System.err.println("Warning: more than one sendAsync call in " + runner.getContext().getTestId()
+                    + ", its responses cannot be told apart.");
+            runner.getContext().skipSimulation("More than one response captured by sendAsync");
+        }
+        JdkHttpResponse capturedResponse = wrapBodyHandler(args, firstRun);
 
+        long proceedStart = System.nanoTime();
+        CompletableFuture<java.net.http.HttpResponse<Object>> response =
+                (CompletableFuture<java.net.http.HttpResponse<Object>>) joinPoint.proceed(args);
+        long proceedNanos = System.nanoTime() - proceedStart;
+        metrics.recordInterception("jdk", firstRun, false, System.nanoTime() - start - proceedNanos);
+        if (capturedResponse == null) {
+            return response;
+        }
+        CompletableFuture<java.net.http.HttpResponse<Object>> served = response.thenApply(r -> capturedResponse.applyTo(r, fault));
+        if (fault == FaultCollection.delay_injection) {
+            return DelayInjector.delayAsync(served, jdkRequestTimeout((HttpRequest) args[0]),
+                    () -> new HttpTimeoutException("request timed out"));
+        }
+        return served;
+    }
 
+    /**
+     * Replaces the BodyHandler argument of a send or sendAsync call: on the first run with one
+     * that captures the body, on reruns with one that serves the simulated body.
+     *
+     * @return the captured response a rerun is served from, or null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private JdkHttpResponse wrapBodyHandler(Object[] args, boolean firstRun) {
+        HttpRequest request = (HttpRequest) args[0];
+        java.net.http.HttpResponse.BodyHandler handler = (java.net.http.HttpResponse.BodyHandler) args[1];
+        if (firstRun) {
+            // the body is captured on the client's threads, outside of the test's context
+            TestContext context = runner.getContext();
+            context.setOriginalRequest(request);
+            long maxBodyBytes = SimulatorConfig.getCaptureMaxBodyBytes();
+            args[1] = JdkHttpResponse.capturing(handler, request.uri(), maxBodyBytes, captured -> {
+                if (captured == null) {
+                    context.setResponseStreamed(true);
+                    System.out.println("Response body larger than " + maxBodyBytes + " bytes streamed to the client without capture.");
+                } else {
+                    context.setOriginalResponse(captured);
+                }
+            }, e -> {
+                System.err.println("Response body of " + request.uri() + " could not be captured: " + e.getMessage());
+                context.skipSimulation("Response body could not be captured");
+            });
+            return null;
+        }
+        if (!(runner.getOriginalResponse() instanceof JdkHttpResponse)) {
+            return null;
+        }
+        JdkHttpResponse capturedResponse = (JdkHttpResponse) runner.getOriginalResponse();
+        args[1] = capturedResponse.serving(handler, simulatedBody(), simulatedFault());
+        System.out.println("Rerun response intercepted (simulated fault applied).");
+        return capturedResponse;
+    }
 
+    private static long jdkRequestTimeout(HttpRequest request) {
+        return request.timeout().map(Duration::toMillis).orElse(0L);
+    }
 
+    /**
+     * JDK classes are not woven, so the call sites in the code under test are. The first run
+     * hands the test a stream that records the body while the test reads it; reruns get a
+     * stream over the bytes of the simulated body. Like the connection itself, repeated calls
+     * return the same stream.
+     */
+    @Around("call(java.io.InputStream java.net.URLConnection+.getInputStream()) && target(connection) && !within(metatester..*)")
+    public Object interceptHttpURLConnection(ProceedingJoinPoint joinPoint, HttpURLConnection connection) throws Throwable {
+        // held by the test's context, which drops them when the test finishes
+        Map<HttpURLConnection, InputStream> connectionStreams = runner.getContext().getConnectionStreams();
+        InputStream stream = connectionStreams.get(connection);
+        if (stream == null) {
+            stream = interceptInputStream(joinPoint, connection);
+            connectionStreams.put(connection, stream);
+        }
+        return stream;
+    }
 
+    /**
+     * Reruns report the status line and headers of the captured response with the simulated
+     * fault applied, so code that checks them before or instead of reading the body sees status
+     * and header faults, and agrees with the stream {@link #interceptHttpURLConnection} serves.
+     */
+    @Around("(call(int java.net.HttpURLConnection+.getResponseCode())"
+            + " || call(String java.net.HttpURLConnection+.getResponseMessage())"
+            + " || call(String java.net.URLConnection+.getContentType())"
+            + " || call(String java.net.URLConnection+.getHeaderField(String))"
+            + " || call(java.util.Map java.net.URLConnection+.getHeaderFields())"
+            + " || call(java.io.InputStream java.net.HttpURLConnection+.getErrorStream()))"
+            + " && target(connection) && !within(metatester..*)")
+    public Object interceptHttpURLConnectionHead(ProceedingJoinPoint joinPoint, HttpURLConnection connection) throws Throwable {
+        if (runner.isFirstRun() || !(runner.getOriginalResponse() instanceof HttpURLConnectionResponse)) {
+            return joinPoint.proceed();
+        }
+        HttpURLConnectionResponse capturedResponse = (HttpURLConnectionResponse) runner.getOriginalResponse();
+        ResponseSnapshot served = capturedResponse.served(simulatedFault());
+        return switch (joinPoint.getSignature().getName()) {
+            case "getResponseCode" -> served.getStatusCode();
+            case "getResponseMessage" -> served.getReasonPhrase();
+            case "getContentType" -> served.getHeader(HttpHeaders.CONTENT_TYPE);
+            case "getHeaderField" -> served.getHeader((String) joinPoint.getArgs()[0]);
+            case "getHeaderFields" -> served.getHeaderFields();
+            default -> {
+                InputStream error = capturedResponse.openErrorStream(simulatedBody(), simulatedFault());
+                yield error != null ? error : joinPoint.proceed();
+            }
+        };
+    }
 
+    private InputStream interceptInputStream(ProceedingJoinPoint joinPoint, HttpURLConnection connection) throws Throwable {
+        long start = System.nanoTime();
+        boolean firstRun = runner.isFirstRun();
+        if (firstRun) {
+            runner.setOriginalRequest(connection);
+        } else if (runner.getOriginalResponse() instanceof HttpURLConnectionResponse) {
+            if (isSimulating(FaultCollection.delay_injection)) {
+                DelayInjector.delay(connection.getReadTimeout());
+            }
+            HttpURLConnectionResponse capturedResponse = (HttpURLConnectionResponse) runner.getOriginalResponse();
+            if (!SimulatorConfig.isShortCircuitEnabled()) {
+                // the server is still called, its body is not needed
+                ((InputStream) joinPoint.proceed()).close();
+            }
+            InputStream simulated = capturedResponse.openStream(simulatedBody(), simulatedFault());
+            System.out.println("Rerun response intercepted (simulated fault applied).");
+            metrics.recordInterception("urlconnection", false, SimulatorConfig.isShortCircuitEnabled(), System.nanoTime() - start);
+            return simulated;
+        }
 
+        long proceedStart = System.nanoTime();
+        InputStream in = (InputStream) joinPoint.proceed();
+        long proceedNanos = System.nanoTime() - proceedStart;
+        if (!firstRun) {
+            return in;
+        }
+        long maxBodyBytes = SimulatorConfig.getCaptureMaxBodyBytes();
+        // the stream may be read to its end on another thread than the one that opened it
+        TestContext context = runner.getContext();
+        InputStream capturing = new CapturingInputStream(in, connection.getContentLengthLong(), maxBodyBytes, body -> {
+            if (body == null) {
+                context.setResponseStreamed(true);
+                System.out.println("Response body larger than " + maxBodyBytes + " bytes streamed to the client without capture.");
+                return;
+            }
+            try {
+                context.setOriginalResponse(new HttpURLConnectionResponse(connection, body));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        metrics.recordInterception("urlconnection", true, false, System.nanoTime() - start - proceedNanos);
+        return capturing;
+    }
 }
@@ -0,0 +1,99 @@
+package metatester.aop;
+
+import metatester.config.SimulatorConfig;
+import metatester.runner.FieldAccessTracker;
+import metatester.runner.Runner;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+
+/**
+ * Observes how a test reads the response during its original run, so that variants on
+ * fields the test never looks at can be reported without a rerun.
+ * Path reads through RestAssured are recorded field by field; reading the raw body or
+ * handing it to a JSON library from test code counts as reading every field.
+ */
+@Aspect
+public class FieldAccessAspect {
+
+    private final boolean enabled = SimulatorConfig.isSkipUnreadFieldsEnabled();
+    Runner runner = Runner.getInstance();
+
+    private FieldAccessTracker tracker() {
+        return enabled && runner.isFirstRun() ? runner.getFieldAccessTracker() : null;
+    }
+
+    @Before("execution(* io.restassured.path.json.JsonPath.get*(String, ..)) && args(path, ..)")
+    public void recordJsonPathRead(String path) {
+        FieldAccessTracker tracker = tracker();
+        if (tracker != null) {
+            tracker.recordPath(path);
+        }
+    }
+
+    /**
+     * Reads without a path, such as {@code get()} or {@code prettify()}, return the whole parsed body.
+     */
+    @Before("execution(* io.restassured.path.json.JsonPath.get*())"
+            + " || execution(* io.restassured.path.json.JsonPath.prett*())"
+            + " || execution(* io.restassured.path.json.JsonPath.print())"
+            + " || execution(* io.restassured.path.json.JsonPath.peek())")
+    public void recordJsonPathRootRead() {
+        FieldAccessTracker tracker = tracker();
+        if (tracker != null) {
+            tracker.recordWholeBody();
+        }
+    }
+
+    @Before("execution(* io.restassured.response.ResponseBodyExtractionOptions+.path(String, ..)) && args(path, ..)")
+    public void recordResponsePathRead(String path) {
+        FieldAccessTracker tracker = tracker();
+        if (tracker != null) {
+            tracker.recordPath(path);
+        }
+    }
+
+    @Before("execution(* io.restassured.response.ValidatableResponseOptions+.body(..))")
+    public void recordBodyValidation(JoinPoint joinPoint) {
+        FieldAccessTracker tracker = tracker();
+        if (tracker == null) {
+            return;
+        }
+        Object[] args = joinPoint.getArgs();
+        if (args.length > 0 && args[0] instanceof String path) {
+            tracker.recordPath(path);
+        } else {
+            tracker.recordWholeBody();
+        }
+    }
+
+    /**
+     * Root paths make every later read relative, so they cannot be mapped to fields.
+     */
+    @Before("execution(* io.restassured.response.ValidatableResponseOptions+.*RootPath(..))"
+            + " || execution(* io.restassured.path.json.JsonPath.setRootPath(..))")
+    public void recordRootPathChange() {
+        FieldAccessTracker tracker = tracker();
+        if (tracker != null) {
+            tracker.recordWholeBody();
+        }
+    }
+
+    /**
+     * Raw body access from test code exposes every field to whatever the test does next.
+     */
+    @Before("(call(* io.restassured.response.ResponseBodyData+.as*(..))"
+            + " || call(* io.restassured.response.ResponseBodyData+.print(..))"
+            + " || call(* io.restassured.response.ResponseBodyData+.prettyPrint(..))"
+            + " || call(* com.fasterxml.jackson.databind.ObjectMapper.read*(..))"
+            + " || call(* com.fasterxml.jackson.databind.ObjectReader.read*(..))"
+            + " || call(* org.apache.http.util.EntityUtils.*(..))"
+            + " || call(* org.apache.http.HttpEntity+.getContent()))"
+            + " && !within(metatester..*) && !within(io.restassured..*) && !within(org.apache.http..*)")
+    public void recordWholeBodyRead() {
+        FieldAccessTracker tracker = tracker();
+        if (tracker != null) {
+            tracker.recordWholeBody();
+        }
+    }
+}
@@ -1,18 +1,44 @@
 package metatester.aop;
 
+import metatester.config.FaultCollection;
+import metatester.config.SimulatorConfig;
+import metatester.injection.VirtualClock;
+import metatester.metrics.MetricsRegistry;
+import metatester.metrics.StartupMetrics;
 import metatester.report.FaultSimulationReport;
+import metatester.runner.Runner;
+import metatester.schemacoverage.CoverageWriter;
 import org.junit.platform.launcher.TestExecutionListener;
 import org.junit.platform.launcher.TestPlan;
 
+import java.util.Map;
+
 public class GlobalTestExecutionListener implements TestExecutionListener {
 
     private static boolean executed = false;
     private final boolean runWithMetatester = Boolean.parseBoolean(System.getProperty("runWithMetatester"));
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        StartupMetrics.getInstance().markTestPlanStarted();
+    }
+
     @Override
     public void testPlanExecutionFinished(TestPlan testPlan) {
         if (!executed && runWithMetatester) {
             executed = true;
             System.out.println("All tests completed - Generating final report...");
+            CoverageWriter.getInstance().close();
+            Runner.shutdownVariantPool();
+            FaultSimulationReport.getInstance().putSummary("startup", StartupMetrics.getInstance().toSummary());
+            if (SimulatorConfig.getEnabledFaults().contains(FaultCollection.delay_injection)) {
+                FaultSimulationReport.getInstance().putSummary("delayInjection", Map.of(
+                        "mode", SimulatorConfig.isDelayInjectionRealTime() ? "real" : "virtual",
+                        "simulatedMs", VirtualClock.getInstance().getElapsedMillis()));
+            }
+            if (MetricsRegistry.getInstance().isEnabled()) {
+                FaultSimulationReport.getInstance().putSummary("metrics", MetricsRegistry.getInstance().toSummary());
+            }
             FaultSimulationReport.getInstance().createJSONReport();
         }
     }
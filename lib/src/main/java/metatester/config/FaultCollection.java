@@ -4,6 +4,28 @@ public enum FaultCollection {
     null_field,
     missing_field,
     invalid_value,
-    http_method_change
+    http_method_change,
+    delay_injection,
+    client_error_status,
+    server_error_status,
+    content_type_removed,
+    charset_changed;
+
+    /**
+     * Whether the fault is applied to each response field in turn. The other faults change
+     * the response as a whole and run once per test.
+     */
+    public boolean isFieldFault() {
+        return this == null_field || this == missing_field || this == invalid_value;
+    }
+
+    /**
+     * Whether the interceptors can apply the fault on a rerun. No interceptor changes the request
+     * method yet, so http_method_change reruns would get the unchanged response and be reported
+     * as missed faults; it is left out of the fault plan until it is implemented.
+     */
+    public boolean isSupported() {
+        return this != http_method_change;
+    }
 
 }
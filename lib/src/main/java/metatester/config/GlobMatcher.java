@@ -0,0 +1,214 @@
+package metatester.config;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A set of glob patterns compiled into one deterministic automaton. {@code *} matches any run of
+ * characters including {@code /}, {@code ?} matches one character and {@code \} escapes the next
+ * one; patterns must match the whole input. Matching reads each character once and allocates
+ * nothing, however many patterns the set holds.
+ */
+public class GlobMatcher {
+    private static final int DEAD = -1;
+    private static final char ANY_RUN = '*';
+    private static final char ANY_ONE = '?';
+
+    private static final GlobMatcher EMPTY = new GlobMatcher(List.of());
+
+    /** Literal characters of all patterns, sorted; every other character falls in class 0. */
+    private final char[] literals;
+    /** Character class of each ASCII character, looked up without a search. */
+    private final int[] asciiClasses = new int[128];
+    private final int classCount;
+    /** transitions[state * classCount + class] is the next state or DEAD. */
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    /**
+     * Tokens of one pattern: a literal character, or ANY_RUN / ANY_ONE with the wildcard bit set.
+     */
+    private record Pattern(char[] tokens, boolean[] wildcard) {
+    }
+
+    private GlobMatcher(List<String> globs) {
+        Pattern[] patterns = globs.stream().map(GlobMatcher::parse).toArray(Pattern[]::new);
+
+        TreeSet<Character> literalSet = new TreeSet<>();
+        for (Pattern pattern : patterns) {
+            for (int i = 0; i < pattern.tokens.length; i++) {
+                if (!pattern.wildcard[i]) literalSet.add(pattern.tokens[i]);
+            }
+        }
+        literals = new char[literalSet.size()];
+        int index = 0;
+        for (char literal : literalSet) literals[index++] = literal;
+        classCount = literals.length + 1;
+        for (char c = 0; c < asciiClasses.length; c++) {
+            asciiClasses[c] = searchClass(c);
+        }
+
+        // NFA state = position in one pattern; state offsets[p] + tokens.length accepts pattern p
+        int[] offsets = new int[patterns.length + 1];
+        for (int p = 0; p < patterns.length; p++) {
+            offsets[p + 1] = offsets[p] + patterns[p].tokens.length + 1;
+        }
+
+        Map<BitSet, Integer> stateIds = new HashMap<>();
+        Deque<BitSet> pending = new ArrayDeque<>();
+        int[] table = new int[16 * classCount];
+        boolean[] accepts = new boolean[16];
+
+        BitSet start = new BitSet();
+        for (int p = 0; p < patterns.length; p++) {
+            addWithClosure(start, patterns[p], offsets[p], 0);
+        }
+        start = collapseIfMatchAll(start, patterns, offsets);
+        stateIds.put(start, 0);
+        pending.add(start);
+        while (!pending.isEmpty()) {
+            BitSet state = pending.poll();
+            int id = stateIds.get(state);
+            if ((id + 1) * classCount > table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+                accepts = Arrays.copyOf(accepts, accepts.length * 2);
+            }
+            accepts[id] = isAccepting(state, patterns, offsets);
+            for (int charClass = 0; charClass < classCount; charClass++) {
+                BitSet next = collapseIfMatchAll(step(state, charClass, patterns, offsets), patterns, offsets);
+                if (next.isEmpty()) {
+                    table[id * classCount + charClass] = DEAD;
+                    continue;
+                }
+                Integer nextId = stateIds.get(next);
+                if (nextId == null) {
+                    nextId = stateIds.size();
+                    stateIds.put(next, nextId);
+                    pending.add(next);
+                }
+                table[id * classCount + charClass] = nextId;
+            }
+        }
+        transitions = Arrays.copyOf(table, stateIds.size() * classCount);
+        accepting = Arrays.copyOf(accepts, stateIds.size());
+    }
+
+    public static GlobMatcher compile(List<String> globs) {
+        return globs == null || globs.isEmpty() ? EMPTY : new GlobMatcher(globs);
+    }
+
+    public boolean matches(CharSequence input) {
+        if (input == null || accepting.length == 0) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < input.length(); i++) {
+            state = transitions[state * classCount + classOf(input.charAt(i))];
+            if (state == DEAD) {
+                return false;
+            }
+        }
+        return accepting[state];
+    }
+
+    /**
+     * Number of automaton states, for diagnostics.
+     */
+    public int stateCount() {
+        return accepting.length;
+    }
+
+    private int classOf(char c) {
+        return c < asciiClasses.length ? asciiClasses[c] : searchClass(c);
+    }
+
+    private int searchClass(char c) {
+        int index = Arrays.binarySearch(literals, c);
+        return index >= 0 ? index + 1 : 0;
+    }
+
+    private static Pattern parse(String glob) {
+        char[] tokens = new char[glob.length()];
+        boolean[] wildcard = new boolean[glob.length()];
+        int length = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '\\' && i + 1 < glob.length()) {
+                tokens[length++] = glob.charAt(++i);
+            } else if (c == ANY_RUN || c == ANY_ONE) {
+                // consecutive stars match the same inputs as one
+                if (c == ANY_RUN && length > 0 && wildcard[length - 1] && tokens[length - 1] == ANY_RUN) continue;
+                wildcard[length] = true;
+                tokens[length++] = c;
+            } else {
+                tokens[length++] = c;
+            }
+        }
+        return new Pattern(Arrays.copyOf(tokens, length), Arrays.copyOf(wildcard, length));
+    }
+
+    private static void addWithClosure(BitSet state, Pattern pattern, int offset, int position) {
+        state.set(offset + position);
+        // a star may match nothing, so the position after it is reachable too
+        while (position < pattern.tokens.length && pattern.wildcard[position] && pattern.tokens[position] == ANY_RUN) {
+            state.set(offset + ++position);
+        }
+    }
+
+    private BitSet step(BitSet state, int charClass, Pattern[] patterns, int[] offsets) {
+        BitSet next = new BitSet();
+        int p = 0;
+        for (int bit = state.nextSetBit(0); bit >= 0; bit = state.nextSetBit(bit + 1)) {
+            while (bit >= offsets[p + 1]) p++;
+            Pattern pattern = patterns[p];
+            int position = bit - offsets[p];
+            if (position == pattern.tokens.length) {
+                continue;
+            }
+            char token = pattern.tokens[position];
+            if (pattern.wildcard[position] && token == ANY_RUN) {
+                addWithClosure(next, pattern, offsets[p], position);
+            } else if (pattern.wildcard[position] || (charClass > 0 && literals[charClass - 1] == token)) {
+                addWithClosure(next, pattern, offsets[p], position + 1);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Once a pattern reaches its trailing star the input matches whatever follows, so the partial
+     * matches of the other patterns no longer matter. Without this, every combination of patterns
+     * that already reached their trailing star would become a state of its own.
+     */
+    private static BitSet collapseIfMatchAll(BitSet state, Pattern[] patterns, int[] offsets) {
+        int p = 0;
+        for (int bit = state.nextSetBit(0); bit >= 0; bit = state.nextSetBit(bit + 1)) {
+            while (bit >= offsets[p + 1]) p++;
+            Pattern pattern = patterns[p];
+            int length = pattern.tokens.length;
+            boolean trailingStar = length > 0 && pattern.wildcard[length - 1] && pattern.tokens[length - 1] == ANY_RUN;
+            if (trailingStar && bit - offsets[p] >= length - 1) {
+                BitSet matchAll = new BitSet();
+                matchAll.set(offsets[p] + length - 1);
+                matchAll.set(offsets[p] + length);
+                return matchAll;
+            }
+        }
+        return state;
+    }
+
+    private static boolean isAccepting(BitSet state, Pattern[] patterns, int[] offsets) {
+        for (int p = 0; p < patterns.length; p++) {
+            if (state.get(offsets[p] + patterns[p].tokens.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
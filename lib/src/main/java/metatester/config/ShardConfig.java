@@ -0,0 +1,72 @@
+package metatester.config;
+
+/**
+ * Splits a fault campaign across JVMs. An explicit shard is set with
+ * {@code -Dmetatester.shard.index=<i> -Dmetatester.shard.count=<n>}: every JVM runs all tests,
+ * but only the tests whose id hashes to its index get fault reruns. Without it, Gradle test forks
+ * started with {@code -Dmetatester.forked=true} already receive disjoint sets of test classes, so
+ * every test is owned and only the output files are kept apart using the fork's worker id. Both
+ * combine: each fork of an explicit shard owns that shard's tests among the classes it receives.
+ */
+public class ShardConfig {
+    public static final String SHARD_INDEX_PROPERTY = "metatester.shard.index";
+    public static final String SHARD_COUNT_PROPERTY = "metatester.shard.count";
+    public static final String FORKED_PROPERTY = "metatester.forked";
+    public static final String GRADLE_WORKER_PROPERTY = "org.gradle.test.worker";
+
+    public static int getShardCount() {
+        int count = Integer.getInteger(SHARD_COUNT_PROPERTY, 1);
+        if (count < 1) {
+            throw new IllegalArgumentException(SHARD_COUNT_PROPERTY + " must be at least 1, was " + count);
+        }
+        return count;
+    }
+
+    public static int getShardIndex() {
+        int index = Integer.getInteger(SHARD_INDEX_PROPERTY, 0);
+        if (index < 0 || index >= getShardCount()) {
+            throw new IllegalArgumentException(SHARD_INDEX_PROPERTY + " must be between 0 and "
+                    + (getShardCount() - 1) + ", was " + index);
+        }
+        return index;
+    }
+
+    /**
+     * Name of this shard in output files, or null when the campaign runs in a single JVM. An
+     * explicit shard run in several forks gets the worker id too, e.g. {@code 2-worker-5}, so the
+     * forks of one shard do not overwrite each other's files.
+     */
+    public static String getShardId() {
+        String worker = System.getProperty(GRADLE_WORKER_PROPERTY);
+        String workerId = worker != null && Boolean.getBoolean(FORKED_PROPERTY) ? "worker-" + worker : null;
+        if (System.getProperty(SHARD_INDEX_PROPERTY) != null) {
+            String shardIndex = String.valueOf(getShardIndex());
+            return workerId != null ? shardIndex + "-" + workerId : shardIndex;
+        }
+        return workerId;
+    }
+
+    /**
+     * Whether fault reruns of the given test belong to this shard. String hash codes are
+     * specified by the JLS, so every JVM computes the same assignment.
+     */
+    public static boolean isOwnedByThisShard(String testId) {
+        return Math.floorMod(testId.hashCode(), getShardCount()) == getShardIndex();
+    }
+
+    /**
+     * Inserts the shard id before the extension, e.g. {@code report.json} becomes
+     * {@code report.shard-2.json}. Unchanged when not sharded.
+     */
+    public static String shardPath(String path) {
+        String shardId = getShardId();
+        if (shardId == null) {
+            return path;
+        }
+        int separator = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        int extension = path.indexOf('.', separator + 1);
+        return extension < 0
+                ? path + ".shard-" + shardId
+                : path.substring(0, extension) + ".shard-" + shardId + path.substring(extension);
+    }
+}
@@ -5,8 +5,12 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SimulatorConfig {
     public Faults faults;
@@ -15,7 +19,11 @@ public class SimulatorConfig {
     public Endpoints endpoints;
     public Tests tests;
     public Report report;
-
+    public Execution execution;
+    public SchemaCoverage schema_coverage;
+    public FaultTargets fault_targets;
+    public Cache cache;
+    public Metrics metrics;
 
     public static class Faults {
         static class Fault {
@@ -24,6 +32,16 @@ public class SimulatorConfig {
 
         static class DelayInjection extends Fault {
             public int delay_ms;
+            public String mode;
+        }
+
+        static class StatusCodeChange extends Fault {
+            public int client_error;
+            public int server_error;
+        }
+
+        static class HeaderChange extends Fault {
+            public String charset;
         }
 
         public Fault null_field;
@@ -31,7 +49,8 @@ public class SimulatorConfig {
         public Fault invalid_data_type;
         public Fault invalid_value;
         public Fault http_method_change;
-        public Fault status_code_change;
+        public StatusCodeChange status_code_change;
+        public HeaderChange header_change;
         public DelayInjection delay_injection;
     }
 
@@ -49,10 +68,103 @@ public class SimulatorConfig {
     public static class Report {
         public String format;
         public String output_path;
+        public int max_error_length;
+        public Stream stream;
+
+        static class Stream {
+            public boolean enabled;
+            public String path;
+            public boolean gzip;
+        }
     }
 
+    public static class Cache {
+        public boolean enabled;
+        public String path;
+    }
 
-    private static SimulatorConfig getConfig(){
+    public static class Metrics {
+        public boolean enabled;
+    }
+
+    public static class FaultTargets {
+        public int max_depth;
+        public int max_fan_out;
+        public ArraySampling array_sampling;
+
+        static class ArraySampling {
+            public boolean enabled;
+            public int random_elements;
+            public long seed;
+        }
+    }
+
+    public static class SchemaCoverage {
+        public long flush_interval_ms;
+        public int flush_batch_size;
+    }
+
+    public static class Execution {
+        public Parallel parallel;
+        public ShortCircuit short_circuit;
+        public SkipUnreadFields skip_unread_fields;
+        public Sampling sampling;
+        public Capture capture;
+        public GroupTesting group_testing;
+        public Pipeline pipeline;
+
+        static class Parallel {
+            public boolean enabled;
+            public int concurrency;
+        }
+
+        static class ShortCircuit {
+            public boolean enabled;
+        }
+
+        static class SkipUnreadFields {
+            public boolean enabled;
+        }
+
+        static class Sampling {
+            public boolean enabled;
+            public double confidence;
+            public double margin_of_error;
+            public int min_variants_per_test;
+            public long seed;
+        }
+
+        static class Capture {
+            public long max_body_bytes;
+            public long spill_threshold_bytes;
+        }
+
+        static class GroupTesting {
+            public boolean enabled;
+            public int max_group_size;
+        }
+
+        static class Pipeline {
+            public boolean enabled;
+            public int depth;
+        }
+    }
+
+
+    /**
+     * config.yml is read once, on first use. The exclusion globs are compiled at the same time
+     * and the parsed instance is never handed out, so every accessor sees the same snapshot.
+     */
+    private static class Snapshot {
+        static final SimulatorConfig CONFIG = load();
+        static final GlobMatcher URL_EXCLUDES = GlobMatcher.compile(CONFIG.url != null ? CONFIG.url.exclude : null);
+        static final GlobMatcher ENDPOINT_EXCLUDES = GlobMatcher.compile(CONFIG.endpoints != null ? CONFIG.endpoints.exclude : null);
+        static final GlobMatcher TEST_EXCLUDES = GlobMatcher.compile(CONFIG.tests != null ? CONFIG.tests.exclude : null);
+    }
+
+    private static final Set<FaultCollection> WARNED_UNSUPPORTED = ConcurrentHashMap.newKeySet();
+
+    private static SimulatorConfig load(){
         ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
         try (InputStream inputStream = SimulatorConfig.class.getClassLoader().getResourceAsStream("config.yml")) {
             if (inputStream == null) {
@@ -64,27 +176,328 @@ public class SimulatorConfig {
         }
     }
 
+    private static SimulatorConfig getConfig(){
+        return Snapshot.CONFIG;
+    }
+
     public static List<FaultCollection> getEnabledFaults(){
         List<FaultCollection> enabledFaults = new ArrayList<>();
         Faults faults = getConfig().faults;
 
         if (faults.null_field.enabled) enabledFaults.add(FaultCollection.null_field);
         if (faults.missing_field.enabled) enabledFaults.add(FaultCollection.missing_field);
-        if (faults.invalid_data_type.enabled) enabledFaults.add(FaultCollection.invalid_value);
-        if (faults.http_method_change.enabled) enabledFaults.add(FaultCollection.http_method_change);
+        // invalid_data_type is the older name of the fault, still honoured when set
+        if ((faults.invalid_value != null && faults.invalid_value.enabled)
+                || (faults.invalid_data_type != null && faults.invalid_data_type.enabled)) {
+            enabledFaults.add(FaultCollection.invalid_value);
+        }
+        if (faults.http_method_change.enabled) {
+            warnUnsupported(FaultCollection.http_method_change);
+        }
+        if (faults.delay_injection != null && faults.delay_injection.enabled) enabledFaults.add(FaultCollection.delay_injection);
+        if (faults.status_code_change != null && faults.status_code_change.enabled) {
+            enabledFaults.add(FaultCollection.client_error_status);
+            enabledFaults.add(FaultCollection.server_error_status);
+        }
+        if (faults.header_change != null && faults.header_change.enabled) {
+            enabledFaults.add(FaultCollection.content_type_removed);
+            enabledFaults.add(FaultCollection.charset_changed);
+        }
 
         return enabledFaults;
     }
 
-    public static boolean isEndpointExcluded(String endpoint){
-        return false;
+    private static void warnUnsupported(FaultCollection fault) {
+        if (!fault.isSupported() && WARNED_UNSUPPORTED.add(fault)) {
+            System.out.println("Fault " + fault + " is enabled but not supported yet, it is left out of the fault plan.");
+        }
+    }
 
+    /**
+     * Status served by the client_error_status fault in place of the captured one.
+     */
+    public static int getClientErrorStatus(){
+        Faults.StatusCodeChange statusCodeChange = getConfig().faults.status_code_change;
+        return statusCodeChange != null && statusCodeChange.client_error >= 400 && statusCodeChange.client_error < 500
+                ? statusCodeChange.client_error : 404;
     }
 
-    public static boolean isTestExcluded(String testName){
+    /**
+     * Status served by the server_error_status fault in place of the captured one.
+     */
+    public static int getServerErrorStatus(){
+        Faults.StatusCodeChange statusCodeChange = getConfig().faults.status_code_change;
+        return statusCodeChange != null && statusCodeChange.server_error >= 500 && statusCodeChange.server_error < 600
+                ? statusCodeChange.server_error : 500;
+    }
+
+    /**
+     * Charset the charset_changed fault names in the Content-Type while the body keeps its encoding.
+     */
+    public static Charset getChangedCharset(){
+        Faults.HeaderChange headerChange = getConfig().faults.header_change;
+        return headerChange != null && headerChange.charset != null
+                ? Charset.forName(headerChange.charset) : StandardCharsets.ISO_8859_1;
+    }
+
+    public static long getDelayInjectionMs(){
+        Faults.DelayInjection delayInjection = getConfig().faults.delay_injection;
+        return delayInjection != null && delayInjection.delay_ms > 0 ? delayInjection.delay_ms : 500;
+    }
+
+    /**
+     * In the default virtual mode a delay only advances simulated time, and client timeouts are
+     * decided against it without waiting. The real mode sleeps for the delay.
+     */
+    public static boolean isDelayInjectionRealTime(){
+        Faults.DelayInjection delayInjection = getConfig().faults.delay_injection;
+        return delayInjection != null && "real".equalsIgnoreCase(delayInjection.mode);
+    }
+
+    /**
+     * Whether the variants of a test rerun at the same time. Opt-in: reruns share the test
+     * instance, its {@code @BeforeEach} state and static client configuration such as
+     * RestAssured's, so only stateless tests report correct results with it.
+     */
+    public static boolean isParallelExecutionEnabled(){
+        Execution execution = getConfig().execution;
+        return execution != null && execution.parallel != null && execution.parallel.enabled;
+    }
+
+    /**
+     * Number of fault variants of a single test that may run at the same time.
+     * Falls back to the number of available processors when not configured.
+     */
+    public static int getParallelConcurrency(){
+        Execution execution = getConfig().execution;
+        if (execution == null || execution.parallel == null || execution.parallel.concurrency <= 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return execution.parallel.concurrency;
+    }
+
+    /**
+     * Largest response body that is captured for fault injection. Larger bodies stream to the
+     * client unread and their test gets no fault reruns.
+     */
+    public static long getCaptureMaxBodyBytes(){
+        Execution execution = getConfig().execution;
+        return execution != null && execution.capture != null && execution.capture.max_body_bytes > 0
+                ? execution.capture.max_body_bytes : 10 * 1024 * 1024;
+    }
+
+    /**
+     * Size above which an Apache response body is kept in a memory-mapped temp file instead of
+     * on the heap, and faulted through byte patches instead of a parsed tree.
+     */
+    public static long getCaptureSpillThresholdBytes(){
+        Execution execution = getConfig().execution;
+        return execution != null && execution.capture != null && execution.capture.spill_threshold_bytes > 0
+                ? execution.capture.spill_threshold_bytes : 8 * 1024 * 1024;
+    }
+
+    /**
+     * When enabled, reruns are answered from the response captured on the first run
+     * and the backend is not called again.
+     */
+    public static boolean isShortCircuitEnabled(){
+        Execution execution = getConfig().execution;
+        return execution != null && execution.short_circuit != null && execution.short_circuit.enabled;
+    }
+
+    /**
+     * How deep below the response root fields are faulted; top-level fields are at depth 1.
+     */
+    public static int getFaultTargetMaxDepth(){
+        FaultTargets faultTargets = getConfig().fault_targets;
+        return faultTargets != null && faultTargets.max_depth > 0 ? faultTargets.max_depth : 3;
+    }
+
+    /**
+     * How many children of a single object or array are faulted.
+     */
+    public static int getFaultTargetMaxFanOut(){
+        FaultTargets faultTargets = getConfig().fault_targets;
+        return faultTargets != null && faultTargets.max_fan_out > 0 ? faultTargets.max_fan_out : 50;
+    }
+
+    /**
+     * When enabled, arrays are faulted at a sample of their elements, first, last, one per
+     * distinct shape and a few seeded random ones, instead of at their first elements.
+     */
+    public static boolean isArraySamplingEnabled(){
+        FaultTargets.ArraySampling arraySampling = getArraySampling();
+        return arraySampling != null && arraySampling.enabled;
+    }
+
+    /**
+     * Elements drawn at random from each array besides first, last and shape representatives.
+     */
+    public static int getArraySamplingRandomElements(){
+        FaultTargets.ArraySampling arraySampling = getArraySampling();
+        return arraySampling != null && arraySampling.random_elements >= 0 ? arraySampling.random_elements : 3;
+    }
+
+    public static long getArraySamplingSeed(){
+        FaultTargets.ArraySampling arraySampling = getArraySampling();
+        return arraySampling != null ? arraySampling.seed : 0;
+    }
+
+    private static FaultTargets.ArraySampling getArraySampling(){
+        FaultTargets faultTargets = getConfig().fault_targets;
+        return faultTargets != null ? faultTargets.array_sampling : null;
+    }
+
+    /**
+     * When enabled, results of a test are reused from the previous run if neither the test
+     * class, the original response nor the fault plan changed.
+     */
+    public static boolean isCacheEnabled(){
+        Cache cache = getConfig().cache;
+        return cache != null && cache.enabled;
+    }
+
+    public static String getCachePath(){
+        Cache cache = getConfig().cache;
+        return cache != null && cache.path != null ? cache.path : ".metatester/cache";
+    }
+
+    /**
+     * When enabled, phase timings and variant counters are collected and added to the report summary.
+     */
+    public static boolean isMetricsEnabled(){
+        Metrics metrics = getConfig().metrics;
+        return metrics != null && metrics.enabled;
+    }
+
+    public static long getCoverageFlushIntervalMs(){
+        SchemaCoverage schemaCoverage = getConfig().schema_coverage;
+        return schemaCoverage != null && schemaCoverage.flush_interval_ms > 0 ? schemaCoverage.flush_interval_ms : 1000;
+    }
+
+    public static int getCoverageFlushBatchSize(){
+        SchemaCoverage schemaCoverage = getConfig().schema_coverage;
+        return schemaCoverage != null && schemaCoverage.flush_batch_size > 0 ? schemaCoverage.flush_batch_size : 100;
+    }
+
+    /**
+     * When enabled, every fault simulation result is appended to an NDJSON file as soon as
+     * it is applied instead of being kept in memory until the end of the run.
+     */
+    public static boolean isReportStreamEnabled(){
+        Report report = getConfig().report;
+        return report != null && report.stream != null && report.stream.enabled;
+    }
+
+    public static boolean isReportStreamGzipEnabled(){
+        Report report = getConfig().report;
+        return report != null && report.stream != null && report.stream.gzip;
+    }
 
-        return false;
+    public static String getReportStreamPath(){
+        Report report = getConfig().report;
+        if (report != null && report.stream != null && report.stream.path != null) {
+            return report.stream.path;
+        }
+        return isReportStreamGzipEnabled() ? "fault_simulation_report.ndjson.gz" : "fault_simulation_report.ndjson";
+    }
+
+    /**
+     * Error messages longer than this are truncated in the in-memory report.
+     */
+    public static int getReportMaxErrorLength(){
+        Report report = getConfig().report;
+        return report != null && report.max_error_length > 0 ? report.max_error_length : 1000;
+    }
+
+    /**
+     * When enabled, variants on fields the test did not read during its original run
+     * are reported as undetected without rerunning the test.
+     */
+    public static boolean isSkipUnreadFieldsEnabled(){
+        Execution execution = getConfig().execution;
+        return execution != null && execution.skip_unread_fields != null && execution.skip_unread_fields.enabled;
+    }
+
+    /**
+     * When enabled, sequential reruns take their simulated responses from a background thread
+     * that mutates and encodes the next bodies while the current rerun runs.
+     */
+    public static boolean isPipelineEnabled(){
+        Execution execution = getConfig().execution;
+        return execution != null && execution.pipeline != null && execution.pipeline.enabled;
+    }
+
+    /**
+     * How many prepared variants the pipeline holds ahead of the reruns.
+     */
+    public static int getPipelineDepth(){
+        Execution execution = getConfig().execution;
+        return execution != null && execution.pipeline != null && execution.pipeline.depth > 0
+                ? execution.pipeline.depth : 4;
+    }
+
+    /**
+     * When enabled, the field variants of a fault are rerun in groups, all applied to one body,
+     * and a group is bisected only when the test detects it. Takes precedence over parallel reruns.
+     */
+    public static boolean isGroupTestingEnabled(){
+        Execution execution = getConfig().execution;
+        return execution != null && execution.group_testing != null && execution.group_testing.enabled;
+    }
+
+    /**
+     * Most field variants applied together in one group rerun.
+     */
+    public static int getGroupTestingMaxGroupSize(){
+        Execution execution = getConfig().execution;
+        return execution != null && execution.group_testing != null && execution.group_testing.max_group_size > 0
+                ? execution.group_testing.max_group_size : 32;
+    }
+
+    /**
+     * When enabled, variants are drawn at random instead of running the whole field x fault
+     * matrix, and sampling stops once the mutation score is known to the configured precision.
+     */
+    public static boolean isSamplingEnabled(){
+        return getSampling() != null && getSampling().enabled;
+    }
 
+    public static double getSamplingConfidence(){
+        Execution.Sampling sampling = getSampling();
+        return sampling != null && sampling.confidence > 0 && sampling.confidence < 1 ? sampling.confidence : 0.95;
+    }
+
+    public static double getSamplingMarginOfError(){
+        Execution.Sampling sampling = getSampling();
+        return sampling != null && sampling.margin_of_error > 0 ? sampling.margin_of_error : 0.03;
+    }
+
+    public static int getSamplingMinVariantsPerTest(){
+        Execution.Sampling sampling = getSampling();
+        return sampling != null ? Math.max(0, sampling.min_variants_per_test) : 1;
+    }
+
+    public static long getSamplingSeed(){
+        Execution.Sampling sampling = getSampling();
+        return sampling != null ? sampling.seed : 0;
+    }
+
+    private static Execution.Sampling getSampling(){
+        Execution execution = getConfig().execution;
+        return execution != null ? execution.sampling : null;
+    }
+
+    public static boolean isUrlExcluded(String url){
+        return Snapshot.URL_EXCLUDES.matches(url);
+    }
+
+    public static boolean isEndpointExcluded(String endpoint){
+        return Snapshot.ENDPOINT_EXCLUDES.matches(endpoint);
+    }
+
+    public static boolean isTestExcluded(String testName){
+        return Snapshot.TEST_EXCLUDES.matches(testName);
     }
 
 }
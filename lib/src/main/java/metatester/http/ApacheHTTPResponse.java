@@ -1,42 +1,86 @@
 package metatester.http;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import metatester.config.FaultCollection;
+import metatester.config.SimulatorConfig;
+import metatester.utils.JsonUtils;
 import org.apache.http.HttpResponse;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
 
 import java.io.IOException;
 import java.util.Map;
 
+/**
+ * Captured Apache response. A body above the spill threshold is neither decoded nor parsed:
+ * it stays in its {@link SpilledBody}, its fields are found through a {@link JsonFieldIndex}
+ * built on first use, and variants are served as {@link BodyPatch}es over it.
+ */
 public class ApacheHTTPResponse implements Response {
 
     String url;
     Map<String, Object> headers;
     String body;
-    int statusCode;
+    final ResponseSnapshot snapshot;
 
+    JsonNode responseAsTree;
     Map<String, Object> responseAsMap;
+    JsonFieldIndex fieldIndex;
 
 
     public ApacheHTTPResponse(HttpResponse response) throws IOException {
-        this.body = EntityUtils.toString(response.getEntity());
-        setResponseAsMap(this.body);
+        this(ResponseSnapshot.capture(response), null);
     }
 
+    /**
+     * @param url the URL the response was requested from, which the response itself does not carry
+     */
+    public ApacheHTTPResponse(HttpResponse response, String url) throws IOException {
+        this(ResponseSnapshot.capture(response), url);
+    }
+
+    public ApacheHTTPResponse(HttpResponse response, long spillThresholdBytes) throws IOException {
+        this(ResponseSnapshot.capture(response, spillThresholdBytes), null);
+    }
+
+    /**
+     * A response over a snapshot already taken, so that a body that cannot be parsed can still
+     * be put back on the response it was read from.
+     *
+     * @throws JsonProcessingException when the body was not spilled and is not JSON
+     */
+    public ApacheHTTPResponse(ResponseSnapshot snapshot, String url) throws JsonProcessingException {
+        this.url = url;
+        this.snapshot = snapshot;
+        this.headers = snapshot.getHeaders();
+        if (!snapshot.isSpilled()) {
+            this.body = snapshot.getBodyAsString();
+            setResponseAsMap(this.body);
+        }
+    }
+
+    /**
+     * The URL the response was requested from, or null when it was captured without one.
+     */
     @Override
     public String getUrl() {
-        return null;
+        return url;
     }
 
     @Override
     public Map<String, Object> getHeaders() {
-        return null;
+        return headers;
     }
 
+    /**
+     * The body as a string. A spilled body is decoded on the first call, which puts all of it
+     * on the heap; the simulator itself never asks for it.
+     */
     @Override
-    public String getBody() {
+    public synchronized String getBody() {
+        if (body == null && snapshot.isSpilled()) {
+            body = snapshot.getBodyAsString();
+        }
         return this.body;
     }
 
@@ -46,20 +90,127 @@ public class ApacheHTTPResponse implements Response {
     }
 
     @Override
-    public Map<String, Object> getResponseAsMap() {
+    public synchronized Map<String, Object> getResponseAsMap() {
+        if (responseAsMap == null && responseAsTree != null && responseAsTree.isObject()) {
+            responseAsMap = JsonUtils.toMap(responseAsTree);
+        }
         return responseAsMap;
     }
 
-    public void setResponseAsMap(String response) throws JsonProcessingException {
+    /**
+     * The parsed body, or null for a spilled body, whose fields are in {@link #getFieldIndex()}.
+     */
+    @Override
+    public JsonNode getResponseAsTree() {
+        return responseAsTree;
+    }
 
-        ObjectMapper objectMapper = new ObjectMapper();
+    public boolean isSpilled() {
+        return snapshot.isSpilled();
+    }
 
-        JsonNode rootNode = objectMapper.readTree(response);
-        if(rootNode.isArray()){
-            //todo
-        }
-        if(rootNode.isObject()){
-            responseAsMap = objectMapper.readValue(response, new TypeReference<>() {});
+    /**
+     * Fields of a spilled body, scanned on the first call within the configured fault target
+     * depth and fan-out; null when the body was not spilled.
+     */
+    public synchronized JsonFieldIndex getFieldIndex() {
+        if (fieldIndex == null && snapshot.isSpilled()) {
+            try {
+                fieldIndex = JsonFieldIndex.scan(snapshot.getSpilledBody(), snapshot.getCharset(),
+                        SimulatorConfig.getFaultTargetMaxDepth(), SimulatorConfig.getFaultTargetMaxFanOut());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot index the spilled response body", e);
+            }
         }
+        return fieldIndex;
+    }
+
+    public int getStatusCode() {
+        return snapshot.getStatusCode();
+    }
+
+    public ResponseSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Builds a response from the captured status line and headers carrying the given body,
+     * so a rerun can be answered without calling the server.
+     *
+     * @param simulatedBody the body to serve, usually a mutated copy of the original
+     * @return a detached response that needs no connection to be released
+     */
+    public CloseableHttpResponse toSimulatedHttpResponse(String simulatedBody) {
+        return toSimulatedHttpResponse(simulatedBody, null);
+    }
+
+    /**
+     * As {@link #toSimulatedHttpResponse(String)}, with a status or header fault applied to the
+     * captured status line and headers. Other faults leave them as captured.
+     */
+    public CloseableHttpResponse toSimulatedHttpResponse(String simulatedBody, FaultCollection fault) {
+        return snapshot.withFault(fault).toHttpResponse(servedBody(simulatedBody));
+    }
+
+    /**
+     * As {@link #toSimulatedHttpResponse(String, FaultCollection)}, with the body already encoded.
+     */
+    public CloseableHttpResponse toSimulatedHttpResponse(byte[] encodedBody, FaultCollection fault) {
+        return snapshot.withFault(fault).toEncodedHttpResponse(encodedBody);
+    }
+
+    /**
+     * As {@link #toSimulatedHttpResponse(String, FaultCollection)}, serving the captured body
+     * with the patch applied.
+     */
+    public CloseableHttpResponse toSimulatedHttpResponse(BodyPatch patch, FaultCollection fault) {
+        return snapshot.withFault(fault).toPatchedHttpResponse(patch);
+    }
+
+    /**
+     * Puts the captured status line, headers and the given body, with a status or header fault
+     * applied, on a response that came from the server.
+     */
+    public void applyTo(HttpResponse response, String simulatedBody, FaultCollection fault) {
+        snapshot.withFault(fault).applyTo(response, servedBody(simulatedBody));
+    }
+
+    /**
+     * As {@link #applyTo(HttpResponse, String, FaultCollection)}, with the body already encoded.
+     */
+    public void applyTo(HttpResponse response, byte[] encodedBody, FaultCollection fault) {
+        snapshot.withFault(fault).applyEncodedTo(response, encodedBody);
+    }
+
+    /**
+     * As {@link #applyTo(HttpResponse, String, FaultCollection)}, with the captured body
+     * patched.
+     */
+    public void applyPatchTo(HttpResponse response, BodyPatch patch, FaultCollection fault) {
+        snapshot.withFault(fault).applyPatchTo(response, patch);
+    }
+
+    /**
+     * Puts the captured response back on the response the first run consumed it from.
+     */
+    public void restore(HttpResponse response) {
+        snapshot.applyTo(response, null);
+    }
+
+    @Override
+    public byte[] encode(String simulatedBody) {
+        return snapshot.encode(servedBody(simulatedBody));
+    }
+
+    /**
+     * Null when the body is the captured one, so its bytes are served without encoding it again.
+     */
+    private String servedBody(String simulatedBody) {
+        return simulatedBody == null || simulatedBody.equals(body) ? null : simulatedBody;
+    }
+
+    public void setResponseAsMap(String response) throws JsonProcessingException {
+        responseAsTree = JsonUtils.readTree(response);
+        responseAsMap = null;
     }
 }
@@ -0,0 +1,60 @@
+package metatester.http;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A response body variant expressed as a change to the captured bytes: the bytes between
+ * {@code start} and {@code end} are replaced by {@code replacement}. Served bodies are the
+ * original prefix, the replacement and the original suffix, so a variant of a spilled body costs
+ * the replacement only. The replacement is encoded in {@code charset}, the one the captured body
+ * is in.
+ */
+public record BodyPatch(long start, long end, byte[] replacement, Charset charset) {
+    /** Serves the captured bytes unchanged. */
+    public static final BodyPatch NONE = new BodyPatch(0, 0, new byte[0], StandardCharsets.UTF_8);
+
+    public static BodyPatch replace(long start, long end, String replacement, Charset charset) {
+        return new BodyPatch(start, end, replacement.getBytes(charset), charset);
+    }
+
+    public boolean isNone() {
+        return start == end && replacement.length == 0;
+    }
+
+    public long patchedLength(long length) {
+        return length - (end - start) + replacement.length;
+    }
+
+    /**
+     * Applies the patch to a body held in memory.
+     */
+    public byte[] applyTo(byte[] body) {
+        if (isNone()) {
+            return body;
+        }
+        byte[] patched = new byte[(int) patchedLength(body.length)];
+        System.arraycopy(body, 0, patched, 0, (int) start);
+        System.arraycopy(replacement, 0, patched, (int) start, replacement.length);
+        System.arraycopy(body, (int) end, patched, (int) start + replacement.length, body.length - (int) end);
+        return patched;
+    }
+
+    @Override
+    public String toString() {
+        return "bytes [" + start + ", " + end + ") replaced by '"
+                + new String(replacement, charset) + "'";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BodyPatch other && start == other.start && end == other.end
+                && Arrays.equals(replacement, other.replacement);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(start) + Long.hashCode(end)) + Arrays.hashCode(replacement);
+    }
+}
@@ -0,0 +1,78 @@
+package metatester.http;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable copy of a response body as it passes through an interceptor, bounded by the capture
+ * limit. Once the limit is exceeded the recording is dropped and later bytes are ignored.
+ */
+class ByteRecorder {
+    private final long maxBytes;
+    private byte[] recorded;
+    private int count;
+    private boolean overflow;
+
+    /**
+     * @param expectedLength the declared body length, or -1; a known length sizes the buffer
+     *                       exactly so the recording is handed over without a trimming copy
+     */
+    ByteRecorder(long expectedLength, long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.overflow = expectedLength > maxBytes;
+        this.recorded = overflow ? null : new byte[expectedLength >= 0 ? (int) expectedLength : 8192];
+    }
+
+    void record(int b) {
+        if (ensureCapacity(1)) {
+            recorded[count++] = (byte) b;
+        }
+    }
+
+    void record(byte[] b, int off, int len) {
+        if (ensureCapacity(len)) {
+            System.arraycopy(b, off, recorded, count, len);
+            count += len;
+        }
+    }
+
+    /**
+     * Copies the remaining bytes of the buffer without moving its position.
+     */
+    void record(ByteBuffer buffer) {
+        int len = buffer.remaining();
+        if (ensureCapacity(len)) {
+            buffer.duplicate().get(recorded, count, len);
+            count += len;
+        }
+    }
+
+    boolean isOverflow() {
+        return overflow;
+    }
+
+    /**
+     * The recorded body, or null when it exceeded the limit.
+     */
+    byte[] toByteArray() {
+        if (overflow) {
+            return null;
+        }
+        return count == recorded.length ? recorded : Arrays.copyOf(recorded, count);
+    }
+
+    private boolean ensureCapacity(int n) {
+        if (overflow) {
+            return false;
+        }
+        if ((long) count + n > maxBytes) {
+            overflow = true;
+            recorded = null;
+            return false;
+        }
+        if (count + n > recorded.length) {
+            recorded = Arrays.copyOf(recorded, (int) Math.min(maxBytes, Math.max(count + n, recorded.length * 2L)));
+        }
+        return true;
+    }
+}
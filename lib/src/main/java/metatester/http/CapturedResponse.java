@@ -0,0 +1,80 @@
+package metatester.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import metatester.utils.JsonUtils;
+
+import java.util.Map;
+
+/**
+ * Response of a client whose body the interceptor reads itself, held as a {@link ResponseSnapshot}.
+ * Subclasses capture status, headers and body bytes in the client specific way and serve
+ * reruns from the snapshot.
+ */
+public abstract class CapturedResponse implements Response {
+    private final String url;
+    protected final ResponseSnapshot snapshot;
+    private final Map<String, Object> headers;
+    private String body;
+
+    private JsonNode responseAsTree;
+    private Map<String, Object> responseAsMap;
+
+    protected CapturedResponse(String url, ResponseSnapshot snapshot) throws JsonProcessingException {
+        this.url = url;
+        this.snapshot = snapshot;
+        this.headers = snapshot.getHeaders();
+        this.body = snapshot.getBodyAsString();
+        responseAsTree = JsonUtils.readTree(body);
+    }
+
+    public int getStatusCode() {
+        return snapshot.getStatusCode();
+    }
+
+    public ResponseSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Bytes to serve for the given body: the captured ones when it is the captured body,
+     * so an unchanged response is never encoded again.
+     */
+    @Override
+    public byte[] encode(String simulatedBody) {
+        return snapshot.encode(simulatedBody.equals(body) ? null : simulatedBody);
+    }
+
+    @Override
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public Map<String, Object> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    @Override
+    public synchronized Map<String, Object> getResponseAsMap() {
+        if (responseAsMap == null && responseAsTree != null && responseAsTree.isObject()) {
+            responseAsMap = JsonUtils.toMap(responseAsTree);
+        }
+        return responseAsMap;
+    }
+
+    @Override
+    public JsonNode getResponseAsTree() {
+        return responseAsTree;
+    }
+}
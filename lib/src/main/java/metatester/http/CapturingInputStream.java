@@ -0,0 +1,91 @@
+package metatester.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Records the bytes of a response stream while the code under test reads it, so capturing the
+ * body takes no read of its own. When the stream ends, or is closed, the recorded body is passed
+ * to {@code onCaptured} once; closing early reads the rest first. A body longer than
+ * {@code maxBytes} stops the recording and is passed on as null, the reader is not affected.
+ */
+public class CapturingInputStream extends FilterInputStream {
+    private final ByteRecorder recorder;
+    private final Consumer<byte[]> onCaptured;
+    private boolean finished;
+
+    /**
+     * @param expectedLength the declared body length, or -1
+     */
+    public CapturingInputStream(InputStream in, long expectedLength, long maxBytes, Consumer<byte[]> onCaptured) {
+        super(in);
+        this.recorder = new ByteRecorder(expectedLength, maxBytes);
+        this.onCaptured = onCaptured;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b < 0) {
+            finish();
+        } else {
+            recorder.record(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n < 0) {
+            finish();
+        } else {
+            recorder.record(b, off, n);
+        }
+        return n;
+    }
+
+    /**
+     * Skipped bytes are part of the body, so they are read and recorded rather than skipped.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] skipped = new byte[(int) Math.min(n, 8192)];
+        long total = 0;
+        while (total < n) {
+            int read = read(skipped, 0, (int) Math.min(skipped.length, n - total));
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            byte[] rest = new byte[8192];
+            while (!recorder.isOverflow() && read(rest, 0, rest.length) >= 0) {
+                // read to the end so the recorded body is complete
+            }
+        }
+        super.close();
+        finish();
+    }
+
+    private void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        onCaptured.accept(recorder.toByteArray());
+    }
+}
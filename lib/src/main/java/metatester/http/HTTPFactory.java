@@ -11,10 +11,26 @@ public class HTTPFactory {
         if(request instanceof org.apache.http.client.methods.HttpRequestBase){
             return new ApacheHTTPRequest((HttpRequestBase) request);
         }
+        if(request instanceof okhttp3.Request){
+            return new OkHttpRequest((okhttp3.Request) request);
+        }
+        if(request instanceof java.net.HttpURLConnection){
+            return new HttpURLConnectionRequest((java.net.HttpURLConnection) request);
+        }
+        if(request instanceof java.net.http.HttpRequest){
+            return new JdkHttpRequest((java.net.http.HttpRequest) request);
+        }
         return null;
     }
 
+    /**
+     * Wraps a client response. Responses whose body has to be read in a client specific way,
+     * like {@link OkHttpResponse}, are captured by the interceptor and passed through as they are.
+     */
     public static Response createResponseFrom(Object request){
+        if(request instanceof Response){
+            return (Response) request;
+        }
         if(request instanceof org.apache.http.HttpResponse){
             try {
                 return new ApacheHTTPResponse((HttpResponse) request);
@@ -0,0 +1,54 @@
+package metatester.http;
+
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the Request interface for HttpURLConnection.
+ * The request body is written by the caller to the connection's output stream and is not kept.
+ */
+public class HttpURLConnectionRequest implements Request {
+    private final String url;
+    private final Map<String, Object> headers;
+
+    public HttpURLConnectionRequest(HttpURLConnection connection) {
+        this.url = connection.getURL().toString();
+        this.headers = extractHeaders(connection);
+    }
+
+    /**
+     * Request properties can only be read before the connection is made.
+     */
+    private Map<String, Object> extractHeaders(HttpURLConnection connection) {
+        try {
+            Map<String, Object> map = new HashMap<>();
+            for (Map.Entry<String, List<String>> property : connection.getRequestProperties().entrySet()) {
+                List<String> values = property.getValue();
+                if (property.getKey() != null && !values.isEmpty()) {
+                    map.put(property.getKey(), values.get(values.size() - 1));
+                }
+            }
+            return map;
+        } catch (IllegalStateException alreadyConnected) {
+            return Collections.emptyMap();
+        }
+    }
+
+    @Override
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public Map<String, Object> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public String getBody() {
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+package metatester.http;
+
+import metatester.config.FaultCollection;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of an HttpURLConnection, built from the bytes a {@link CapturingInputStream}
+ * recorded while the test read them. Reruns are served a stream over pre-built bytes.
+ */
+public class HttpURLConnectionResponse extends CapturedResponse {
+
+    public HttpURLConnectionResponse(HttpURLConnection connection, byte[] body) throws IOException {
+        super(connection.getURL().toString(), snapshotOf(connection, body));
+    }
+
+    private static ResponseSnapshot snapshotOf(HttpURLConnection connection, byte[] body) throws IOException {
+        List<String> flat = new ArrayList<>();
+        for (Map.Entry<String, List<String>> field : connection.getHeaderFields().entrySet()) {
+            // the status line is listed under a null key
+            if (field.getKey() == null) {
+                continue;
+            }
+            for (String value : field.getValue()) {
+                flat.add(field.getKey());
+                flat.add(value);
+            }
+        }
+        return new ResponseSnapshot(null, connection.getResponseCode(), connection.getResponseMessage(),
+                flat.toArray(new String[0]), body, ResponseSnapshot.charsetOf(connection.getContentType()));
+    }
+
+    /**
+     * The stream a rerun reads instead of the server's. A status fault fails the way
+     * HttpURLConnection does for an error status; header faults leave the body as it is and
+     * are seen through {@link #served(FaultCollection)}.
+     */
+    public InputStream openStream(String simulatedBody, FaultCollection fault) throws IOException {
+        return openStream(encode(simulatedBody), fault);
+    }
+
+    /**
+     * Status line and headers a rerun with the given fault reports, in place of the server's.
+     */
+    public ResponseSnapshot served(FaultCollection fault) {
+        return snapshot.withFault(fault);
+    }
+
+    /**
+     * The error stream of a rerun: the body when a status fault turned a successful response
+     * into an error, else null, in which case the connection's own error stream applies.
+     */
+    public InputStream openErrorStream(byte[] encodedBody, FaultCollection fault) {
+        ResponseSnapshot served = snapshot.withFault(fault);
+        return served.getStatusCode() >= 400 && getStatusCode() < 400 ? new ByteArrayInputStream(encodedBody) : null;
+    }
+
+    /**
+     * As {@link #openStream(String, FaultCollection)}, with the body already encoded.
+     */
+    public InputStream openStream(byte[] encodedBody, FaultCollection fault) throws IOException {
+        ResponseSnapshot served = snapshot.withFault(fault);
+        if (served.getStatusCode() >= 400 && getStatusCode() < 400) {
+            if (served.getStatusCode() == 404 || served.getStatusCode() == 410) {
+                throw new FileNotFoundException(getUrl());
+            }
+            throw new IOException("Server returned HTTP response code: " + served.getStatusCode() + " for URL: " + getUrl());
+        }
+        return new ByteArrayInputStream(encodedBody);
+    }
+}
@@ -0,0 +1,46 @@
+package metatester.http;
+
+import java.net.http.HttpRequest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the Request interface for java.net.http.HttpClient.
+ * The body publisher streams to the client and is not kept.
+ */
+public class JdkHttpRequest implements Request {
+    private final String url;
+    private final Map<String, Object> headers;
+
+    public JdkHttpRequest(HttpRequest request) {
+        this.url = request.uri().toString();
+        this.headers = extractHeaders(request);
+    }
+
+    private Map<String, Object> extractHeaders(HttpRequest request) {
+        Map<String, List<String>> requestHeaders = request.headers().map();
+        if (requestHeaders.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> map = new HashMap<>();
+        requestHeaders.forEach((name, values) -> map.put(name, values.get(values.size() - 1)));
+        return map;
+    }
+
+    @Override
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public Map<String, Object> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public String getBody() {
+        return null;
+    }
+}
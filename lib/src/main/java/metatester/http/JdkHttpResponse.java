@@ -0,0 +1,297 @@
+package metatester.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import metatester.config.FaultCollection;
+
+import javax.net.ssl.SSLSession;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Response of a java.net.http.HttpClient call. The client pushes the body to a
+ * {@link HttpResponse.BodySubscriber}, so capture and replacement wrap the caller's
+ * {@link HttpResponse.BodyHandler}: the first run tees the body buffers into the capture while
+ * passing them on, reruns drain the server's body and hand the caller's subscriber the simulated
+ * bytes instead. Both run on the client's own threads and never block the async pipeline.
+ */
+public class JdkHttpResponse extends CapturedResponse {
+
+    public JdkHttpResponse(HttpResponse.ResponseInfo info, URI uri, byte[] body) throws JsonProcessingException {
+        super(uri.toString(), snapshotOf(info, body));
+    }
+
+    private static ResponseSnapshot snapshotOf(HttpResponse.ResponseInfo info, byte[] body) {
+        List<String> flat = new ArrayList<>();
+        info.headers().map().forEach((name, values) -> {
+            for (String value : values) {
+                flat.add(name);
+                flat.add(value);
+            }
+        });
+        return new ResponseSnapshot(null, info.statusCode(), null, flat.toArray(new String[0]), body,
+                ResponseSnapshot.charsetOf(info.headers().firstValue("Content-Type").orElse(null)));
+    }
+
+    /**
+     * Wraps the caller's handler so that the body is recorded while it is passed on. The
+     * recording is handed to {@code onCaptured} before the caller's subscriber completes, as a
+     * response, or as null when it exceeded {@code maxBodyBytes}. A body that cannot be read as
+     * a response, such as one that is not JSON, goes to {@code onFailed} instead; the caller's
+     * subscriber completes either way.
+     */
+    public static <T> HttpResponse.BodyHandler<T> capturing(HttpResponse.BodyHandler<T> handler, URI uri,
+                                                            long maxBodyBytes, Consumer<JdkHttpResponse> onCaptured,
+                                                            Consumer<RuntimeException> onFailed) {
+        return info -> new TeeSubscriber<>(handler.apply(info),
+                new ByteRecorder(info.headers().firstValueAsLong("Content-Length").orElse(-1), maxBodyBytes),
+                body -> {
+                    try {
+                        onCaptured.accept(body != null ? new JdkHttpResponse(info, uri, body) : null);
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, onFailed);
+    }
+
+    /**
+     * Wraps the caller's handler so that it receives the simulated body, and the status and
+     * headers of the given fault, in place of what the server sent.
+     */
+    public <T> HttpResponse.BodyHandler<T> serving(HttpResponse.BodyHandler<T> handler, String simulatedBody,
+                                                   FaultCollection fault) {
+        return serving(handler, encode(simulatedBody), fault);
+    }
+
+    /**
+     * As {@link #serving(HttpResponse.BodyHandler, String, FaultCollection)}, with the body
+     * already encoded.
+     */
+    public <T> HttpResponse.BodyHandler<T> serving(HttpResponse.BodyHandler<T> handler, byte[] encodedBody,
+                                                   FaultCollection fault) {
+        ResponseSnapshot served = snapshot.withFault(fault);
+        return info -> new ReplacingSubscriber<>(handler.apply(faultedInfo(info, served)), encodedBody);
+    }
+
+    /**
+     * The response the caller gets on a rerun: status and headers follow the served snapshot
+     * when the fault changes them, everything else is the server's response.
+     */
+    public <T> HttpResponse<T> applyTo(HttpResponse<T> response, FaultCollection fault) {
+        ResponseSnapshot served = snapshot.withFault(fault);
+        return served == snapshot ? response : new FaultedResponse<>(response, served);
+    }
+
+    private static HttpResponse.ResponseInfo faultedInfo(HttpResponse.ResponseInfo info, ResponseSnapshot served) {
+        HttpHeaders headers = headersOf(served);
+        return new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return served.getStatusCode();
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return headers;
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return info.version();
+            }
+        };
+    }
+
+    private static HttpHeaders headersOf(ResponseSnapshot served) {
+        String[] flat = served.getServedHeaders();
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        for (int i = 0; i < flat.length; i += 2) {
+            map.computeIfAbsent(flat[i], k -> new ArrayList<>()).add(flat[i + 1]);
+        }
+        return HttpHeaders.of(map, (name, value) -> true);
+    }
+
+    /**
+     * Passes every buffer on to the caller's subscriber and records a copy of its bytes.
+     */
+    private static class TeeSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> downstream;
+        private final ByteRecorder recorder;
+        private final Consumer<byte[]> onCaptured;
+        private final Consumer<RuntimeException> onFailed;
+
+        TeeSubscriber(HttpResponse.BodySubscriber<T> downstream, ByteRecorder recorder, Consumer<byte[]> onCaptured,
+                      Consumer<RuntimeException> onFailed) {
+            this.downstream = downstream;
+            this.recorder = recorder;
+            this.onCaptured = onCaptured;
+            this.onFailed = onFailed;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            downstream.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            for (ByteBuffer item : items) {
+                recorder.record(item);
+            }
+            downstream.onNext(items);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                onCaptured.accept(recorder.toByteArray());
+            } catch (RuntimeException e) {
+                // the capture is the simulator's concern, the caller still gets its body
+                onFailed.accept(e);
+            }
+            downstream.onComplete();
+        }
+    }
+
+    /**
+     * Drains the server's body and, once it is complete, publishes the simulated bytes to the
+     * caller's subscriber as a single buffer.
+     */
+    private static class ReplacingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> downstream;
+        private final byte[] bytes;
+
+        ReplacingSubscriber(HttpResponse.BodySubscriber<T> downstream, byte[] bytes) {
+            this.downstream = downstream;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            // the server's body is replaced
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            downstream.onSubscribe(new SingleBufferSubscription(downstream, null));
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            downstream.onSubscribe(new SingleBufferSubscription(downstream, ByteBuffer.wrap(bytes)));
+        }
+    }
+
+    private static class SingleBufferSubscription implements Flow.Subscription {
+        private final HttpResponse.BodySubscriber<?> subscriber;
+        private ByteBuffer buffer;
+
+        SingleBufferSubscription(HttpResponse.BodySubscriber<?> subscriber, ByteBuffer buffer) {
+            this.subscriber = subscriber;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void request(long n) {
+            if (buffer == null || n <= 0) {
+                return;
+            }
+            ByteBuffer next = buffer;
+            buffer = null;
+            if (next.hasRemaining()) {
+                subscriber.onNext(List.of(next));
+            }
+            subscriber.onComplete();
+        }
+
+        @Override
+        public void cancel() {
+            buffer = null;
+        }
+    }
+
+    private static class FaultedResponse<T> implements HttpResponse<T> {
+        private final HttpResponse<T> response;
+        private final int statusCode;
+        private final HttpHeaders headers;
+
+        FaultedResponse(HttpResponse<T> response, ResponseSnapshot served) {
+            this.response = response;
+            this.statusCode = served.getStatusCode();
+            this.headers = headersOf(served);
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return response.request();
+        }
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return response.previousResponse();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public T body() {
+            return response.body();
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return response.sslSession();
+        }
+
+        @Override
+        public URI uri() {
+            return response.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return response.version();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package metatester.http;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fields of a spilled JSON body, found by one streaming token scan over the mapped bytes
+ * instead of parsing the body into a tree. Each field is kept as its JSON Pointer, the type of
+ * its value and two byte spans: the value itself, and what removing the field from its parent
+ * deletes, separating comma included. A fault on a field is then a {@link BodyPatch} of one of
+ * the spans. As in the fault plan, fields deeper than {@code maxDepth} below the root and
+ * children of a container beyond the first {@code maxFanOut} are not indexed.
+ */
+public final class JsonFieldIndex {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final SpilledBody body;
+    private final Charset charset;
+    private final List<Field> fields;
+    private final Map<String, Field> byPath;
+
+    private JsonFieldIndex(SpilledBody body, Charset charset, List<Field> fields) {
+        this.body = body;
+        this.charset = charset;
+        this.fields = fields;
+        this.byPath = new HashMap<>(fields.size() * 2);
+        for (Field field : fields) {
+            byPath.put(field.path, field);
+        }
+    }
+
+    /**
+     * A field and its byte spans. Spans are end exclusive.
+     */
+    public static final class Field {
+        private final String path;
+        private final JsonToken token;
+        private final long valueStart;
+        private long valueEnd;
+        private long removeStart;
+        private long removeEnd;
+
+        Field(String path, JsonToken token, long valueStart) {
+            this.path = path;
+            this.token = token;
+            this.valueStart = valueStart;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * First token of the value; START_OBJECT or START_ARRAY for containers.
+         */
+        public JsonToken getToken() {
+            return token;
+        }
+
+        public long getValueStart() {
+            return valueStart;
+        }
+
+        public long getValueEnd() {
+            return valueEnd;
+        }
+
+        public long getRemoveStart() {
+            return removeStart;
+        }
+
+        public long getRemoveEnd() {
+            return removeEnd;
+        }
+    }
+
+    /**
+     * Scans the body, encoded in {@code charset}, once. Fails when it is not well-formed JSON, or
+     * not in an encoding whose byte offsets the parser reports.
+     */
+    public static JsonFieldIndex scan(SpilledBody body, Charset charset, int maxDepth, int maxFanOut)
+            throws IOException {
+        List<Field> fields = new ArrayList<>();
+        try (JsonParser parser = FACTORY.createParser(body.openStream())) {
+            JsonToken token = parser.nextToken();
+            if (token == null || !token.isStructStart()) {
+                return new JsonFieldIndex(body, charset, Collections.emptyList());
+            }
+            Deque<Container> stack = new ArrayDeque<>();
+            stack.push(new Container("", 0 < maxDepth));
+            while ((token = parser.nextToken()) != null) {
+                Container parent = stack.peek();
+                if (token.isStructEnd()) {
+                    parent.close();
+                    stack.pop();
+                    if (!stack.isEmpty()) {
+                        stack.peek().valueEnded(offset(parser.currentLocation().getByteOffset()));
+                    }
+                    continue;
+                }
+                long memberStart = offset(parser.currentTokenLocation().getByteOffset());
+                String key = null;
+                if (token == JsonToken.FIELD_NAME) {
+                    key = parser.currentName();
+                    token = parser.nextToken();
+                }
+                long valueStart = offset(parser.currentTokenLocation().getByteOffset());
+                Field field = null;
+                int depth = stack.size();
+                if (parent.indexesChildren && parent.children < maxFanOut) {
+                    String segment = key != null ? escape(key) : String.valueOf(parent.children);
+                    field = new Field(parent.path + "/" + segment, token, valueStart);
+                    fields.add(field);
+                }
+                parent.memberStarted(memberStart, field);
+                if (token.isStructStart()) {
+                    stack.push(new Container(field != null ? field.path : null, field != null && depth < maxDepth));
+                } else {
+                    parent.valueEnded(scalarEnd(body, token, valueStart));
+                }
+            }
+        }
+        return new JsonFieldIndex(body, charset, fields);
+    }
+
+    private static long offset(long byteOffset) throws IOException {
+        if (byteOffset < 0) {
+            throw new IOException("Byte offsets are unavailable for the body encoding");
+        }
+        return byteOffset;
+    }
+
+    /**
+     * End of a scalar, found in the bytes: the parser does not report where a lazily
+     * read string, or a number it only peeked past, ends.
+     */
+    private static long scalarEnd(SpilledBody body, JsonToken token, long start) {
+        long i = start;
+        switch (token) {
+            case VALUE_STRING -> {
+                i++;
+                while (true) {
+                    byte b = body.get(i);
+                    if (b == '\\') {
+                        i += 2;
+                    } else {
+                        i++;
+                        if (b == '"') {
+                            return i;
+                        }
+                    }
+                }
+            }
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                while (i < body.length() && isNumberByte(body.get(i))) {
+                    i++;
+                }
+                return i;
+            }
+            case VALUE_TRUE, VALUE_NULL -> {
+                return start + 4;
+            }
+            case VALUE_FALSE -> {
+                return start + 5;
+            }
+            default -> throw new IllegalStateException("Not a scalar: " + token);
+        }
+    }
+
+    private static boolean isNumberByte(byte b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E';
+    }
+
+    static String escape(String key) {
+        if (key.indexOf('~') < 0 && key.indexOf('/') < 0) {
+            return key;
+        }
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * Open object or array during the scan. Tracks where its current and previous member
+     * start and end, indexed or not, because removing a member takes a comma from a neighbour.
+     */
+    private static class Container {
+        private final String path;
+        private final boolean indexesChildren;
+        private int children;
+        private long previousValueEnd = -1;
+        private long memberStart = -1;
+        private long valueEnd = -1;
+        private Field member;
+
+        Container(String path, boolean indexesChildren) {
+            this.path = path;
+            this.indexesChildren = indexesChildren;
+        }
+
+        void memberStarted(long start, Field next) {
+            if (memberStart >= 0 && member != null) {
+                // followed by a sibling: drop the member up to where the sibling starts
+                member.removeStart = memberStart;
+                member.removeEnd = start;
+            }
+            if (memberStart >= 0) {
+                previousValueEnd = valueEnd;
+            }
+            memberStart = start;
+            member = next;
+            children++;
+        }
+
+        void valueEnded(long end) {
+            valueEnd = end;
+            if (member != null) {
+                member.valueEnd = end;
+            }
+        }
+
+        void close() {
+            if (member != null) {
+                // last member: drop it with the comma that separates it from the previous one
+                member.removeStart = previousValueEnd >= 0 ? previousValueEnd : memberStart;
+                member.removeEnd = valueEnd;
+            }
+        }
+    }
+
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * The indexed field at the given JSON Pointer, or null.
+     */
+    public Field get(String path) {
+        return byPath.get(path);
+    }
+
+    public Iterator<String> paths() {
+        Iterator<Field> iterator = fields.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return iterator.next().path;
+            }
+        };
+    }
+
+    /**
+     * Charset the body is encoded in, and patches of it must be.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Text of a scalar value as it appears in the body.
+     */
+    public String valueText(Field field) {
+        return new String(body.read(field.valueStart, field.valueEnd), charset);
+    }
+}
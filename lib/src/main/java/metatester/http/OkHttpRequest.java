@@ -0,0 +1,67 @@
+package metatester.http;
+
+import okhttp3.Headers;
+import okhttp3.RequestBody;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation of the Request interface for OkHttp.
+ * Wraps okhttp3.Request objects and extracts URL, headers and body.
+ */
+public class OkHttpRequest implements Request {
+    private final String url;
+    private final Map<String, Object> headers;
+    private final String body;
+
+    public OkHttpRequest(okhttp3.Request request) {
+        this.url = request.url().toString();
+        this.headers = extractHeaders(request.headers());
+        this.body = extractBody(request.body());
+    }
+
+    private Map<String, Object> extractHeaders(Headers requestHeaders) {
+        if (requestHeaders.size() == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < requestHeaders.size(); i++) {
+            map.put(requestHeaders.name(i), requestHeaders.value(i));
+        }
+        return map;
+    }
+
+    /**
+     * Bodies that can only be written once are left alone, the client still has to send them.
+     */
+    private String extractBody(RequestBody requestBody) {
+        if (requestBody == null || requestBody.isOneShot() || requestBody.isDuplex()) {
+            return null;
+        }
+        try (Buffer buffer = new Buffer()) {
+            requestBody.writeTo(buffer);
+            return buffer.readUtf8();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public Map<String, Object> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public String getBody() {
+        return body;
+    }
+}
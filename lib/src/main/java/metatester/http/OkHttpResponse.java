@@ -0,0 +1,126 @@
+package metatester.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import metatester.config.FaultCollection;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response captured from an OkHttp call. The body is read straight from the response source
+ * into the {@link ResponseSnapshot}, without the extra copy {@code peekBody} makes, and the
+ * client is handed a response rebuilt with {@code newBuilder()} around the same bytes.
+ */
+public class OkHttpResponse extends CapturedResponse {
+    private final Protocol protocol;
+
+    private OkHttpResponse(okhttp3.Response response, byte[] bytes, Charset charset) throws JsonProcessingException {
+        super(response.request().url().toString(), snapshotOf(response, bytes, charset));
+        this.protocol = response.protocol();
+    }
+
+    private static ResponseSnapshot snapshotOf(okhttp3.Response response, byte[] bytes, Charset charset) {
+        Headers responseHeaders = response.headers();
+        String[] flat = new String[responseHeaders.size() * 2];
+        for (int i = 0; i < responseHeaders.size(); i++) {
+            flat[2 * i] = responseHeaders.name(i);
+            flat[2 * i + 1] = responseHeaders.value(i);
+        }
+        return new ResponseSnapshot(null, response.code(), response.message(), flat, bytes, charset);
+    }
+
+    /**
+     * Reads and parses the body of the response if it is at most {@code maxBodyBytes} long,
+     * see {@link #readBody(okhttp3.Response, long)}.
+     *
+     * @return the captured response, or null when the body is too large to capture
+     * @throws JsonProcessingException when the body is not JSON
+     */
+    public static OkHttpResponse capture(okhttp3.Response response, long maxBodyBytes) throws IOException {
+        byte[] bytes = readBody(response, maxBodyBytes);
+        return bytes != null ? of(response, bytes) : null;
+    }
+
+    /**
+     * Reads the body of the response if it is at most {@code maxBodyBytes} long. The bound is
+     * checked by buffering one byte more than allowed in the response source itself, so a larger
+     * body is left unread apart from that prefix and still streams to the client unchanged.
+     * The body is consumed and closed when it was read; serve a response rebuilt around the
+     * bytes in its place.
+     *
+     * @return the body, or null when it is too large to capture
+     */
+    public static byte[] readBody(okhttp3.Response response, long maxBodyBytes) throws IOException {
+        ResponseBody responseBody = response.body();
+        if (responseBody == null) {
+            return new byte[0];
+        }
+        if (responseBody.contentLength() > maxBodyBytes) {
+            return null;
+        }
+        BufferedSource source = responseBody.source();
+        if (source.request(maxBodyBytes + 1)) {
+            return null;
+        }
+        byte[] bytes = source.readByteArray();
+        responseBody.close();
+        return bytes;
+    }
+
+    /**
+     * The captured response over a body read by {@link #readBody(okhttp3.Response, long)}.
+     *
+     * @throws JsonProcessingException when the body is not JSON
+     */
+    public static OkHttpResponse of(okhttp3.Response response, byte[] bytes) throws JsonProcessingException {
+        // OkHttp decodes bodies without a declared charset as UTF-8
+        MediaType contentType = response.body() != null ? response.body().contentType() : null;
+        Charset charset = contentType != null ? contentType.charset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8;
+        return new OkHttpResponse(response, bytes, charset);
+    }
+
+    /**
+     * The response rebuilt around a body read by {@link #readBody(okhttp3.Response, long)}, with
+     * status and headers as received, for a body that could not be captured.
+     */
+    public static okhttp3.Response withBody(okhttp3.Response response, byte[] bytes) {
+        MediaType contentType = response.body() != null ? response.body().contentType() : null;
+        return response.newBuilder().body(ResponseBody.create(bytes, contentType)).build();
+    }
+
+    public Protocol getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Completes the builder with the captured status and headers and the given body, applying a
+     * status or header fault. Pass {@code response.newBuilder()} of a live response to keep its
+     * request, handshake and timings, or a new builder with request and protocol set to answer a
+     * call without the server.
+     */
+    public okhttp3.Response applyTo(okhttp3.Response.Builder builder, String simulatedBody, FaultCollection fault) {
+        return applyTo(builder, encode(simulatedBody), fault);
+    }
+
+    /**
+     * As {@link #applyTo(okhttp3.Response.Builder, String, FaultCollection)}, with the body
+     * already encoded.
+     */
+    public okhttp3.Response applyTo(okhttp3.Response.Builder builder, byte[] encodedBody, FaultCollection fault) {
+        ResponseSnapshot served = snapshot.withFault(fault);
+        String contentType = served.getHeader("Content-Type");
+        return builder
+                .code(served.getStatusCode())
+                .message(served.getReasonPhrase() != null ? served.getReasonPhrase() : "")
+                .headers(Headers.of(served.getServedHeaders(encodedBody)))
+                .body(ResponseBody.create(encodedBody,
+                        contentType != null ? MediaType.parse(contentType) : null))
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package metatester.http;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import java.util.Map;
 
 public interface Response {
@@ -12,4 +14,12 @@ public interface Response {
 
     Map<String, Object> getResponseAsMap();
 
+    JsonNode getResponseAsTree();
+
+    /**
+     * Bytes a rerun serves for the given body: the body encoded as the captured one was, or the
+     * captured bytes themselves when it is the captured body.
+     */
+    byte[] encode(String body);
+
 }
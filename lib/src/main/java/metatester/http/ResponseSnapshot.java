@@ -0,0 +1,442 @@
+package metatester.http;
+
+import metatester.config.FaultCollection;
+import metatester.config.SimulatorConfig;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.StatusLine;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Status line, headers and body bytes of a response, read once when the response is captured.
+ * Headers are kept as one flat name / value array and the body as the bytes received, so the
+ * snapshot holds no connection or parser state. Status and header faults derive a new snapshot
+ * that shares the body and, where unchanged, the headers of this one; serving any of them never
+ * reads the original entity again. Apache bodies above the spill threshold are kept in a
+ * {@link SpilledBody} instead of a heap array.
+ */
+public final class ResponseSnapshot {
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final ProtocolVersion protocolVersion;
+    private final int statusCode;
+    private final String reasonPhrase;
+    /** Header names at even indexes, each followed by its value. */
+    private final String[] headers;
+    private final byte[] body;
+    /** The body when it was spilled, in which case {@code body} is null. */
+    private final SpilledBody spilledBody;
+    /** Charset the body bytes are encoded in, as the original entity declared it. */
+    private final Charset charset;
+
+    ResponseSnapshot(ProtocolVersion protocolVersion, int statusCode, String reasonPhrase,
+                     String[] headers, byte[] body, Charset charset) {
+        this(protocolVersion, statusCode, reasonPhrase, headers, body, null, charset);
+    }
+
+    private ResponseSnapshot(ProtocolVersion protocolVersion, int statusCode, String reasonPhrase,
+                             String[] headers, byte[] body, SpilledBody spilledBody, Charset charset) {
+        this.protocolVersion = protocolVersion;
+        this.statusCode = statusCode;
+        this.reasonPhrase = reasonPhrase;
+        this.headers = headers;
+        this.body = body;
+        this.spilledBody = spilledBody;
+        this.charset = charset;
+    }
+
+    /**
+     * Reads the status line, headers and entity of the response. The entity is consumed.
+     */
+    public static ResponseSnapshot capture(HttpResponse response) throws IOException {
+        return capture(response, SimulatorConfig.getCaptureSpillThresholdBytes());
+    }
+
+    /**
+     * As {@link #capture(HttpResponse)}, spilling a body of more than {@code spillThresholdBytes}.
+     */
+    public static ResponseSnapshot capture(HttpResponse response, long spillThresholdBytes) throws IOException {
+        StatusLine statusLine = response.getStatusLine();
+        Header[] allHeaders = response.getAllHeaders() != null ? response.getAllHeaders() : new Header[0];
+        String[] headers = new String[allHeaders.length * 2];
+        for (int i = 0; i < allHeaders.length; i++) {
+            headers[2 * i] = allHeaders[i].getName();
+            headers[2 * i + 1] = allHeaders[i].getValue();
+        }
+        HttpEntity entity = response.getEntity();
+        InputStream content = entity != null ? entity.getContent() : null;
+        byte[] body = EMPTY_BODY;
+        SpilledBody spilledBody = null;
+        if (content != null) {
+            try (content) {
+                int threshold = (int) Math.min(spillThresholdBytes, Integer.MAX_VALUE - 8);
+                long declared = entity.getContentLength();
+                if (declared > threshold) {
+                    spilledBody = SpilledBody.spill(EMPTY_BODY, 0, content);
+                    body = null;
+                } else {
+                    byte[] buffer = new byte[declared >= 0 ? (int) declared : Math.min(8192, threshold)];
+                    int count = 0;
+                    while (spilledBody == null) {
+                        if (count < buffer.length) {
+                            int n = content.read(buffer, count, buffer.length - count);
+                            if (n < 0) {
+                                break;
+                            }
+                            count += n;
+                            continue;
+                        }
+                        int next = content.read();
+                        if (next < 0) {
+                            break;
+                        }
+                        if (count >= threshold) {
+                            spilledBody = SpilledBody.spill(buffer, count, new SequenceInputStream(
+                                    new ByteArrayInputStream(new byte[]{(byte) next}), content));
+                        } else {
+                            buffer = Arrays.copyOf(buffer, (int) Math.min(threshold, Math.max(8192, count * 2L)));
+                            buffer[count++] = (byte) next;
+                        }
+                    }
+                    body = spilledBody != null ? null : count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+                }
+            }
+        }
+        return new ResponseSnapshot(
+                statusLine != null ? statusLine.getProtocolVersion() : HttpVersion.HTTP_1_1,
+                statusLine != null ? statusLine.getStatusCode() : 0,
+                statusLine != null ? statusLine.getReasonPhrase() : null,
+                headers, body, spilledBody, charsetOf(entity, headers));
+    }
+
+    /**
+     * The charset {@link EntityUtils#toString(HttpEntity)} would decode the body with: the one the
+     * entity or the Content-Type header names, else the default of the MIME type, else ISO-8859-1.
+     */
+    private static Charset charsetOf(HttpEntity entity, String[] headers) {
+        ContentType contentType = null;
+        if (entity != null && entity.getContentType() != null) {
+            contentType = ContentType.parse(entity.getContentType().getValue());
+        } else {
+            String value = headerValue(headers, HttpHeaders.CONTENT_TYPE);
+            if (value != null) {
+                contentType = ContentType.parse(value);
+            }
+        }
+        if (contentType == null) {
+            return StandardCharsets.ISO_8859_1;
+        }
+        if (contentType.getCharset() != null) {
+            return contentType.getCharset();
+        }
+        ContentType defaults = ContentType.getByMimeType(contentType.getMimeType());
+        return defaults != null && defaults.getCharset() != null ? defaults.getCharset() : StandardCharsets.ISO_8859_1;
+    }
+
+    /**
+     * Charset named by a Content-Type value, UTF-8 when it names none or an unknown one.
+     * For clients that, unlike Apache, leave decoding to the caller.
+     */
+    static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                String trimmed = parameter.trim();
+                if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(trimmed.substring(8).replace("\"", ""));
+                    } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    public ProtocolVersion getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * The body decoded in its charset; for a spilled body this materializes it on the heap.
+     */
+    public String getBodyAsString() {
+        return spilledBody != null ? spilledBody.decode(charset) : new String(body, charset);
+    }
+
+    public boolean isSpilled() {
+        return spilledBody != null;
+    }
+
+    /**
+     * The body when it exceeded the spill threshold, else null.
+     */
+    public SpilledBody getSpilledBody() {
+        return spilledBody;
+    }
+
+    /**
+     * Value of the first header with the given name, or null.
+     */
+    public String getHeader(String name) {
+        return headerValue(headers, name);
+    }
+
+    /**
+     * Headers by name; for repeated headers the last value wins.
+     */
+    public Map<String, Object> getHeaders() {
+        if (headers.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            map.put(headers[i], headers[i + 1]);
+        }
+        return map;
+    }
+
+    /**
+     * Headers by name with all their values, in the order received, as
+     * {@link java.net.URLConnection#getHeaderFields()} lists them.
+     */
+    public Map<String, List<String>> getHeaderFields() {
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            fields.computeIfAbsent(headers[i], name -> new ArrayList<>()).add(headers[i + 1]);
+        }
+        return Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * The snapshot a rerun with the given fault is served from. Status and header faults change
+     * status line or headers as configured; every other fault leaves them as captured.
+     */
+    public ResponseSnapshot withFault(FaultCollection fault) {
+        if (fault == null) {
+            return this;
+        }
+        return switch (fault) {
+            case client_error_status -> withStatus(SimulatorConfig.getClientErrorStatus());
+            case server_error_status -> withStatus(SimulatorConfig.getServerErrorStatus());
+            case content_type_removed -> withoutHeader(HttpHeaders.CONTENT_TYPE);
+            case charset_changed -> withDeclaredCharset(SimulatorConfig.getChangedCharset());
+            default -> this;
+        };
+    }
+
+    /**
+     * The same response answered with another status; the reason phrase is the standard one.
+     */
+    public ResponseSnapshot withStatus(int statusCode) {
+        return new ResponseSnapshot(protocolVersion, statusCode,
+                EnglishReasonPhraseCatalog.INSTANCE.getReason(statusCode, Locale.ENGLISH), headers, body, spilledBody, charset);
+    }
+
+    /**
+     * The same response without any header of the given name.
+     */
+    public ResponseSnapshot withoutHeader(String name) {
+        String[] kept = new String[headers.length];
+        int length = 0;
+        for (int i = 0; i < headers.length; i += 2) {
+            if (!headers[i].equalsIgnoreCase(name)) {
+                kept[length++] = headers[i];
+                kept[length++] = headers[i + 1];
+            }
+        }
+        return new ResponseSnapshot(protocolVersion, statusCode, reasonPhrase,
+                Arrays.copyOf(kept, length), body, spilledBody, charset);
+    }
+
+    /**
+     * The same response whose Content-Type names the given charset while the body keeps its
+     * original encoding. Unchanged when there is no Content-Type.
+     */
+    public ResponseSnapshot withDeclaredCharset(Charset declared) {
+        String contentType = getHeader(HttpHeaders.CONTENT_TYPE);
+        if (contentType == null) {
+            return this;
+        }
+        String relabelled = ContentType.parse(contentType).withCharset(declared).toString();
+        String[] changed = headers.clone();
+        for (int i = 0; i < changed.length; i += 2) {
+            if (changed[i].equalsIgnoreCase(HttpHeaders.CONTENT_TYPE)) {
+                changed[i + 1] = relabelled;
+            }
+        }
+        return new ResponseSnapshot(protocolVersion, statusCode, reasonPhrase, changed, body, spilledBody, charset);
+    }
+
+    /**
+     * Builds a detached response from this snapshot. A null body serves the captured bytes as
+     * they are; any other body is encoded in the captured charset so that the Content-Type
+     * still describes it. Length and encoding headers are kept with the captured bytes and
+     * dropped with any other body, since they describe the original payload.
+     */
+    public SimulatedHttpResponse toHttpResponse(String simulatedBody) {
+        SimulatedHttpResponse response = new SimulatedHttpResponse(protocolVersion, statusCode, reasonPhrase);
+        applyTo(response, simulatedBody);
+        return response;
+    }
+
+    /**
+     * As {@link #toHttpResponse(String)}, with the body already encoded.
+     */
+    public SimulatedHttpResponse toEncodedHttpResponse(byte[] encodedBody) {
+        SimulatedHttpResponse response = new SimulatedHttpResponse(protocolVersion, statusCode, reasonPhrase);
+        applyEncodedTo(response, encodedBody);
+        return response;
+    }
+
+    /**
+     * As {@link #toHttpResponse(String)}, serving the captured bytes with the patch applied.
+     */
+    public SimulatedHttpResponse toPatchedHttpResponse(BodyPatch patch) {
+        SimulatedHttpResponse response = new SimulatedHttpResponse(protocolVersion, statusCode, reasonPhrase);
+        applyPatchTo(response, patch);
+        return response;
+    }
+
+    /**
+     * Replaces status line, headers and entity of a live response with those of this snapshot,
+     * see {@link #toHttpResponse(String)}.
+     */
+    public void applyTo(HttpResponse response, String simulatedBody) {
+        if (simulatedBody == null && spilledBody != null) {
+            applyPatchTo(response, BodyPatch.NONE);
+            return;
+        }
+        applyEncodedTo(response, encode(simulatedBody));
+    }
+
+    /**
+     * As {@link #applyTo(HttpResponse, String)}, with the body already encoded.
+     */
+    public void applyEncodedTo(HttpResponse response, byte[] encodedBody) {
+        applyEntityTo(response, new ByteArrayEntity(encodedBody, entityContentType(getHeader(HttpHeaders.CONTENT_TYPE))),
+                getServedHeaders(encodedBody));
+    }
+
+    /**
+     * Replaces status line, headers and entity of a live response with those of this snapshot,
+     * the entity carrying the captured bytes with the patch applied. A spilled body is streamed
+     * from its mapping.
+     */
+    public void applyPatchTo(HttpResponse response, BodyPatch patch) {
+        ContentType contentType = entityContentType(getHeader(HttpHeaders.CONTENT_TYPE));
+        String[] served = patch.isNone() ? headers : getServedHeaders();
+        if (spilledBody == null) {
+            applyEntityTo(response, new ByteArrayEntity(patch.applyTo(body), contentType), served);
+            return;
+        }
+        SpilledEntity entity = new SpilledEntity(spilledBody, patch);
+        if (contentType != null) {
+            entity.setContentType(contentType.toString());
+        }
+        applyEntityTo(response, entity, served);
+    }
+
+    private void applyEntityTo(HttpResponse response, HttpEntity entity, String[] served) {
+        response.setStatusLine(protocolVersion, statusCode, reasonPhrase);
+        for (Header header : response.getAllHeaders()) {
+            response.removeHeader(header);
+        }
+        for (int i = 0; i < served.length; i += 2) {
+            response.addHeader(served[i], served[i + 1]);
+        }
+        response.setEntity(entity);
+    }
+
+    /**
+     * Headers to serve with a body built from this snapshot, as a flat name / value array:
+     * all captured headers except those describing length and transfer encoding of the
+     * original payload.
+     */
+    public String[] getServedHeaders() {
+        String[] served = new String[headers.length];
+        int length = 0;
+        for (int i = 0; i < headers.length; i += 2) {
+            String name = headers[i];
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                    || HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                continue;
+            }
+            served[length++] = name;
+            served[length++] = headers[i + 1];
+        }
+        return length == served.length ? served : Arrays.copyOf(served, length);
+    }
+
+    /**
+     * Headers to serve with the given bytes: all captured headers when they are the captured
+     * bytes themselves, as returned by {@link #encode(String)} for a null body, else
+     * {@link #getServedHeaders()}.
+     */
+    public String[] getServedHeaders(byte[] encodedBody) {
+        return encodedBody == body ? headers.clone() : getServedHeaders();
+    }
+
+    /**
+     * Bytes to serve: the captured ones for a null body, else the body in the captured charset.
+     */
+    public byte[] encode(String simulatedBody) {
+        if (simulatedBody != null) {
+            return simulatedBody.getBytes(charset);
+        }
+        return spilledBody != null ? spilledBody.read(0, spilledBody.length()) : body;
+    }
+
+    private ContentType entityContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        ContentType parsed = ContentType.parse(contentType);
+        return parsed.getCharset() != null ? parsed : parsed.withCharset(charset);
+    }
+
+    private static String headerValue(String[] headers, String name) {
+        for (int i = 0; i < headers.length; i += 2) {
+            if (headers[i].equalsIgnoreCase(name)) {
+                return headers[i + 1];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package metatester.http;
+
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.message.BasicHttpResponse;
+
+/**
+ * Apache response that is not bound to a connection. Returned to the client
+ * when a rerun is answered from the captured response instead of the server.
+ */
+public class SimulatedHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+    public SimulatedHttpResponse(ProtocolVersion protocolVersion, int statusCode, String reasonPhrase) {
+        super(protocolVersion, statusCode, reasonPhrase);
+    }
+
+    @Override
+    public void close() {
+        // nothing to release, the body is held in memory
+    }
+}
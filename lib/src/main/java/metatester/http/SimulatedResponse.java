@@ -0,0 +1,110 @@
+package metatester.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import metatester.config.FaultCollection;
+
+import java.util.Map;
+
+/**
+ * Response served to a test rerun. Shares url, headers and parsed fields with the
+ * original response and only owns the mutated body, so every fault variant gets
+ * its own isolated copy without touching the captured original. Faults that are not
+ * expressed in the body, such as a delay, are read from {@link #getFault()} by the interceptors.
+ * Variants of a spilled body own a {@link BodyPatch} instead of a body.
+ */
+public class SimulatedResponse implements Response {
+    private final Response originalResponse;
+    private final FaultCollection fault;
+    private final BodyPatch patch;
+    private String body;
+    private byte[] encodedBody;
+
+    public SimulatedResponse(Response originalResponse, String body) {
+        this(originalResponse, body, null);
+    }
+
+    public SimulatedResponse(Response originalResponse, String body, FaultCollection fault) {
+        this(originalResponse, body, null, fault);
+    }
+
+    /**
+     * @param encodedBody the body as it is served, see {@link Response#encode(String)}, or null
+     *                    to encode it when it is first served
+     */
+    public SimulatedResponse(Response originalResponse, String body, byte[] encodedBody, FaultCollection fault) {
+        this.originalResponse = originalResponse;
+        this.body = body;
+        this.encodedBody = encodedBody;
+        this.fault = fault;
+        this.patch = null;
+    }
+
+    public SimulatedResponse(Response originalResponse, BodyPatch patch, FaultCollection fault) {
+        this.originalResponse = originalResponse;
+        this.patch = patch;
+        this.fault = fault;
+    }
+
+    /**
+     * The patch to the captured body this response serves, or null when it owns a body.
+     */
+    public BodyPatch getPatch() {
+        return patch;
+    }
+
+    /**
+     * The fault this response simulates, or null when only the body differs.
+     */
+    public FaultCollection getFault() {
+        return fault;
+    }
+
+    @Override
+    public String getUrl() {
+        return originalResponse.getUrl();
+    }
+
+    @Override
+    public Map<String, Object> getHeaders() {
+        return originalResponse.getHeaders();
+    }
+
+    /**
+     * The mutated body, or null for a patched response.
+     */
+    @Override
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public void setBody(String body) {
+        this.body = body;
+        this.encodedBody = null;
+    }
+
+    /**
+     * The bytes to serve, or null for a patched response.
+     */
+    public byte[] getEncodedBody() {
+        if (encodedBody == null && body != null) {
+            encodedBody = originalResponse.encode(body);
+        }
+        return encodedBody;
+    }
+
+    @Override
+    public byte[] encode(String body) {
+        return originalResponse.encode(body);
+    }
+
+    @Override
+    public Map<String, Object> getResponseAsMap() {
+        return originalResponse.getResponseAsMap();
+    }
+
+    @Override
+    public JsonNode getResponseAsTree() {
+        return originalResponse.getResponseAsTree();
+    }
+}
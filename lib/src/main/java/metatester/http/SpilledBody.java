@@ -0,0 +1,167 @@
+package metatester.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Response body too large to keep on the heap, held in a memory-mapped temp file.
+ * The file is written once when the body is captured and mapped read-only; readers work on
+ * duplicates of the mapping, so serving the body to concurrent reruns copies nothing and the
+ * pages count against the page cache rather than the test heap. The file is unlinked as soon as
+ * it is mapped where the platform allows it, else when the JVM exits.
+ */
+public final class SpilledBody {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final ByteBuffer mapped;
+
+    private SpilledBody(ByteBuffer mapped) {
+        this.mapped = mapped;
+    }
+
+    /**
+     * Writes the first {@code headLength} bytes of {@code head}, followed by the rest of the
+     * stream, to a temp file and maps it.
+     */
+    static SpilledBody spill(byte[] head, int headLength, InputStream rest) throws IOException {
+        Path file = Files.createTempFile("metatester-body-", ".tmp");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.wrap(head, 0, headLength));
+            byte[] chunk = new byte[CHUNK_SIZE];
+            int n;
+            while ((n = rest.read(chunk)) >= 0) {
+                writeFully(channel, ByteBuffer.wrap(chunk, 0, n));
+            }
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Response body of " + size + " bytes is too large to map");
+            }
+            return new SpilledBody(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } finally {
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                // the mapping still holds the file open on this platform
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public long length() {
+        return mapped.capacity();
+    }
+
+    /**
+     * The byte at the given offset.
+     */
+    public byte get(long offset) {
+        return mapped.get((int) offset);
+    }
+
+    /**
+     * Copies the bytes between the two offsets; meant for single values, not the whole body.
+     */
+    public byte[] read(long from, long to) {
+        byte[] bytes = new byte[(int) (to - from)];
+        mapped.get((int) from, bytes);
+        return bytes;
+    }
+
+    public InputStream openStream() {
+        return openStream(0, length());
+    }
+
+    /**
+     * Stream over the bytes between the two offsets.
+     */
+    public InputStream openStream(long from, long to) {
+        return new MappedInputStream(mapped.slice((int) from, (int) (to - from)));
+    }
+
+    /**
+     * Writes the bytes between the two offsets in chunks, never holding more than one on the heap.
+     */
+    public void writeTo(OutputStream out, long from, long to) throws IOException {
+        ByteBuffer range = mapped.slice((int) from, (int) (to - from));
+        byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, range.remaining())];
+        while (range.hasRemaining()) {
+            int n = Math.min(chunk.length, range.remaining());
+            range.get(chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+    }
+
+    /**
+     * Decodes the whole body. This materializes it on the heap, which spilling exists to avoid.
+     */
+    public String decode(Charset charset) {
+        return charset.decode(mapped.duplicate()).toString();
+    }
+
+    /**
+     * SHA-256 of the body, as hex; identifies it without decoding it.
+     */
+    public String digest() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(mapped.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class MappedInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
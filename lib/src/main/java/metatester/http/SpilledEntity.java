@@ -0,0 +1,58 @@
+package metatester.http;
+
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Entity serving a spilled body with a patch applied. Content is streamed from the mapping
+ * on every read, so the entity is repeatable and never holds the body on the heap.
+ */
+class SpilledEntity extends AbstractHttpEntity {
+    private final SpilledBody body;
+    private final BodyPatch patch;
+
+    SpilledEntity(SpilledBody body, BodyPatch patch) {
+        this.body = body;
+        this.patch = patch;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return patch.patchedLength(body.length());
+    }
+
+    @Override
+    public InputStream getContent() {
+        if (patch.isNone()) {
+            return body.openStream();
+        }
+        return new SequenceInputStream(Collections.enumeration(List.of(
+                body.openStream(0, patch.start()),
+                new ByteArrayInputStream(patch.replacement()),
+                body.openStream(patch.end(), body.length()))));
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        body.writeTo(outStream, 0, patch.start());
+        outStream.write(patch.replacement());
+        body.writeTo(outStream, patch.end(), body.length());
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
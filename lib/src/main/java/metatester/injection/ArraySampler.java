@@ -0,0 +1,89 @@
+package metatester.injection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Picks the elements of an array that are faulted in place of all of them: the first and the
+ * last, the first element of every distinct shape, and {@code randomElements} elements drawn
+ * from the rest. Shapes are the field names and value types of object elements, and the type of
+ * any other element. Draws are seeded by the array's pointer, so a response always yields the
+ * same sample whatever order the arrays are visited in.
+ */
+public class ArraySampler {
+    private final int randomElements;
+    private final long seed;
+
+    public ArraySampler(int randomElements, long seed) {
+        this.randomElements = randomElements;
+        this.seed = seed;
+    }
+
+    /**
+     * Indices of the sampled elements in ascending order, at most {@code maxElements}. When the
+     * sample has to be cut, first and last come before shapes and shapes before random elements.
+     */
+    public int[] sample(String path, JsonNode array, int maxElements) {
+        int size = array.size();
+        Set<Integer> picked = new HashSet<>();
+        List<Integer> order = new ArrayList<>();
+        if (size > 0) {
+            pick(0, picked, order);
+            pick(size - 1, picked, order);
+        }
+        Set<String> shapes = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            if (shapes.add(shapeOf(array.get(i)))) {
+                pick(i, picked, order);
+            }
+        }
+        int unpicked = size - picked.size();
+        Random random = new Random(seed ^ path.hashCode());
+        for (int drawn = 0; drawn < Math.min(randomElements, unpicked); ) {
+            if (pick(random.nextInt(size), picked, order)) {
+                drawn++;
+            }
+        }
+        return order.stream()
+                .limit(maxElements)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+    }
+
+    private static boolean pick(int index, Set<Integer> picked, List<Integer> order) {
+        if (!picked.add(index)) {
+            return false;
+        }
+        order.add(index);
+        return true;
+    }
+
+    static String shapeOf(JsonNode element) {
+        if (!element.isObject()) {
+            return element.getNodeType().name();
+        }
+        Set<String> fields = new TreeSet<>();
+        Iterator<String> names = element.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            fields.add(name + ":" + element.get(name).getNodeType());
+        }
+        return fields.toString();
+    }
+
+    /**
+     * Describes the sampler for the campaign cache key.
+     */
+    @Override
+    public String toString() {
+        return randomElements + "/" + seed;
+    }
+}
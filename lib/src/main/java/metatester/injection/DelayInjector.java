@@ -0,0 +1,112 @@
+package metatester.injection;
+
+import metatester.config.SimulatorConfig;
+import okhttp3.Call;
+import okhttp3.internal.connection.RealCall;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Applies the delay_injection fault to an intercepted client call. When the delay reaches the
+ * client's read timeout the call fails the way the client would, with a
+ * {@link SocketTimeoutException}; otherwise the response is returned after the delay. In virtual
+ * mode neither case waits: the delay or the timeout only advances the {@link VirtualClock}.
+ */
+public class DelayInjector {
+
+    public static void delay(long timeoutMs) throws SocketTimeoutException {
+        delay(SimulatorConfig.getDelayInjectionMs(), timeoutMs, SimulatorConfig.isDelayInjectionRealTime());
+    }
+
+    /**
+     * @param timeoutMs read timeout of the client, 0 or less when it waits indefinitely
+     */
+    public static void delay(long delayMs, long timeoutMs, boolean realTime) throws SocketTimeoutException {
+        boolean timesOut = timeoutMs > 0 && delayMs >= timeoutMs;
+        long waitMs = timesOut ? timeoutMs : delayMs;
+        if (realTime) {
+            sleep(waitMs);
+        } else {
+            VirtualClock.getInstance().advance(waitMs);
+        }
+        log(delayMs, timeoutMs, realTime, timesOut);
+        if (timesOut) {
+            throw new SocketTimeoutException("Read timed out");
+        }
+    }
+
+    /**
+     * Delay for an asynchronous call that must not block the calling thread: the returned
+     * stage completes with the response after the delay, or fails with the client's timeout
+     * exception. A real delay is waited out on the common delayed executor.
+     */
+    public static <T> CompletableFuture<T> delayAsync(CompletableFuture<T> response, long timeoutMs,
+                                                      Supplier<? extends Throwable> timeout) {
+        long delayMs = SimulatorConfig.getDelayInjectionMs();
+        boolean realTime = SimulatorConfig.isDelayInjectionRealTime();
+        boolean timesOut = timeoutMs > 0 && delayMs >= timeoutMs;
+        long waitMs = timesOut ? timeoutMs : delayMs;
+        log(delayMs, timeoutMs, realTime, timesOut);
+        Function<T, CompletableFuture<T>> outcome = value -> timesOut
+                ? CompletableFuture.failedFuture(timeout.get())
+                : CompletableFuture.completedFuture(value);
+        if (realTime) {
+            return response.thenComposeAsync(outcome, CompletableFuture.delayedExecutor(waitMs, TimeUnit.MILLISECONDS));
+        }
+        VirtualClock.getInstance().advance(waitMs);
+        return response.thenCompose(outcome);
+    }
+
+    private static void log(long delayMs, long timeoutMs, boolean realTime, boolean timesOut) {
+        System.out.println("Simulated delay of " + delayMs + " ms" + (realTime ? "" : " (virtual)")
+                + (timesOut ? ", client timeout of " + timeoutMs + " ms reached" : ""));
+    }
+
+    /**
+     * Socket timeout that applies to an Apache client call, resolved like the client does:
+     * the request's own config, then the one in the context, then the client default.
+     */
+    public static long apacheReadTimeout(Object client, Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Configurable && ((Configurable) arg).getConfig() != null) {
+                return ((Configurable) arg).getConfig().getSocketTimeout();
+            }
+        }
+        for (Object arg : args) {
+            if (arg instanceof HttpContext) {
+                RequestConfig config = HttpClientContext.adapt((HttpContext) arg).getRequestConfig();
+                if (config != null && config != RequestConfig.DEFAULT) {
+                    return config.getSocketTimeout();
+                }
+            }
+        }
+        if (client instanceof Configurable && ((Configurable) client).getConfig() != null) {
+            return ((Configurable) client).getConfig().getSocketTimeout();
+        }
+        return 0;
+    }
+
+    /**
+     * Read timeout of the OkHttp client that created the call. Timeouts changed by an
+     * interceptor for a single chain are not visible from the call.
+     */
+    public static long okHttpReadTimeout(Call call) {
+        return call instanceof RealCall ? ((RealCall) call).getClient().readTimeoutMillis() : 0;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,4 +1,183 @@
 package metatester.injection;
 
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import metatester.config.FaultCollection;
+import metatester.http.BodyPatch;
+import metatester.http.JsonFieldIndex;
+import metatester.utils.JsonUtils;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Applies faults to a captured response tree without modifying it.
+ * The original tree is treated as immutable: a fault copies only the containers on the
+ * JSON Pointer path to the target and shares every other node with the original, so the
+ * cost of a variant is the size of those containers plus one compact write. Spilled bodies
+ * have no tree; their faults are byte patches over the spans of a {@link JsonFieldIndex}.
+ */
 public class FaultInjector {
+    private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+    /**
+     * Returns a tree equal to {@code original} with the fault applied at {@code path}.
+     * Faults that do not change the body, and paths that do not exist, return the original tree.
+     *
+     * @param original the captured response tree
+     * @param path a JSON Pointer such as {@code /address/city} or {@code /items/0/id}
+     * @param fault the fault to apply
+     */
+    public static JsonNode apply(JsonNode original, String path, FaultCollection fault) {
+        JsonPointer pointer = JsonPointer.compile(path);
+        if (pointer.matches()) {
+            return original;
+        }
+        return applyAt(original, pointer, fault);
+    }
+
+    /**
+     * Applies the fault and serializes the result as compact JSON.
+     */
+    public static String inject(JsonNode original, String path, FaultCollection fault) {
+        return JsonUtils.write(apply(original, path, fault));
+    }
+
+    /**
+     * Applies the fault at every path and serializes the result as compact JSON. No path may
+     * lie within another. Paths are applied last first, so removing an array element does not
+     * shift the elements that earlier paths address.
+     *
+     * @param paths JSON Pointers in document order
+     */
+    public static String inject(JsonNode original, List<String> paths, FaultCollection fault) {
+        JsonNode simulated = original;
+        for (int i = paths.size() - 1; i >= 0; i--) {
+            simulated = apply(simulated, paths.get(i), fault);
+        }
+        return JsonUtils.write(simulated);
+    }
+
+    /**
+     * The patch that applies the fault at {@code path} to the indexed body: the value is
+     * replaced for a null or invalid value, the field and a separating comma are removed for a
+     * missing one. Faults that do not change the body, and fields that are not indexed, give
+     * {@link BodyPatch#NONE}.
+     */
+    public static BodyPatch patch(JsonFieldIndex index, String path, FaultCollection fault) {
+        JsonFieldIndex.Field field = index.get(path);
+        if (field == null) {
+            return BodyPatch.NONE;
+        }
+        Charset charset = index.getCharset();
+        return switch (fault) {
+            case null_field -> BodyPatch.replace(field.getValueStart(), field.getValueEnd(), "null", charset);
+            case missing_field -> BodyPatch.replace(field.getRemoveStart(), field.getRemoveEnd(), "", charset);
+            case invalid_value -> BodyPatch.replace(field.getValueStart(), field.getValueEnd(),
+                    invalidLiteralFor(index, field), charset);
+            default -> BodyPatch.NONE;
+        };
+    }
+
+    /**
+     * {@link #invalidValueFor(JsonNode)} for a value known only by its first token.
+     */
+    static String invalidLiteralFor(JsonFieldIndex index, JsonFieldIndex.Field field) {
+        JsonToken token = field.getToken();
+        return switch (token) {
+            case VALUE_TRUE -> "false";
+            case VALUE_FALSE -> "true";
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT ->
+                    Double.parseDouble(index.valueText(field)) == -1 ? "0" : "-1";
+            case START_OBJECT -> "{}";
+            case START_ARRAY -> "[]";
+            default -> "\"invalid_value\"";
+        };
+    }
+
+    private static JsonNode applyAt(JsonNode node, JsonPointer pointer, FaultCollection fault) {
+        JsonPointer tail = pointer.tail();
+        if (node instanceof ObjectNode objectNode) {
+            String key = pointer.getMatchingProperty();
+            JsonNode child = objectNode.get(key);
+            if (child == null) {
+                return node;
+            }
+            if (tail.matches()) {
+                return applyToField(objectNode, key, child, fault);
+            }
+            JsonNode simulatedChild = applyAt(child, tail, fault);
+            if (simulatedChild == child) {
+                return node;
+            }
+            ObjectNode copy = NODE_FACTORY.objectNode();
+            copy.setAll(objectNode);
+            copy.set(key, simulatedChild);
+            return copy;
+        }
+        if (node instanceof ArrayNode arrayNode) {
+            int index = pointer.getMatchingIndex();
+            if (index < 0 || index >= arrayNode.size()) {
+                return node;
+            }
+            JsonNode child = arrayNode.get(index);
+            if (tail.matches()) {
+                return applyToElement(arrayNode, index, child, fault);
+            }
+            JsonNode simulatedChild = applyAt(child, tail, fault);
+            if (simulatedChild == child) {
+                return node;
+            }
+            ArrayNode copy = NODE_FACTORY.arrayNode(arrayNode.size());
+            copy.addAll(arrayNode);
+            copy.set(index, simulatedChild);
+            return copy;
+        }
+        return node;
+    }
+
+    private static JsonNode applyToField(ObjectNode parent, String key, JsonNode value, FaultCollection fault) {
+        ObjectNode copy = NODE_FACTORY.objectNode();
+        copy.setAll(parent);
+        switch (fault) {
+            case null_field -> copy.putNull(key);
+            case missing_field -> copy.remove(key);
+            case invalid_value -> copy.set(key, invalidValueFor(value));
+            default -> {
+                return parent;
+            }
+        }
+        return copy;
+    }
+
+    private static JsonNode applyToElement(ArrayNode parent, int index, JsonNode value, FaultCollection fault) {
+        ArrayNode copy = NODE_FACTORY.arrayNode(parent.size());
+        copy.addAll(parent);
+        switch (fault) {
+            case null_field -> copy.set(index, NODE_FACTORY.nullNode());
+            case missing_field -> copy.remove(index);
+            case invalid_value -> copy.set(index, invalidValueFor(value));
+            default -> {
+                return parent;
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * A value of the same JSON type that a well-behaved API would not return for the field.
+     */
+    static JsonNode invalidValueFor(JsonNode value) {
+        return switch (value.getNodeType()) {
+            case BOOLEAN -> NODE_FACTORY.booleanNode(!value.booleanValue());
+            case NUMBER -> NODE_FACTORY.numberNode(value.asDouble() == -1 ? 0 : -1);
+            case OBJECT -> NODE_FACTORY.objectNode();
+            case ARRAY -> NODE_FACTORY.arrayNode();
+            default -> NODE_FACTORY.textNode("invalid_value");
+        };
+    }
 }
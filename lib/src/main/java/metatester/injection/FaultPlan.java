@@ -0,0 +1,230 @@
+package metatester.injection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import metatester.config.FaultCollection;
+import metatester.http.JsonFieldIndex;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Enumerates the (path, fault) pairs of a captured response on demand.
+ * Fields are visited depth first and addressed by JSON Pointer; only one stack frame
+ * per open container is held, so the variant count never has to be materialized.
+ * {@code maxDepth} bounds how deep nested fields are faulted and {@code maxFanOut}
+ * how many children of a single object or array are considered. With an {@link ArraySampler},
+ * arrays contribute the elements it samples instead of their first ones, still at most
+ * {@code maxFanOut}, and fields below a sampled element are reported with {@code *} for its
+ * index. Faults on the response as a whole come first, once each, at the root pointer. A spilled
+ * body is enumerated from its {@link JsonFieldIndex}, which applied the same bounds when it was
+ * scanned; its arrays are not sampled.
+ */
+public class FaultPlan implements Iterable<FaultVariant> {
+    private final JsonNode root;
+    private final JsonFieldIndex index;
+    private final List<FaultCollection> faults;
+    private final List<FaultCollection> responseFaults;
+    private final int maxDepth;
+    private final int maxFanOut;
+    private final ArraySampler arraySampler;
+
+    public FaultPlan(JsonNode root, List<FaultCollection> faults, int maxDepth, int maxFanOut) {
+        this(root, faults, maxDepth, maxFanOut, null);
+    }
+
+    public FaultPlan(JsonNode root, List<FaultCollection> faults, int maxDepth, int maxFanOut,
+                     ArraySampler arraySampler) {
+        this(root, null, faults, maxDepth, maxFanOut, arraySampler);
+    }
+
+    public FaultPlan(JsonFieldIndex index, List<FaultCollection> faults) {
+        this(null, index, faults, 0, 0, null);
+    }
+
+    private FaultPlan(JsonNode root, JsonFieldIndex index, List<FaultCollection> faults, int maxDepth, int maxFanOut,
+                      ArraySampler arraySampler) {
+        this.root = root;
+        this.index = index;
+        this.faults = faults.stream().filter(FaultCollection::isFieldFault).toList();
+        this.responseFaults = faults.stream().filter(fault -> !fault.isFieldFault()).toList();
+        this.maxDepth = maxDepth;
+        this.maxFanOut = maxFanOut;
+        this.arraySampler = arraySampler;
+    }
+
+    @Override
+    public Iterator<FaultVariant> iterator() {
+        return new VariantIterator(index != null ? new IndexWalk(index.paths()) : new TreeWalk());
+    }
+
+    static String escape(String key) {
+        if (key.indexOf('~') < 0 && key.indexOf('/') < 0) {
+            return key;
+        }
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * A field to fault; {@code node} is null for fields of a spilled body.
+     */
+    private record Target(JsonNode node, String path, String reportedPath, int depth) {
+    }
+
+    private class Frame {
+        private final JsonNode container;
+        private final String path;
+        private final String reportedPath;
+        private final int depth;
+        private final Iterator<String> fieldNames;
+        private final int[] sampledIndices;
+        private int visited;
+
+        Frame(Target target) {
+            this.container = target.node();
+            this.path = target.path();
+            this.reportedPath = target.reportedPath();
+            this.depth = target.depth();
+            this.fieldNames = container.isObject() ? container.fieldNames() : null;
+            this.sampledIndices = container.isArray() && arraySampler != null
+                    ? arraySampler.sample(path, container, maxFanOut)
+                    : null;
+        }
+
+        Target nextChild() {
+            if (visited >= maxFanOut) {
+                return null;
+            }
+            if (fieldNames != null) {
+                if (!fieldNames.hasNext()) {
+                    return null;
+                }
+                String key = fieldNames.next();
+                visited++;
+                return new Target(container.get(key), path + "/" + escape(key), reportedPath + "/" + escape(key), depth + 1);
+            }
+            if (sampledIndices != null) {
+                if (visited >= sampledIndices.length) {
+                    return null;
+                }
+                int index = sampledIndices[visited++];
+                return new Target(container.get(index), path + "/" + index, reportedPath + "/*", depth + 1);
+            }
+            if (visited >= container.size()) {
+                return null;
+            }
+            int index = visited++;
+            return new Target(container.get(index), path + "/" + index, reportedPath + "/" + index, depth + 1);
+        }
+    }
+
+    /**
+     * Fields of a spilled body, in index order.
+     */
+    private static class IndexWalk implements Iterator<Target> {
+        private final Iterator<String> paths;
+
+        IndexWalk(Iterator<String> paths) {
+            this.paths = paths;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return paths.hasNext();
+        }
+
+        @Override
+        public Target next() {
+            String path = paths.next();
+            return new Target(null, path, path, 0);
+        }
+    }
+
+    /**
+     * Fields of the tree, in the order they are faulted.
+     */
+    private class TreeWalk implements Iterator<Target> {
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private Target next;
+        private Target last;
+
+        TreeWalk() {
+            if (root != null && root.isContainerNode()) {
+                stack.push(new Frame(new Target(root, "", "", 0)));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (last != null) {
+                if (last.node().isContainerNode() && last.depth() < maxDepth) {
+                    stack.push(new Frame(last));
+                }
+                last = null;
+            }
+            while (!stack.isEmpty()) {
+                Target child = stack.peek().nextChild();
+                if (child == null) {
+                    stack.pop();
+                } else {
+                    next = child;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Target next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = null;
+            return last;
+        }
+    }
+
+    private class VariantIterator implements Iterator<FaultVariant> {
+        private final Iterator<Target> targets;
+        private Target current;
+        private int faultIndex;
+        private int responseFaultIndex;
+
+        VariantIterator(Iterator<Target> targets) {
+            this.targets = targets;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (responseFaultIndex < responseFaults.size()) {
+                return true;
+            }
+            if (current != null && faultIndex < faults.size()) {
+                return true;
+            }
+            if (faults.isEmpty() || !targets.hasNext()) {
+                return false;
+            }
+            current = targets.next();
+            faultIndex = 0;
+            return true;
+        }
+
+        @Override
+        public FaultVariant next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (responseFaultIndex < responseFaults.size()) {
+                return new FaultVariant(FaultVariant.RESPONSE, responseFaults.get(responseFaultIndex++));
+            }
+            return new FaultVariant(current.path(), faults.get(faultIndex++), current.reportedPath());
+        }
+    }
+}
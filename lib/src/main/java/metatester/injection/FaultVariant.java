@@ -0,0 +1,32 @@
+package metatester.injection;
+
+import metatester.config.FaultCollection;
+
+/**
+ * A single rerun of a test: one fault applied to the response field addressed by a JSON Pointer.
+ * Faults on the response as a whole use the root pointer {@link #RESPONSE}. Results are reported
+ * under {@code reportedPath}, which is the pointer itself unless the element was sampled from an
+ * array, where {@code *} stands for the index so all sampled elements share one entry. A test
+ * reports that entry once, combining the results of its elements.
+ */
+public record FaultVariant(String path, FaultCollection fault, String reportedPath) {
+    public static final String RESPONSE = "";
+    private static final String RESPONSE_LABEL = "(response)";
+
+    public FaultVariant {
+        if (reportedPath == null) {
+            reportedPath = path;
+        }
+    }
+
+    public FaultVariant(String path, FaultCollection fault) {
+        this(path, fault, path);
+    }
+
+    /**
+     * Field name the variant is reported under; the root pointer is empty, so it gets a label.
+     */
+    public String reportedField() {
+        return RESPONSE.equals(reportedPath) ? RESPONSE_LABEL : reportedPath;
+    }
+}
@@ -0,0 +1,28 @@
+package metatester.injection;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated time consumed by delay faults. Delays advance this clock instead of the wall clock,
+ * so a campaign can exercise long timeouts without waiting for them.
+ */
+public class VirtualClock {
+    private static final VirtualClock INSTANCE = new VirtualClock();
+
+    private final AtomicLong elapsedMillis = new AtomicLong();
+
+    public static VirtualClock getInstance() {
+        return INSTANCE;
+    }
+
+    public void advance(long millis) {
+        elapsedMillis.addAndGet(millis);
+    }
+
+    /**
+     * Total simulated time, i.e. the wall time the delays would have taken if slept.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis.get();
+    }
+}
@@ -0,0 +1,24 @@
+package metatester.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("metatester.CampaignPhase")
+@Label("Fault Campaign Phase")
+@Description("One timed step of a fault campaign: original run, mutation, rerun or report apply")
+@Category("Metatester")
+@StackTrace(false)
+class CampaignPhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Test")
+    String test;
+
+    @Label("Endpoint")
+    String endpoint;
+}
@@ -0,0 +1,29 @@
+package metatester.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("metatester.Interception")
+@Label("HTTP Interception")
+@Description("An intercepted HTTP client call; the overhead excludes the time spent in the client itself")
+@Category("Metatester")
+@StackTrace(false)
+class InterceptionEvent extends Event {
+    @Label("Client")
+    String client;
+
+    @Label("First Run")
+    boolean firstRun;
+
+    @Label("Short-Circuited")
+    boolean shortCircuited;
+
+    @Label("Overhead")
+    @Timespan(Timespan.NANOSECONDS)
+    long overhead;
+}
@@ -0,0 +1,115 @@
+package metatester.metrics;
+
+import metatester.config.SimulatorConfig;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process timings and counters of a fault campaign. Every phase is also emitted as a JDK
+ * Flight Recorder event, which costs nothing unless a recording is running, e.g. with
+ * {@code -XX:StartFlightRecording=filename=campaign.jfr}. The registry itself only records
+ * when {@code metrics.enabled} is set; its summary is added to the fault report.
+ */
+public class MetricsRegistry {
+    public static final String VARIANTS_GENERATED = "variantsGenerated";
+    public static final String VARIANTS_RERUN = "variantsRerun";
+    public static final String VARIANTS_SKIPPED_UNREAD = "variantsSkippedUnread";
+    public static final String VARIANTS_RESTORED_FROM_CACHE = "variantsRestoredFromCache";
+    public static final String RERUNS_SHORT_CIRCUITED = "rerunsShortCircuited";
+    public static final String GROUP_RERUNS = "groupReruns";
+    public static final String VARIANTS_INFERRED_FROM_GROUP = "variantsInferredFromGroup";
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry(SimulatorConfig.isMetricsEnabled());
+
+    private final boolean enabled;
+    private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+    private final Map<String, LatencyHistogram> rerunsByTest = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> rerunsByEndpoint = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a phase; closing the returned timer records it.
+     */
+    public PhaseTimer start(Phase phase, String test, String endpoint) {
+        return new PhaseTimer(this, phase, test, endpoint);
+    }
+
+    void record(Phase phase, String test, String endpoint, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        phases.get(phase).record(nanos);
+        if (phase == Phase.RERUN) {
+            if (test != null) rerunsByTest.computeIfAbsent(test, k -> new LatencyHistogram()).record(nanos);
+            if (endpoint != null) rerunsByEndpoint.computeIfAbsent(endpoint, k -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    /**
+     * Records the time an HTTP interception added on top of the client call it wrapped.
+     */
+    public void recordInterception(String client, boolean firstRun, boolean shortCircuited, long overheadNanos) {
+        InterceptionEvent event = new InterceptionEvent();
+        if (event.shouldCommit()) {
+            event.client = client;
+            event.firstRun = firstRun;
+            event.shortCircuited = shortCircuited;
+            event.overhead = overheadNanos;
+            event.commit();
+        }
+        record(Phase.INTERCEPTION_OVERHEAD, null, null, overheadNanos);
+        if (shortCircuited) {
+            increment(RERUNS_SHORT_CIRCUITED, 1);
+        }
+    }
+
+    public void increment(String counter, long amount) {
+        if (enabled) {
+            counters.computeIfAbsent(counter, k -> new LongAdder()).add(amount);
+        }
+    }
+
+    public long getCount(String counter) {
+        LongAdder adder = counters.get(counter);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public Map<String, Object> toSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        Map<String, Object> counterSummary = new TreeMap<>();
+        counters.forEach((name, adder) -> counterSummary.put(name, adder.sum()));
+        summary.put("counters", counterSummary);
+        Map<String, Object> phaseSummary = new LinkedHashMap<>();
+        phases.forEach((phase, histogram) -> phaseSummary.put(phase.getKey(), histogram.toSummary()));
+        summary.put("phases", phaseSummary);
+        summary.put("rerunsByTest", toSummary(rerunsByTest));
+        summary.put("rerunsByEndpoint", toSummary(rerunsByEndpoint));
+        return summary;
+    }
+
+    private static Map<String, Object> toSummary(Map<String, LatencyHistogram> histograms) {
+        Map<String, Object> summary = new TreeMap<>();
+        histograms.forEach((key, histogram) -> summary.put(key, histogram.toSummary()));
+        return summary;
+    }
+}
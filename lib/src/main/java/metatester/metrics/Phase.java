@@ -0,0 +1,22 @@
+package metatester.metrics;
+
+/**
+ * Timed steps of a fault campaign.
+ */
+public enum Phase {
+    ORIGINAL_RUN("originalRun"),
+    MUTATION("mutation"),
+    RERUN("rerun"),
+    REPORT_APPLY("reportApply"),
+    INTERCEPTION_OVERHEAD("interceptionOverhead");
+
+    private final String key;
+
+    Phase(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,35 @@
+package metatester.metrics;
+
+/**
+ * Times one phase from {@link MetricsRegistry#start} until {@link #close()} and commits the
+ * matching Flight Recorder event.
+ */
+public class PhaseTimer implements AutoCloseable {
+    private final MetricsRegistry registry;
+    private final Phase phase;
+    private final String test;
+    private final String endpoint;
+    private final CampaignPhaseEvent event = new CampaignPhaseEvent();
+    private final long start = System.nanoTime();
+
+    PhaseTimer(MetricsRegistry registry, Phase phase, String test, String endpoint) {
+        this.registry = registry;
+        this.phase = phase;
+        this.test = test;
+        this.endpoint = endpoint;
+        event.begin();
+    }
+
+    @Override
+    public void close() {
+        long elapsed = System.nanoTime() - start;
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.getKey();
+            event.test = test;
+            event.endpoint = endpoint;
+            event.commit();
+        }
+        registry.record(phase, test, endpoint, elapsed);
+    }
+}
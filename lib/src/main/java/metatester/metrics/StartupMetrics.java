@@ -0,0 +1,52 @@
+package metatester.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JVM uptime when the test plan and the first test started. With load-time weaving most of
+ * that time is spent weaving the classes loaded on the way, so comparing runs with and without
+ * {@code -Daj.weaving.cache.enabled=true} shows what the weaving cache saves.
+ */
+public class StartupMetrics {
+    private static final StartupMetrics INSTANCE = new StartupMetrics();
+
+    private volatile long testPlanStartedMs = -1;
+    private volatile long firstTestStartedMs = -1;
+
+    public static StartupMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public void markTestPlanStarted() {
+        if (testPlanStartedMs < 0) {
+            testPlanStartedMs = uptimeMs();
+        }
+    }
+
+    public void markTestStarted() {
+        if (firstTestStartedMs < 0) {
+            firstTestStartedMs = uptimeMs();
+            System.out.println("First test started " + firstTestStartedMs + " ms after JVM start (weaving cache "
+                    + (isWeavingCacheEnabled() ? "enabled" : "disabled") + ")");
+        }
+    }
+
+    public Map<String, Object> toSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("testPlanStartedMs", testPlanStartedMs);
+        summary.put("firstTestStartedMs", firstTestStartedMs);
+        summary.put("weavingCacheEnabled", isWeavingCacheEnabled());
+        summary.put("weavingCacheDir", System.getProperty("aj.weaving.cache.dir"));
+        return summary;
+    }
+
+    private static boolean isWeavingCacheEnabled() {
+        return Boolean.getBoolean("aj.weaving.cache.enabled");
+    }
+
+    private static long uptimeMs() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -1,21 +1,33 @@
 package metatester.report;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import metatester.config.ShardConfig;
+import metatester.config.SimulatorConfig;
+
 import java.io.File;
 import java.io.IOException;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.StringWriter;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 public class FaultSimulationReport {
     private static final FaultSimulationReport INSTANCE = new FaultSimulationReport();
     private static final String DEFAULT_REPORT_PATH = "fault_simulation_report.json";
+    private final String reportPath = ShardConfig.shardPath(DEFAULT_REPORT_PATH);
+    private final String streamPath = ShardConfig.shardPath(SimulatorConfig.getReportStreamPath());
 
     private String endpoint;
     private String field;
     private String simulatedFault;
     private TestLevelSimulationResults testResult;
-    private final Map<String, Object> report = new ConcurrentHashMap<>();
+    private final ResultStore results = new ResultStore(SimulatorConfig.getReportMaxErrorLength());
+    private final Map<String, Object> summary = new ConcurrentSkipListMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean streaming = SimulatorConfig.isReportStreamEnabled();
+    private NdjsonReportWriter streamWriter;
 
 
     public static FaultSimulationReport getInstance() {
@@ -23,12 +35,18 @@ public class FaultSimulationReport {
     }
 
 
+    /**
+     * Adds a campaign-wide section, written under the top-level "summary" key of the report.
+     */
+    public void putSummary(String key, Object value) {
+        summary.put(key, value);
+    }
+
     public FaultSimulationReport setEndpoint(String endpoint) {
         if (endpoint == null || endpoint.trim().isEmpty()) {
             throw new IllegalArgumentException("Endpoint cannot be null or empty");
         }
         this.endpoint = endpoint;
-        report.putIfAbsent(endpoint, new ConcurrentHashMap<>());
         return this;
     }
 
@@ -40,10 +58,6 @@ public class FaultSimulationReport {
             throw new IllegalStateException("Endpoint must be set before setting field");
         }
         this.field = field;
-        Map<String, Object> endpointMap = getOrCreateMap(report, endpoint);
-        if (endpointMap != null) {
-            endpointMap.putIfAbsent(field, new ConcurrentHashMap<>());
-        }
         return this;
     }
 
@@ -55,14 +69,6 @@ public class FaultSimulationReport {
             throw new IllegalStateException("Endpoint and field must be set before setting fault type");
         }
         this.simulatedFault = simulatedFault;
-
-        Map<String, Object> endpointMap = getOrCreateMap(report, endpoint);
-        if (endpointMap == null) return this;
-
-        Map<String, Object> fieldMap = getOrCreateMap(endpointMap, field);
-        if (fieldMap == null) return this;
-
-        fieldMap.putIfAbsent(simulatedFault, Collections.synchronizedList(new ArrayList<>()));
         return this;
     }
 
@@ -79,28 +85,40 @@ public class FaultSimulationReport {
             throw new IllegalStateException("All fields (endpoint, field, simulatedFault, testResult) must be set before applying");
         }
 
-        Map<String, Object> endpointMap = getOrCreateMap(report, endpoint);
-        if (endpointMap == null) return;
+        if (streaming) {
+            writeToStream();
+            resetState();
+            return;
+        }
 
-        Map<String, Object> fieldMap = getOrCreateMap(endpointMap, field);
-        if (fieldMap == null) return;
+        results.add(endpoint, field, simulatedFault, testResult);
+        resetState();
+    }
 
-        List<Object> faultList = getOrCreateList(fieldMap, simulatedFault);
-        if (faultList != null) {
-            synchronized (faultList) {
-                faultList.add(testResult);
+    private void writeToStream() {
+        try {
+            if (streamWriter == null) {
+                streamWriter = new NdjsonReportWriter(Paths.get(streamPath),
+                        SimulatorConfig.isReportStreamGzipEnabled(), objectMapper);
             }
+            streamWriter.write(endpoint, field, simulatedFault, testResult);
+        } catch (IOException e) {
+            System.err.println("Failed to stream report entry: " + e.getMessage());
         }
-        resetState();
     }
 
     public void createJSONReport() {
+        if (streaming) {
+            createJSONReportFromStream();
+            return;
+        }
         try {
-            File reportFile = new File(DEFAULT_REPORT_PATH);
+            File reportFile = new File(reportPath);
             if (reportFile.exists()) reportFile.delete();
-            objectMapper.writerWithDefaultPrettyPrinter()
-                    .writeValue(new File(DEFAULT_REPORT_PATH), report);
-            System.out.println("Saving fault simulation report to JSON file: " + DEFAULT_REPORT_PATH);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(reportFile, JsonEncoding.UTF8)) {
+                writeReport(generator);
+            }
+            System.out.println("Saving fault simulation report to JSON file: " + reportPath);
         } catch (IOException e) {
             System.err.println("Failed to save report: " + e.getMessage());
         }
@@ -108,36 +126,38 @@ public class FaultSimulationReport {
 
 
 
-    public String toJson() throws IOException {
-        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> getOrCreateMap(Map<String, Object> parentMap, String key) {
-        if (parentMap == null || key == null) {
-            return null;
+    private void createJSONReportFromStream() {
+        if (streamWriter == null) {
+            return;
         }
         try {
-            return (Map<String, Object>) parentMap.computeIfAbsent(key,
-                    k -> new ConcurrentHashMap<>());
-        } catch (Exception e) {
-            System.err.println("Error creating map for key " + key + ": " + e.getMessage());
-            return null;
+            streamWriter.close();
+            NdjsonReportConverter.convert(Paths.get(streamPath), Paths.get(reportPath), summary);
+            System.out.println("Saving fault simulation report converted from " + streamPath
+                    + " to JSON file: " + reportPath);
+        } catch (IOException e) {
+            System.err.println("Failed to save report: " + e.getMessage());
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private List<Object> getOrCreateList(Map<String, Object> parentMap, String key) {
-        if (parentMap == null || key == null) {
-            return null;
+    /**
+     * Serializes the in-memory report. Empty when results are streamed to NDJSON.
+     */
+    public String toJson() throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            writeReport(generator);
         }
-        try {
-            return (List<Object>) parentMap.computeIfAbsent(key,
-                    k -> Collections.synchronizedList(new ArrayList<>()));
-        } catch (Exception e) {
-            System.err.println("Error creating list for key " + key + ": " + e.getMessage());
-            return null;
+        return writer.toString();
+    }
+
+    private void writeReport(JsonGenerator generator) throws IOException {
+        generator.useDefaultPrettyPrinter();
+        results.writeStart(generator);
+        if (!summary.isEmpty()) {
+            generator.writeObjectField("summary", summary);
         }
+        generator.writeEndObject();
     }
 
     private void resetState() {
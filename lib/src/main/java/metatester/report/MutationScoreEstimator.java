@@ -0,0 +1,120 @@
+package metatester.report;
+
+import org.apache.commons.math3.distribution.NormalDistribution;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stratified estimate of the mutation score (share of detected faults) from a sample of variants.
+ * Strata are endpoint and fault type pairs, weighted by the number of variants each one contains.
+ * The interval uses the normal approximation with a finite population correction; stratum
+ * proportions are smoothed with one pseudo detection and one pseudo miss so that small, uniform
+ * samples do not report a zero-width interval.
+ */
+public class MutationScoreEstimator {
+    private static final int MIN_SAMPLES_PER_STRATUM = 2;
+
+    private final double confidence;
+    private final double marginOfError;
+    private final double z;
+    private final Map<String, Stratum> strata = new LinkedHashMap<>();
+
+    private static class Stratum {
+        long population;
+        long sampled;
+        long detected;
+    }
+
+    public MutationScoreEstimator(double confidence, double marginOfError) {
+        this.confidence = confidence;
+        this.marginOfError = marginOfError;
+        this.z = new NormalDistribution().inverseCumulativeProbability(1 - (1 - confidence) / 2);
+    }
+
+    private Stratum stratum(String endpoint, String fault) {
+        return strata.computeIfAbsent(endpoint + " " + fault, k -> new Stratum());
+    }
+
+    public synchronized void addPopulation(String endpoint, String fault, long variants) {
+        stratum(endpoint, fault).population += variants;
+    }
+
+    public synchronized void record(String endpoint, String fault, boolean caught) {
+        Stratum stratum = stratum(endpoint, fault);
+        stratum.sampled++;
+        if (caught) {
+            stratum.detected++;
+        }
+        stratum.population = Math.max(stratum.population, stratum.sampled);
+    }
+
+    private long totalPopulation() {
+        return strata.values().stream().mapToLong(s -> s.population).sum();
+    }
+
+    public synchronized double getEstimate() {
+        long total = totalPopulation();
+        if (total == 0) {
+            return Double.NaN;
+        }
+        double estimate = 0;
+        for (Stratum stratum : strata.values()) {
+            if (stratum.sampled > 0) {
+                estimate += (double) stratum.population / total * stratum.detected / stratum.sampled;
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Half the width of the confidence interval, or infinity while a stratum has no sample.
+     */
+    public synchronized double getHalfWidth() {
+        long total = totalPopulation();
+        if (total == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double variance = 0;
+        for (Stratum stratum : strata.values()) {
+            if (stratum.population == 0) {
+                continue;
+            }
+            if (stratum.sampled == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double weight = (double) stratum.population / total;
+            double smoothed = (stratum.detected + 1.0) / (stratum.sampled + 2.0);
+            double finitePopulationCorrection = 1.0 - (double) stratum.sampled / stratum.population;
+            variance += weight * weight * finitePopulationCorrection * smoothed * (1 - smoothed) / stratum.sampled;
+        }
+        return z * Math.sqrt(variance);
+    }
+
+    /**
+     * True once every stratum has enough samples and the interval is within the target margin.
+     */
+    public synchronized boolean isPreciseEnough() {
+        for (Stratum stratum : strata.values()) {
+            if (stratum.sampled < Math.min(MIN_SAMPLES_PER_STRATUM, stratum.population)) {
+                return false;
+            }
+        }
+        return getHalfWidth() <= marginOfError;
+    }
+
+    public synchronized Map<String, Object> toSummary() {
+        double estimate = getEstimate();
+        double halfWidth = getHalfWidth();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("estimate", estimate);
+        summary.put("halfWidth", halfWidth);
+        summary.put("lower", Math.max(0, estimate - halfWidth));
+        summary.put("upper", Math.min(1, estimate + halfWidth));
+        summary.put("confidence", confidence);
+        summary.put("targetMarginOfError", marginOfError);
+        summary.put("sampledVariants", strata.values().stream().mapToLong(s -> s.sampled).sum());
+        summary.put("totalVariants", totalPopulation());
+        return summary;
+    }
+}
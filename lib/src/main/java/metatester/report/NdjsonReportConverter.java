@@ -0,0 +1,87 @@
+package metatester.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Rebuilds the nested endpoint / field / fault report written by {@link FaultSimulationReport}
+ * from an NDJSON stream produced by {@link NdjsonReportWriter}. Plain and gzip streams are
+ * both accepted; a line truncated by a crashed run is skipped.
+ *
+ * <p>Usage: {@code NdjsonReportConverter <input.ndjson[.gz]> <output.json>}
+ */
+public class NdjsonReportConverter {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void convert(Path ndjsonPath, Path jsonPath) throws IOException {
+        convert(ndjsonPath, jsonPath, Collections.emptyMap());
+    }
+
+    /**
+     * @param summary campaign-wide sections written under the top-level "summary" key, if any
+     */
+    public static void convert(Path ndjsonPath, Path jsonPath, Map<String, Object> summary) throws IOException {
+        Map<String, Object> report = new TreeMap<>();
+        try (InputStream inputStream = open(ndjsonPath);
+             MappingIterator<JsonNode> lines = objectMapper.readerFor(JsonNode.class).readValues(inputStream)) {
+            JsonNode line;
+            while ((line = nextLine(lines)) != null) {
+                endpointMap(report, line.path(NdjsonReportWriter.ENDPOINT).asText())
+                        .computeIfAbsent(line.path(NdjsonReportWriter.FIELD).asText(), k -> new TreeMap<>())
+                        .computeIfAbsent(line.path(NdjsonReportWriter.FAULT).asText(), k -> new ArrayList<>())
+                        .add(line.path(NdjsonReportWriter.RESULT));
+            }
+        }
+        Map<String, Object> exported = report;
+        if (!summary.isEmpty()) {
+            exported = new LinkedHashMap<>(report);
+            exported.put("summary", summary);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(jsonPath.toFile(), exported);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, List<JsonNode>>> endpointMap(Map<String, Object> report, String endpoint) {
+        return (Map<String, Map<String, List<JsonNode>>>) report.computeIfAbsent(endpoint, k -> new TreeMap<>());
+    }
+
+    private static JsonNode nextLine(MappingIterator<JsonNode> lines) {
+        try {
+            return lines.hasNextValue() ? lines.nextValue() : null;
+        } catch (IOException e) {
+            System.err.println("Ignoring truncated report line: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static InputStream open(Path path) throws IOException {
+        InputStream inputStream = new BufferedInputStream(Files.newInputStream(path));
+        inputStream.mark(2);
+        int magic = inputStream.read() | (inputStream.read() << 8);
+        inputStream.reset();
+        return magic == GZIPInputStream.GZIP_MAGIC ? new GZIPInputStream(inputStream) : inputStream;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: NdjsonReportConverter <input.ndjson[.gz]> <output.json>");
+            System.exit(1);
+        }
+        convert(Paths.get(args[0]), Paths.get(args[1]));
+    }
+}
@@ -0,0 +1,54 @@
+package metatester.report;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends one compact JSON line per fault simulation result. Every line is flushed
+ * when written, so the results of a run survive a crash of the test JVM.
+ * {@link NdjsonReportConverter} rebuilds the nested report from the stream.
+ */
+public class NdjsonReportWriter implements Closeable {
+    static final String ENDPOINT = "endpoint";
+    static final String FIELD = "field";
+    static final String FAULT = "fault";
+    static final String RESULT = "result";
+
+    private final JsonGenerator generator;
+
+    public NdjsonReportWriter(Path path, boolean gzip, ObjectMapper objectMapper) throws IOException {
+        OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path));
+        if (gzip) {
+            // sync flush makes every completed line recoverable from the compressed file
+            outputStream = new GZIPOutputStream(outputStream, true);
+        }
+        this.generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    public synchronized void write(String endpoint, String field, String simulatedFault,
+                                   TestLevelSimulationResults testResult) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(ENDPOINT, endpoint);
+        generator.writeStringField(FIELD, field);
+        generator.writeStringField(FAULT, simulatedFault);
+        generator.writeObjectField(RESULT, testResult);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,184 @@
+package metatester.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Combines the per-shard reports of a sharded campaign (see {@link metatester.config.ShardConfig})
+ * into one report. Result lists of the same endpoint, field and fault are concatenated in the
+ * order of the input files. The summary gets detection totals recounted from the merged results
+ * and, when the shards were sampled, one mutation score estimate over all shards; the original
+ * shard summaries are kept under "shardSummaries".
+ *
+ * <p>Usage: {@code ReportMerger <output.json> <shard-report.json>...}, where a shard report may
+ * also be a directory, standing for the shard reports in it, or a file name with wildcards.
+ */
+public class ReportMerger {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String SUMMARY = "summary";
+
+    public static void merge(List<Path> shardReports, Path output) throws IOException {
+        Map<String, Map<String, Map<String, List<JsonNode>>>> report = new TreeMap<>();
+        Map<String, JsonNode> shardSummaries = new LinkedHashMap<>();
+        for (Path shardReport : shardReports) {
+            JsonNode shard = objectMapper.readTree(shardReport.toFile());
+            Iterator<Map.Entry<String, JsonNode>> endpoints = shard.fields();
+            while (endpoints.hasNext()) {
+                Map.Entry<String, JsonNode> endpoint = endpoints.next();
+                if (SUMMARY.equals(endpoint.getKey())) {
+                    shardSummaries.put(shardReport.getFileName().toString(), endpoint.getValue());
+                    continue;
+                }
+                mergeEndpoint(report.computeIfAbsent(endpoint.getKey(), k -> new TreeMap<>()), endpoint.getValue());
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("shards", shardReports.size());
+        summary.put("detection", detectionTotals(report));
+        Map<String, Object> mutationScore = mergeMutationScores(shardSummaries.values());
+        if (mutationScore != null) {
+            summary.put("mutationScore", mutationScore);
+        }
+        if (!shardSummaries.isEmpty()) {
+            summary.put("shardSummaries", shardSummaries);
+        }
+
+        Map<String, Object> exported = new LinkedHashMap<>(report);
+        exported.put(SUMMARY, summary);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), exported);
+    }
+
+    private static void mergeEndpoint(Map<String, Map<String, List<JsonNode>>> endpointMap, JsonNode endpoint) {
+        Iterator<Map.Entry<String, JsonNode>> fields = endpoint.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            Map<String, List<JsonNode>> fieldMap = endpointMap.computeIfAbsent(field.getKey(), k -> new TreeMap<>());
+            Iterator<Map.Entry<String, JsonNode>> faults = field.getValue().fields();
+            while (faults.hasNext()) {
+                Map.Entry<String, JsonNode> fault = faults.next();
+                List<JsonNode> results = fieldMap.computeIfAbsent(fault.getKey(), k -> new ArrayList<>());
+                fault.getValue().forEach(results::add);
+            }
+        }
+    }
+
+    private static Map<String, Object> detectionTotals(Map<String, Map<String, Map<String, List<JsonNode>>>> report) {
+        long variants = 0;
+        long detected = 0;
+        long inferred = 0;
+        for (Map<String, Map<String, List<JsonNode>>> endpoint : report.values()) {
+            for (Map<String, List<JsonNode>> field : endpoint.values()) {
+                for (List<JsonNode> results : field.values()) {
+                    for (JsonNode result : results) {
+                        variants++;
+                        if (result.path("caught").asBoolean()) detected++;
+                        if (result.path("inferred").asBoolean()) inferred++;
+                    }
+                }
+            }
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("variants", variants);
+        totals.put("detected", detected);
+        totals.put("inferred", inferred);
+        totals.put("score", variants == 0 ? Double.NaN : (double) detected / variants);
+        return totals;
+    }
+
+    /**
+     * Shards own disjoint tests, so their samples are independent: the estimates are weighted by
+     * the number of variants each shard covers and the half widths are combined as the square
+     * root of the summed weighted variances.
+     */
+    private static Map<String, Object> mergeMutationScores(Iterable<JsonNode> shardSummaries) {
+        List<JsonNode> scores = new ArrayList<>();
+        long totalVariants = 0;
+        long sampledVariants = 0;
+        for (JsonNode shardSummary : shardSummaries) {
+            JsonNode score = shardSummary.path("mutationScore");
+            if (score.isObject() && score.path("totalVariants").asLong() > 0) {
+                scores.add(score);
+                totalVariants += score.path("totalVariants").asLong();
+                sampledVariants += score.path("sampledVariants").asLong();
+            }
+        }
+        if (scores.isEmpty()) {
+            return null;
+        }
+        double estimate = 0;
+        double variance = 0;
+        for (JsonNode score : scores) {
+            double weight = (double) score.path("totalVariants").asLong() / totalVariants;
+            double weightedHalfWidth = weight * score.path("halfWidth").asDouble(Double.POSITIVE_INFINITY);
+            estimate += weight * score.path("estimate").asDouble();
+            variance += weightedHalfWidth * weightedHalfWidth;
+        }
+        double halfWidth = Math.sqrt(variance);
+        Map<String, Object> merged = new LinkedHashMap<>();
+        merged.put("estimate", estimate);
+        merged.put("halfWidth", halfWidth);
+        merged.put("lower", Math.max(0, estimate - halfWidth));
+        merged.put("upper", Math.min(1, estimate + halfWidth));
+        merged.put("confidence", scores.get(0).path("confidence").asDouble());
+        merged.put("targetMarginOfError", scores.get(0).path("targetMarginOfError").asDouble());
+        merged.put("sampledVariants", sampledVariants);
+        merged.put("totalVariants", totalVariants);
+        return merged;
+    }
+
+    /**
+     * Reports named by an argument, sorted: the file itself, the {@code *.shard-*.json} files of
+     * a directory, or the files matching a name with wildcards such as
+     * {@code fault_simulation_report.shard-*.json}, which also picks up the reports of every
+     * fork of an explicit shard.
+     */
+    public static List<Path> findShardReports(String argument) throws IOException {
+        Path directory;
+        String pattern;
+        if (argument.indexOf('*') >= 0 || argument.indexOf('?') >= 0) {
+            int separator = Math.max(argument.lastIndexOf('/'), argument.lastIndexOf('\\'));
+            directory = Paths.get(separator < 0 ? "." : argument.substring(0, separator + 1));
+            pattern = argument.substring(separator + 1);
+        } else if (Files.isDirectory(Paths.get(argument))) {
+            directory = Paths.get(argument);
+            pattern = "*.shard-*.json";
+        } else {
+            return List.of(Paths.get(argument));
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> matcher.matches(file.getFileName()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ReportMerger <output.json> <shard-report.json>...");
+            System.exit(1);
+        }
+        List<Path> shardReports = new ArrayList<>();
+        for (String arg : Arrays.stream(args, 1, args.length).sorted().toList()) {
+            shardReports.addAll(findShardReports(arg));
+        }
+        merge(shardReports, Paths.get(args[0]));
+        System.out.println("Merged " + shardReports.size() + " shard reports into " + args[0]);
+    }
+}
@@ -0,0 +1,152 @@
+package metatester.report;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Column store for fault simulation results. Endpoint, field, fault, test and error strings are
+ * replaced by ids into one string dictionary, so a row costs five ints and two bits however often
+ * its strings repeat. Error messages are cut to {@code maxErrorLength} characters before they
+ * are interned. The nested endpoint / field / fault JSON is only produced on export.
+ */
+public class ResultStore {
+    private static final int NO_STRING = -1;
+    private static final String TRUNCATION_MARKER = "... [truncated]";
+
+    private final int maxErrorLength;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private int[] endpoints = new int[16];
+    private int[] fields = new int[16];
+    private int[] faults = new int[16];
+    private int[] tests = new int[16];
+    private int[] errors = new int[16];
+    private final BitSet caught = new BitSet();
+    private final BitSet inferred = new BitSet();
+    private int size;
+
+    public ResultStore(int maxErrorLength) {
+        this.maxErrorLength = maxErrorLength;
+    }
+
+    public synchronized void add(String endpoint, String field, String fault, TestLevelSimulationResults result) {
+        if (size == endpoints.length) {
+            int capacity = size * 2;
+            endpoints = Arrays.copyOf(endpoints, capacity);
+            fields = Arrays.copyOf(fields, capacity);
+            faults = Arrays.copyOf(faults, capacity);
+            tests = Arrays.copyOf(tests, capacity);
+            errors = Arrays.copyOf(errors, capacity);
+        }
+        endpoints[size] = intern(endpoint);
+        fields[size] = intern(field);
+        faults[size] = intern(fault);
+        tests[size] = intern(result.getTest());
+        errors[size] = intern(truncate(result.getError()));
+        caught.set(size, result.isCaught());
+        inferred.set(size, result.isInferred());
+        size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Number of distinct strings kept for all columns together.
+     */
+    public synchronized int dictionarySize() {
+        return strings.size();
+    }
+
+    /**
+     * Writes the results as the endpoint / field / fault object with keys in natural order and
+     * results in insertion order, leaving the generator inside that object so that callers can
+     * add further top-level entries before closing it.
+     */
+    public synchronized void writeStart(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, Map<String, Map<String, List<Integer>>>> endpoint : groupRows().entrySet()) {
+            generator.writeObjectFieldStart(endpoint.getKey());
+            for (Map.Entry<String, Map<String, List<Integer>>> field : endpoint.getValue().entrySet()) {
+                generator.writeObjectFieldStart(field.getKey());
+                for (Map.Entry<String, List<Integer>> fault : field.getValue().entrySet()) {
+                    generator.writeArrayFieldStart(fault.getKey());
+                    for (int row : fault.getValue()) {
+                        writeResult(generator, row);
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Row ids grouped by the sorted endpoint, field and fault names. Groups are looked up by id,
+     * so each distinct string is compared only while building the sorted maps.
+     */
+    private Map<String, Map<String, Map<String, List<Integer>>>> groupRows() {
+        Map<Long, List<Integer>> rowsByGroup = new HashMap<>();
+        Map<String, Map<String, Map<String, List<Integer>>>> grouped = new TreeMap<>();
+        for (int row = 0; row < size; row++) {
+            int current = row;
+            long group = ((long) endpoints[row] << 42) ^ ((long) fields[row] << 21) ^ faults[row];
+            List<Integer> rows = rowsByGroup.get(group);
+            if (rows == null || !sameGroup(rows.get(0), row)) {
+                rows = grouped.computeIfAbsent(strings.get(endpoints[current]), k -> new TreeMap<>())
+                        .computeIfAbsent(strings.get(fields[current]), k -> new TreeMap<>())
+                        .computeIfAbsent(strings.get(faults[current]), k -> new ArrayList<>());
+                rowsByGroup.put(group, rows);
+            }
+            rows.add(row);
+        }
+        return grouped;
+    }
+
+    private boolean sameGroup(int first, int second) {
+        return endpoints[first] == endpoints[second] && fields[first] == fields[second] && faults[first] == faults[second];
+    }
+
+    private void writeResult(JsonGenerator generator, int row) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("test", lookup(tests[row]));
+        generator.writeBooleanField("caught", caught.get(row));
+        generator.writeStringField("error", lookup(errors[row]));
+        generator.writeBooleanField("inferred", inferred.get(row));
+        generator.writeEndObject();
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    private String lookup(int id) {
+        return id == NO_STRING ? null : strings.get(id);
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= maxErrorLength) {
+            return error;
+        }
+        return error.substring(0, maxErrorLength) + TRUNCATION_MARKER;
+    }
+}
@@ -10,4 +10,5 @@ public class TestLevelSimulationResults {
     String test;
     boolean caught;
     String error;
+    boolean inferred;
 }
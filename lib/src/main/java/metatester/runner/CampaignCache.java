@@ -0,0 +1,96 @@
+package metatester.runner;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import metatester.config.FaultCollection;
+import metatester.report.TestLevelSimulationResults;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * On-disk cache of fault simulation results, one file per test run. The key covers the bytecode
+ * of the test class (and so of the test method and its helpers), the test method name, the original
+ * response body and the fault plan; a test whose key is unchanged gets its previous results
+ * without any rerun. Code outside the test class, such as shared clients, is not part of the key.
+ */
+public class CampaignCache {
+    private static final TypeReference<List<CachedResult>> RESULTS_TYPE = new TypeReference<>() {};
+
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public record CachedResult(String endpoint, String path, String reportedPath, FaultCollection fault,
+                               TestLevelSimulationResults result) {
+        public CachedResult(String endpoint, String path, FaultCollection fault, TestLevelSimulationResults result) {
+            this(endpoint, path, path, fault, result);
+        }
+    }
+
+    public CampaignCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public static String key(Class<?> testClass, String testName, String responseBody, String faultPlan) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, testClass.getName());
+            digest.update(TestReflectionHelper.readClassBytes(testClass));
+            update(digest, testName);
+            update(digest, responseBody != null ? responseBody : "");
+            update(digest, faultPlan);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    /**
+     * @return the cached results for the key, or null on a miss or an unreadable entry
+     */
+    public List<CachedResult> load(String key) {
+        Path entry = directory.resolve(key + ".json");
+        if (!Files.isRegularFile(entry)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(entry.toFile(), RESULTS_TYPE);
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable cache entry " + entry + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void store(String key, List<CachedResult> results) {
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, key, ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), results);
+            Path entry = directory.resolve(key + ".json");
+            try {
+                Files.move(tempFile, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to store cache entry " + key + ": " + e.getMessage());
+        }
+    }
+}
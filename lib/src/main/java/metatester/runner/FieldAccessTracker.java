@@ -0,0 +1,140 @@
+package metatester.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which parts of the captured response a test read during its original run.
+ * Reads arrive as RestAssured GPath expressions ({@code user.address.city}, {@code items[0].id});
+ * any read the tracker cannot resolve to a field, and any read of the raw body, marks the
+ * whole body as read so no variant is skipped on a guess.
+ */
+public class FieldAccessTracker {
+    private final Set<List<String>> readPaths = ConcurrentHashMap.newKeySet();
+    private volatile boolean wholeBodyRead;
+
+    public void reset() {
+        readPaths.clear();
+        wholeBodyRead = false;
+    }
+
+    public void recordWholeBody() {
+        wholeBodyRead = true;
+    }
+
+    public boolean isWholeBodyRead() {
+        return wholeBodyRead;
+    }
+
+    /**
+     * Records a GPath read. Segments after the first expression that is not a plain
+     * property name or index (method calls, filters, quoted keys) are dropped, which
+     * widens the read to the enclosing field.
+     */
+    public void recordPath(String gpath) {
+        List<String> tokens = new ArrayList<>();
+        if (gpath != null) {
+            for (String segment : gpath.trim().split("\\.", -1)) {
+                if (!addSegment(segment, tokens)) {
+                    break;
+                }
+            }
+        }
+        if (tokens.isEmpty()) {
+            recordWholeBody();
+        } else {
+            readPaths.add(tokens);
+        }
+    }
+
+    private static boolean addSegment(String segment, List<String> tokens) {
+        int bracket = segment.indexOf('[');
+        String name = bracket < 0 ? segment : segment.substring(0, bracket);
+        if (!isPlainName(name) || (name.isEmpty() && bracket < 0)) {
+            return false;
+        }
+        if (!name.isEmpty()) {
+            tokens.add(name);
+        }
+        while (bracket >= 0) {
+            int close = segment.indexOf(']', bracket);
+            if (close < 0) {
+                return false;
+            }
+            String index = segment.substring(bracket + 1, close);
+            if (index.isEmpty() || !index.chars().allMatch(Character::isDigit)) {
+                return false;
+            }
+            tokens.add(index);
+            bracket = segment.indexOf('[', close);
+            if (bracket < 0 && close != segment.length() - 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPlainName(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A field is untouched when no recorded read is the field itself, one of its ancestors
+     * or one of its descendants. Array indices in the pointer that a read does not name
+     * are skipped, because GPath spreads a property over every element of a list.
+     *
+     * @param pointer the JSON Pointer of the faulted field
+     */
+    public boolean isUntouched(String pointer) {
+        if (wholeBodyRead) {
+            return false;
+        }
+        List<String> pointerTokens = toTokens(pointer);
+        for (List<String> readPath : readPaths) {
+            if (relates(pointerTokens, readPath)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean relates(List<String> pointerTokens, List<String> readPath) {
+        int p = 0;
+        int r = 0;
+        while (p < pointerTokens.size() && r < readPath.size()) {
+            String pointerToken = pointerTokens.get(p);
+            if (pointerToken.equals(readPath.get(r))) {
+                p++;
+                r++;
+            } else if (isIndex(pointerToken) && !isIndex(readPath.get(r))) {
+                p++;
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIndex(String token) {
+        return !token.isEmpty() && token.chars().allMatch(Character::isDigit);
+    }
+
+    private static List<String> toTokens(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer == null || pointer.isEmpty()) {
+            return tokens;
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,111 @@
+package metatester.runner;
+
+import metatester.injection.FaultVariant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adaptive group testing over field variants. A group is rerun with all of its variants
+ * applied at once; when the test passes, every variant in it is taken as undetected, and when
+ * it fails the group is halved until each failing variant is rerun on its own. When a failing
+ * group's left half passes, its right half is taken as failing and halved without a rerun of
+ * its own. Every detection is thus confirmed by a rerun of the single variant, while a group of
+ * undetected variants costs one rerun.
+ * <p>
+ * This assumes a fault that the test misses is also missed when other faults are applied next
+ * to it, which holds unless one fault masks another.
+ */
+public class GroupTester {
+
+    /**
+     * Reruns the test with every variant of the group applied.
+     */
+    @FunctionalInterface
+    public interface Rerun {
+        /**
+         * @return the failure of the test, or null when it passed
+         */
+        Throwable apply(List<FaultVariant> group);
+    }
+
+    /**
+     * Result of one variant; {@code inferred} when it was not rerun on its own.
+     */
+    public record Outcome(FaultVariant variant, Throwable failure, boolean inferred) {
+        public boolean isDetected() {
+            return failure != null;
+        }
+    }
+
+    private final Rerun rerun;
+    private int reruns;
+
+    public GroupTester(Rerun rerun) {
+        this.rerun = rerun;
+    }
+
+    /**
+     * Outcomes of all variants of the group, in group order.
+     */
+    public List<Outcome> test(List<FaultVariant> group) {
+        List<Outcome> outcomes = new ArrayList<>(group.size());
+        if (!group.isEmpty()) {
+            check(group, outcomes);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Number of reruns so far, for single variants and groups alike.
+     */
+    public int getReruns() {
+        return reruns;
+    }
+
+    private Throwable run(List<FaultVariant> group) {
+        reruns++;
+        return rerun.apply(group);
+    }
+
+    private void check(List<FaultVariant> group, List<Outcome> outcomes) {
+        Throwable failure = run(group);
+        if (failure == null) {
+            passed(group, outcomes);
+        } else {
+            bisect(group, failure, outcomes);
+        }
+    }
+
+    /**
+     * Resolves a group that failed; {@code failure} is null when the failure was deduced
+     * rather than observed.
+     */
+    private void bisect(List<FaultVariant> group, Throwable failure, List<Outcome> outcomes) {
+        if (group.size() == 1) {
+            if (failure != null) {
+                outcomes.add(new Outcome(group.get(0), failure, false));
+            } else {
+                check(group, outcomes);
+            }
+            return;
+        }
+        List<FaultVariant> left = group.subList(0, group.size() / 2);
+        List<FaultVariant> right = group.subList(group.size() / 2, group.size());
+        Throwable leftFailure = run(left);
+        if (leftFailure == null) {
+            passed(left, outcomes);
+            bisect(right, null, outcomes);
+        } else {
+            bisect(left, leftFailure, outcomes);
+            check(right, outcomes);
+        }
+    }
+
+    private static void passed(List<FaultVariant> group, List<Outcome> outcomes) {
+        boolean inferred = group.size() > 1;
+        for (FaultVariant variant : group) {
+            outcomes.add(new Outcome(variant, null, inferred));
+        }
+    }
+}
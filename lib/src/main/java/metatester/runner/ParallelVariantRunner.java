@@ -0,0 +1,60 @@
+package metatester.runner;
+
+import metatester.injection.FaultVariant;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Runs the variants of a plan on a bounded pool and hands their results back in plan order,
+ * whatever order they complete in. At most {@code window} variants are in flight, so the plan
+ * is consumed lazily and results are recorded on the calling thread while later variants run.
+ */
+public class ParallelVariantRunner {
+    private final ExecutorService pool;
+    private final int window;
+
+    public ParallelVariantRunner(ExecutorService pool, int window) {
+        this.pool = pool;
+        this.window = window;
+    }
+
+    /**
+     * @param inline result of a variant computed on the calling thread, or null to run it
+     *               on the pool
+     * @param pooled result of a variant, computed on a pool thread
+     * @param record receives each variant with its result, in plan order, on the calling thread
+     */
+    public <R> void run(Iterable<FaultVariant> plan, Function<FaultVariant, R> inline, Function<FaultVariant, R> pooled,
+                        BiConsumer<FaultVariant, R> record) throws Throwable {
+        Deque<FaultVariant> pendingVariants = new ArrayDeque<>(window);
+        Deque<Future<R>> pendingTasks = new ArrayDeque<>(window);
+        for (FaultVariant variant : plan) {
+            if (pendingTasks.size() == window) {
+                record.accept(pendingVariants.poll(), await(pendingTasks.poll()));
+            }
+            pendingVariants.add(variant);
+            R result = inline.apply(variant);
+            pendingTasks.add(result != null
+                    ? CompletableFuture.completedFuture(result)
+                    : pool.submit(() -> pooled.apply(variant)));
+        }
+        while (!pendingTasks.isEmpty()) {
+            record.accept(pendingVariants.poll(), await(pendingTasks.poll()));
+        }
+    }
+
+    private static <T> T await(Future<T> task) throws Throwable {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,120 +1,530 @@
 package metatester.runner;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import metatester.config.FaultCollection;
 import metatester.config.SimulatorConfig;
-import metatester.http.HTTPFactory;
+import metatester.http.ApacheHTTPResponse;
+import metatester.http.BodyPatch;
 import metatester.http.Request;
 import metatester.http.Response;
+import metatester.http.SimulatedResponse;
+import metatester.injection.ArraySampler;
+import metatester.injection.FaultInjector;
+import metatester.injection.FaultPlan;
+import metatester.injection.FaultVariant;
+import metatester.metrics.MetricsRegistry;
+import metatester.metrics.Phase;
+import metatester.metrics.PhaseTimer;
 import metatester.report.FaultSimulationReport;
+import metatester.report.MutationScoreEstimator;
 import metatester.report.TestLevelSimulationResults;
 import org.aspectj.lang.ProceedingJoinPoint;
 
-import java.net.URI;
-import java.util.HashMap;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 public class Runner {
-   private boolean firstRun = true;
-   private String interceptedUrl;
    private static final Runner INSTANCE = new Runner();
 
    private final FaultSimulationReport report = FaultSimulationReport.getInstance();
-   private Response originalResponse;
-   private Response simulatedResponse;
-   private Request originalRequest;
    private final List<FaultCollection> faults = SimulatorConfig.getEnabledFaults();
+   private final MutationScoreEstimator scoreEstimator = SimulatorConfig.isSamplingEnabled()
+           ? new MutationScoreEstimator(SimulatorConfig.getSamplingConfidence(), SimulatorConfig.getSamplingMarginOfError())
+           : null;
+   private final Random samplingRandom = new Random(SimulatorConfig.getSamplingSeed());
+   private final CampaignCache campaignCache = SimulatorConfig.isCacheEnabled()
+           ? new CampaignCache(Paths.get(SimulatorConfig.getCachePath()))
+           : null;
+   private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+   private static ForkJoinPool variantPool;
 
     public static Runner getInstance(){
         return INSTANCE;
     }
 
+    /**
+     * State of the test running on the calling thread; the accessors below read and write it.
+     */
+    public TestContext getContext() {
+        return TestContext.current();
+    }
+
     public boolean isFirstRun() {
-        return firstRun;
+        return getContext().isFirstRun();
     }
 
     public void setFirstRun(boolean firstRun) {
-        this.firstRun = firstRun;
+        getContext().setFirstRun(firstRun);
+    }
+
+    /**
+     * Whether the response of the current test was too large to capture and streamed to the
+     * client unread; such a test gets no fault reruns.
+     */
+    public boolean isResponseStreamed() {
+        return getContext().isResponseStreamed();
+    }
+
+    public void setResponseStreamed(boolean responseStreamed) {
+        getContext().setResponseStreamed(responseStreamed);
     }
 
     public Response getOriginalResponse() {
-        return originalResponse;
+        return getContext().getOriginalResponse();
     }
 
     public void setOriginalResponse(Object originalResponse) {
-        Response response = HTTPFactory.createResponseFrom(originalResponse);
-        this.interceptedUrl = response.getUrl();
-        this.originalResponse = response;
-        this.simulatedResponse = response;
+        getContext().setOriginalResponse(originalResponse);
     }
 
     public Request getOriginalRequest() {
-        return originalRequest;
+        return getContext().getOriginalRequest();
     }
 
-    public Response getSimulatedResponse(){return simulatedResponse;};
+    public Response getSimulatedResponse(){
+        return getContext().getSimulatedResponse();
+    }
 
     public void setOriginalRequest(Object originalRequest) {
-        Request request = HTTPFactory.createRequestFrom(originalRequest);
-        this.originalRequest = request;
+        getContext().setOriginalRequest(originalRequest);
     }
 
     public String getInterceptedUrl() {
-        return interceptedUrl;
+        return getContext().getInterceptedUrl();
+    }
+
+    /**
+     * Path of the intercepted URL, the key endpoints are reported and excluded by.
+     */
+    public String getInterceptedEndpoint() {
+        return getContext().getInterceptedEndpoint();
     }
 
-    private  void setFieldFault(String field, FaultCollection fault){
+    public FieldAccessTracker getFieldAccessTracker() {
+        return getContext().getFieldAccessTracker();
+    }
+
+    private Response setFieldFault(String path, FaultCollection fault){
+        Response originalResponse = getOriginalResponse();
         if (originalResponse == null) {
             throw new IllegalStateException("Cannot create simulated fault because originalResponse is null.");
         }
-
-        Map<String, Object> currentResponse = new HashMap<>(originalResponse.getResponseAsMap());
-        switch (fault) {
-            case null_field -> currentResponse.put(field, null);
-            case missing_field -> currentResponse.remove(field);
-            default -> currentResponse = currentResponse;
+        ApacheHTTPResponse spilledResponse = getSpilledResponse();
+        if (!fault.isFieldFault()) {
+            // the body stays as captured; the interceptors apply the fault to the call itself
+            System.out.println("Simulated fault applied to the whole response: " + fault);
+            return spilledResponse != null
+                    ? new SimulatedResponse(originalResponse, BodyPatch.NONE, fault)
+                    : new SimulatedResponse(originalResponse, originalResponse.getBody(), fault);
+        }
+        if (spilledResponse != null) {
+            BodyPatch patch;
+            try (PhaseTimer ignored = metrics.start(Phase.MUTATION, null, null)) {
+                patch = FaultInjector.patch(spilledResponse.getFieldIndex(), path, fault);
+            }
+            System.out.println("Simulated fault patch created: " + patch);
+            return new SimulatedResponse(originalResponse, patch, fault);
         }
-        ObjectMapper objectMapper = new ObjectMapper();
 
-        try {
-            String responseAsString = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(currentResponse);
-            System.out.println("Simulated fault response created: " + responseAsString);
-            simulatedResponse.setBody(responseAsString);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+        String responseAsString;
+        try (PhaseTimer ignored = metrics.start(Phase.MUTATION, null, null)) {
+            responseAsString = FaultInjector.inject(originalResponse.getResponseAsTree(), path, fault);
         }
+        System.out.println("Simulated fault response created: " + responseAsString);
+        return new SimulatedResponse(originalResponse, responseAsString, originalResponse.encode(responseAsString), fault);
+    }
+
+    /**
+     * The response a rerun of the variant is served, or null when the variant is inferred
+     * without a rerun. May run on the pipeline thread.
+     */
+    private Response prepareVariant(FaultVariant variant) {
+        return isUnread(variant) ? null : setFieldFault(variant.path(), variant.fault());
     }
 
     public void executeTestWithSimulatedFaults(ProceedingJoinPoint joinPoint) throws Throwable {
         System.out.println("Executing test reruns with simulated fault responses...");
-        String interceptedUrl = originalRequest.getUrl();
-        for(String field: originalResponse.getResponseAsMap().keySet()){
-            for(FaultCollection fault: faults){
-                TestLevelSimulationResults testLevelSimulationResults = new TestLevelSimulationResults();
-                testLevelSimulationResults.setTest(joinPoint.getSignature().getName());
-                setFieldFault(field,fault);
-                System.out.println("Executing test with simulated fault: %s for field %s fault, field");
+        String endpoint = getInterceptedEndpoint();
+        String testName = joinPoint.getSignature().getName();
+        String testId = joinPoint.getSignature().getDeclaringTypeName() + "#" + testName;
+        TestContext context = getContext();
+
+        String cacheKey = null;
+        if (campaignCache != null) {
+            ApacheHTTPResponse spilledResponse = getSpilledResponse();
+            cacheKey = CampaignCache.key(joinPoint.getSignature().getDeclaringType(), testName,
+                    spilledResponse != null
+                            ? spilledResponse.getSnapshot().getSpilledBody().digest()
+                            : context.getOriginalResponse().getBody(),
+                    describeFaultPlan());
+            List<CampaignCache.CachedResult> cachedResults = campaignCache.load(cacheKey);
+            if (cachedResults != null) {
+                System.out.println("Fault simulation results restored from cache, reruns skipped.");
+                metrics.increment(MetricsRegistry.VARIANTS_RESTORED_FROM_CACHE, cachedResults.size());
+                if (scoreEstimator != null) {
+                    // keep the sampling weights of this test although no variant is drawn
+                    for (FaultVariant variant : createFaultPlan()) {
+                        scoreEstimator.addPopulation(endpoint, variant.fault().name(), 1);
+                    }
+                }
+                for (CampaignCache.CachedResult cached : cachedResults) {
+                    recordResult(cached.endpoint(), new FaultVariant(cached.path(), cached.fault(), cached.reportedPath()),
+                            cached.result());
+                }
+                recordSampledResults();
+                putMutationScoreSummary();
+                return;
+            }
+            context.setResultsToCache(new ArrayList<>());
+        }
+
+        Iterable<FaultVariant> plan = createFaultPlan();
+        if (scoreEstimator != null) {
+            plan = new SampledFaultPlan(plan, endpoint, scoreEstimator, samplingRandom,
+                    SimulatorConfig.getSamplingMinVariantsPerTest());
+        }
+
+        if (SimulatorConfig.isGroupTestingEnabled() && getSpilledResponse() == null) {
+            executeWithGroupTesting(joinPoint, testName, testId, endpoint, plan);
+        } else if (SimulatorConfig.isParallelExecutionEnabled()) {
+            executeInParallel(joinPoint, testName, testId, endpoint, plan);
+        } else {
+            // sampled plans pick the next variant from the results so far, so they cannot run ahead
+            int pipelineDepth = SimulatorConfig.isPipelineEnabled() && scoreEstimator == null
+                    ? SimulatorConfig.getPipelineDepth() : 0;
+            // the producer thread prepares variants from the captures of this test
+            Function<FaultVariant, Response> prepare = variant -> {
+                TestContext previous = TestContext.bind(context);
                 try {
-                    joinPoint.proceed();
-                    testLevelSimulationResults.setCaught(false);
-                    System.err.println("[FAULT NOT DETECTED] Test passed for simulated fault "+ fault + " for field " + field);
-                } catch (Throwable t) {
-                    testLevelSimulationResults.setCaught(true);
-                    testLevelSimulationResults.setError(t.getMessage());
-                    System.out.println("[FAULT DETECTED] Test failed for simulated fault " + fault + " for field " + field);
-                    System.out.println("[FAIL ERROR]: " + t.getMessage());
+                    return prepareVariant(variant);
+                } finally {
+                    TestContext.restore(previous);
+                }
+            };
+            try (VariantPipeline pipeline = new VariantPipeline(plan, prepare, pipelineDepth)) {
+                while (pipeline.hasNext()) {
+                    VariantPipeline.Prepared prepared = pipeline.next();
+                    FaultVariant variant = prepared.variant();
+                    metrics.increment(MetricsRegistry.VARIANTS_GENERATED, 1);
+                    if (prepared.response() == null) {
+                        recordResult(endpoint, variant, inferUndetected(testName, variant));
+                        continue;
+                    }
+                    context.setSimulatedResponse(prepared.response());
+                    recordResult(endpoint, variant, executeVariant(joinPoint, testName, testId, endpoint, variant));
                 }
-                report.setEndpoint(URI.create(interceptedUrl).getPath())
-                        .setTestResult(testLevelSimulationResults)
-                        .setField(field)
-                        .setFaultType(fault.name())
-                        .apply();
             }
         }
+        recordSampledResults();
+        if (cacheKey != null) {
+            campaignCache.store(cacheKey, context.getResultsToCache());
+            context.setResultsToCache(null);
+        }
+        putMutationScoreSummary();
         System.out.println("All test executions (original + simulated faults) are completed.");
     }
 
+    /**
+     * Runs the variants on a bounded pool, see {@link ParallelVariantRunner}. The reruns share
+     * the test instance, which is why parallel execution is opt-in and meant for stateless tests. Each worker binds
+     * a variant context of the test, holding its own simulated response, to its thread. At most
+     * two variants per worker are in flight.
+     */
+    private void executeInParallel(ProceedingJoinPoint joinPoint, String testName, String testId, String endpoint,
+                                   Iterable<FaultVariant> plan) throws Throwable {
+        TestContext context = getContext();
+        ForkJoinPool pool = getVariantPool();
+        new ParallelVariantRunner(pool, pool.getParallelism() * 2).run(plan,
+                variant -> {
+                    metrics.increment(MetricsRegistry.VARIANTS_GENERATED, 1);
+                    return isUnread(variant) ? inferUndetected(testName, variant) : null;
+                },
+                variant -> {
+                    TestContext variantContext = context.forVariant();
+                    TestContext previous = TestContext.bind(variantContext);
+                    try {
+                        variantContext.setSimulatedResponse(setFieldFault(variant.path(), variant.fault()));
+                        return executeVariant(joinPoint, testName, testId, endpoint, variant);
+                    } finally {
+                        TestContext.restore(previous);
+                    }
+                },
+                (variant, result) -> recordResult(endpoint, variant, result));
+    }
+
+    /**
+     * Reruns the field variants of each fault in groups, see {@link GroupTester}. Variants
+     * are grouped in plan order; a variant joins the first open group that holds no field it
+     * is nested in or that is nested in it, and groups close at the configured size. Variants
+     * on the response as a whole run on their own. Results are reported in plan order.
+     */
+    private void executeWithGroupTesting(ProceedingJoinPoint joinPoint, String testName, String testId,
+                                         String endpoint, Iterable<FaultVariant> plan) {
+        TestContext context = getContext();
+        int maxGroupSize = SimulatorConfig.getGroupTestingMaxGroupSize();
+        List<FaultVariant> variants = new ArrayList<>();
+        List<TestLevelSimulationResults> results = new ArrayList<>();
+        List<List<Integer>> groups = new ArrayList<>();
+        Map<FaultCollection, List<List<Integer>>> openGroups = new EnumMap<>(FaultCollection.class);
+        for (FaultVariant variant : plan) {
+            metrics.increment(MetricsRegistry.VARIANTS_GENERATED, 1);
+            int position = variants.size();
+            variants.add(variant);
+            results.add(null);
+            if (isUnread(variant)) {
+                results.set(position, inferUndetected(testName, variant));
+            } else if (!variant.fault().isFieldFault()) {
+                context.setSimulatedResponse(setFieldFault(variant.path(), variant.fault()));
+                results.set(position, executeVariant(joinPoint, testName, testId, endpoint, variant));
+            } else {
+                List<List<Integer>> open = openGroups.computeIfAbsent(variant.fault(), fault -> new ArrayList<>());
+                List<Integer> group = open.stream()
+                        .filter(candidate -> candidate.stream().noneMatch(i -> isNested(variants.get(i).path(), variant.path())))
+                        .findFirst()
+                        .orElse(null);
+                if (group == null) {
+                    group = new ArrayList<>();
+                    open.add(group);
+                    groups.add(group);
+                }
+                group.add(position);
+                if (group.size() == maxGroupSize) {
+                    open.remove(group);
+                }
+            }
+        }
+
+        for (List<Integer> group : groups) {
+            List<FaultVariant> members = group.stream().map(variants::get).toList();
+            GroupTester tester = new GroupTester(rerunGroup -> {
+                if (rerunGroup.size() == 1) {
+                    metrics.increment(MetricsRegistry.VARIANTS_RERUN, 1);
+                    FaultVariant variant = rerunGroup.get(0);
+                    context.setSimulatedResponse(setFieldFault(variant.path(), variant.fault()));
+                    System.out.println("Executing test with simulated fault: " + variant.fault() + " for field " + variant.path());
+                } else {
+                    metrics.increment(MetricsRegistry.GROUP_RERUNS, 1);
+                    context.setSimulatedResponse(setGroupFault(rerunGroup));
+                    System.out.println("Executing test with simulated fault: " + rerunGroup.get(0).fault()
+                            + " for " + rerunGroup.size() + " fields at once");
+                }
+                return rerun(joinPoint, testId, endpoint);
+            });
+            List<GroupTester.Outcome> outcomes = tester.test(members);
+            for (int i = 0; i < outcomes.size(); i++) {
+                GroupTester.Outcome outcome = outcomes.get(i);
+                if (outcome.inferred()) {
+                    metrics.increment(MetricsRegistry.VARIANTS_INFERRED_FROM_GROUP, 1);
+                }
+                results.set(group.get(i), toResult(testName, outcome.variant(), outcome.failure(), outcome.inferred()));
+            }
+            System.out.println("Group of " + members.size() + " variants resolved with " + tester.getReruns() + " reruns.");
+        }
+
+        for (int i = 0; i < variants.size(); i++) {
+            recordResult(endpoint, variants.get(i), results.get(i));
+        }
+    }
+
+    /**
+     * Whether one pointer addresses the other or a field within it.
+     */
+    private static boolean isNested(String path, String other) {
+        return path.equals(other) || other.startsWith(path + "/") || path.startsWith(other + "/");
+    }
+
+    private Response setGroupFault(List<FaultVariant> group) {
+        FaultCollection fault = group.get(0).fault();
+        Response originalResponse = getOriginalResponse();
+        String responseAsString;
+        try (PhaseTimer ignored = metrics.start(Phase.MUTATION, null, null)) {
+            responseAsString = FaultInjector.inject(originalResponse.getResponseAsTree(),
+                    group.stream().map(FaultVariant::path).toList(), fault);
+        }
+        System.out.println("Simulated group fault response created: " + responseAsString);
+        return new SimulatedResponse(originalResponse, responseAsString, originalResponse.encode(responseAsString), fault);
+    }
+
+    private TestLevelSimulationResults executeVariant(ProceedingJoinPoint joinPoint, String testName, String testId,
+                                                      String endpoint, FaultVariant variant) {
+        System.out.println("Executing test with simulated fault: " + variant.fault() + " for field " + variant.path());
+        metrics.increment(MetricsRegistry.VARIANTS_RERUN, 1);
+        return toResult(testName, variant, rerun(joinPoint, testId, endpoint), false);
+    }
+
+    /**
+     * Reruns the test against the current simulated response.
+     *
+     * @return the failure of the test, or null when it passed
+     */
+    private Throwable rerun(ProceedingJoinPoint joinPoint, String testId, String endpoint) {
+        try (PhaseTimer ignored = metrics.start(Phase.RERUN, testId, endpoint)) {
+            joinPoint.proceed();
+            return null;
+        } catch (Throwable t) {
+            return t;
+        }
+    }
+
+    private TestLevelSimulationResults toResult(String testName, FaultVariant variant, Throwable failure,
+                                                boolean inferred) {
+        TestLevelSimulationResults testLevelSimulationResults = new TestLevelSimulationResults();
+        testLevelSimulationResults.setTest(testName);
+        testLevelSimulationResults.setInferred(inferred);
+        if (failure == null) {
+            testLevelSimulationResults.setCaught(false);
+            System.err.println("[FAULT NOT DETECTED] " + (inferred ? "(inferred from group) " : "")
+                    + "Test passed for simulated fault "+ variant.fault() + " for field " + variant.path());
+        } else {
+            testLevelSimulationResults.setCaught(true);
+            testLevelSimulationResults.setError(failure.getMessage());
+            System.out.println("[FAULT DETECTED] Test failed for simulated fault " + variant.fault() + " for field " + variant.path());
+            System.out.println("[FAIL ERROR]: " + failure.getMessage());
+        }
+        return testLevelSimulationResults;
+    }
+
+    private FaultPlan createFaultPlan() {
+        ApacheHTTPResponse spilledResponse = getSpilledResponse();
+        if (spilledResponse != null) {
+            return new FaultPlan(spilledResponse.getFieldIndex(), faults);
+        }
+        return new FaultPlan(getOriginalResponse().getResponseAsTree(), faults,
+                SimulatorConfig.getFaultTargetMaxDepth(), SimulatorConfig.getFaultTargetMaxFanOut(), createArraySampler());
+    }
+
+    private static ArraySampler createArraySampler() {
+        return SimulatorConfig.isArraySamplingEnabled()
+                ? new ArraySampler(SimulatorConfig.getArraySamplingRandomElements(), SimulatorConfig.getArraySamplingSeed())
+                : null;
+    }
+
+    /**
+     * The original response when its body was spilled, which is faulted through patches
+     * instead of a tree; else null.
+     */
+    private ApacheHTTPResponse getSpilledResponse() {
+        return getOriginalResponse() instanceof ApacheHTTPResponse apacheResponse && apacheResponse.isSpilled()
+                ? apacheResponse : null;
+    }
+
+    /**
+     * Everything besides the test and its response that decides which variants run and how.
+     */
+    private String describeFaultPlan() {
+        return faults + ";depth=" + SimulatorConfig.getFaultTargetMaxDepth()
+                + ";fanOut=" + SimulatorConfig.getFaultTargetMaxFanOut()
+                + ";arraySampling=" + (SimulatorConfig.isArraySamplingEnabled() ? createArraySampler() : "off")
+                + ";skipUnread=" + SimulatorConfig.isSkipUnreadFieldsEnabled()
+                + ";sampling=" + (scoreEstimator != null
+                ? SimulatorConfig.getSamplingSeed() + "/" + SimulatorConfig.getSamplingMinVariantsPerTest()
+                : "off")
+                + ";groupTesting=" + (SimulatorConfig.isGroupTestingEnabled()
+                ? SimulatorConfig.getGroupTestingMaxGroupSize()
+                : "off");
+    }
+
+    private boolean isUnread(FaultVariant variant) {
+        return SimulatorConfig.isSkipUnreadFieldsEnabled() && variant.fault().isFieldFault()
+                && getFieldAccessTracker().isUntouched(variant.path());
+    }
+
+    /**
+     * Result for a variant whose field the test never read: the fault cannot change the
+     * outcome of the test, so it is reported as undetected without a rerun.
+     */
+    private TestLevelSimulationResults inferUndetected(String testName, FaultVariant variant) {
+        metrics.increment(MetricsRegistry.VARIANTS_SKIPPED_UNREAD, 1);
+        TestLevelSimulationResults testLevelSimulationResults = new TestLevelSimulationResults();
+        testLevelSimulationResults.setTest(testName);
+        testLevelSimulationResults.setCaught(false);
+        testLevelSimulationResults.setInferred(true);
+        System.err.println("[FAULT NOT DETECTED] (inferred) Test never read field " + variant.path()
+                + ", skipped rerun for simulated fault " + variant.fault());
+        return testLevelSimulationResults;
+    }
+
+    private void recordResult(String endpoint, FaultVariant variant, TestLevelSimulationResults result) {
+        if (scoreEstimator != null) {
+            scoreEstimator.record(endpoint, variant.fault().name(), result.isCaught());
+        }
+        List<CampaignCache.CachedResult> resultsToCache = getContext().getResultsToCache();
+        if (resultsToCache != null) {
+            resultsToCache.add(new CampaignCache.CachedResult(endpoint, variant.path(), variant.reportedPath(),
+                    variant.fault(), result));
+        }
+        if (!variant.path().equals(variant.reportedPath())) {
+            // an element sampled from an array, reported once for all of them by recordSampledResults
+            getContext().getSampledResults()
+                    .computeIfAbsent(SampledResult.keyOf(endpoint, variant), key -> new SampledResult(endpoint, variant))
+                    .add(variant, result);
+            return;
+        }
+        applyToReport(endpoint, variant, result);
+    }
+
+    /**
+     * Reports the combined results of the sampled array elements of the current test.
+     */
+    private void recordSampledResults() {
+        Map<String, SampledResult> sampledResults = getContext().getSampledResults();
+        for (SampledResult sampled : sampledResults.values()) {
+            applyToReport(sampled.getEndpoint(), sampled.getReported(), sampled.toResult());
+        }
+        sampledResults.clear();
+    }
+
+    private void applyToReport(String endpoint, FaultVariant variant, TestLevelSimulationResults result) {
+        // tests run in parallel by JUnit share the report, which is filled in one call chain
+        try (PhaseTimer ignored = metrics.start(Phase.REPORT_APPLY, null, endpoint)) {
+            synchronized (report) {
+                report.setEndpoint(endpoint)
+                        .setTestResult(result)
+                        .setField(variant.reportedField())
+                        .setFaultType(variant.fault().name())
+                        .apply();
+            }
+        }
+    }
+
+    /**
+     * Refreshes the mutation score estimate in the report. Tests run in parallel by JUnit finish
+     * at the same time, so the estimate is taken and stored under the report lock, and a later
+     * estimate is never overwritten by an earlier one.
+     */
+    private void putMutationScoreSummary() {
+        if (scoreEstimator == null) {
+            return;
+        }
+        synchronized (report) {
+            report.putSummary("mutationScore", scoreEstimator.toSummary());
+        }
+    }
+
+    private static synchronized ForkJoinPool getVariantPool() {
+        if (variantPool == null) {
+            System.err.println("Warning: parallel reruns are enabled. Variants of a test run at the same time on the same"
+                    + " test instance, so tests must be stateless: instance fields, @BeforeEach state and static"
+                    + " client configuration are shared between reruns and can make results wrong.");
+            variantPool = new ForkJoinPool(SimulatorConfig.getParallelConcurrency());
+        }
+        return variantPool;
+    }
+
+    /**
+     * Stops the workers of parallel variant execution once the test plan has finished.
+     */
+    public static synchronized void shutdownVariantPool() {
+        if (variantPool != null) {
+            variantPool.shutdown();
+            variantPool = null;
+        }
+    }
+
 }
@@ -0,0 +1,76 @@
+package metatester.runner;
+
+import metatester.config.FaultCollection;
+import metatester.injection.FaultVariant;
+import metatester.report.MutationScoreEstimator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Draws the variants of one test at random, stratified by fault type, until the campaign-wide
+ * mutation score estimate is precise enough. Every test still runs at least
+ * {@code minVariants} variants so that no endpoint goes completely unsampled.
+ */
+public class SampledFaultPlan implements Iterable<FaultVariant> {
+    private final List<List<FaultVariant>> strata = new ArrayList<>();
+    private final MutationScoreEstimator estimator;
+    private final int minVariants;
+
+    public SampledFaultPlan(Iterable<FaultVariant> plan, String endpoint, MutationScoreEstimator estimator,
+                            Random random, int minVariants) {
+        Map<FaultCollection, List<FaultVariant>> byFault = new EnumMap<>(FaultCollection.class);
+        for (FaultVariant variant : plan) {
+            byFault.computeIfAbsent(variant.fault(), k -> new ArrayList<>()).add(variant);
+        }
+        for (Map.Entry<FaultCollection, List<FaultVariant>> entry : byFault.entrySet()) {
+            estimator.addPopulation(endpoint, entry.getKey().name(), entry.getValue().size());
+            Collections.shuffle(entry.getValue(), random);
+            strata.add(entry.getValue());
+        }
+        Collections.shuffle(strata, random);
+        this.estimator = estimator;
+        this.minVariants = minVariants;
+    }
+
+    @Override
+    public Iterator<FaultVariant> iterator() {
+        return new Iterator<>() {
+            private final int[] drawn = new int[strata.size()];
+            private int nextStratum;
+            private int total;
+
+            @Override
+            public boolean hasNext() {
+                if (total >= minVariants && estimator.isPreciseEnough()) {
+                    return false;
+                }
+                for (int i = 0; i < strata.size(); i++) {
+                    int stratum = (nextStratum + i) % strata.size();
+                    if (drawn[stratum] < strata.get(stratum).size()) {
+                        nextStratum = stratum;
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public FaultVariant next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                FaultVariant variant = strata.get(nextStratum).get(drawn[nextStratum]++);
+                nextStratum = (nextStratum + 1) % strata.size();
+                total++;
+                return variant;
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package metatester.runner;
+
+import metatester.injection.FaultVariant;
+import metatester.report.TestLevelSimulationResults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of one fault on all sampled elements of an array within one test, reported as a single
+ * row under the sampled path: caught only if the test caught the fault on every element. The
+ * elements it missed are named in the error, as the row alone cannot tell them apart.
+ */
+public class SampledResult {
+    private final String endpoint;
+    private final FaultVariant reported;
+    private final List<String> missed = new ArrayList<>();
+    private String test;
+    private String error;
+    private boolean inferred = true;
+
+    public SampledResult(String endpoint, FaultVariant sample) {
+        this.endpoint = endpoint;
+        this.reported = new FaultVariant(sample.reportedPath(), sample.fault());
+    }
+
+    /**
+     * Key of the row a sample is reported in, the same for all elements of an array.
+     */
+    public static String keyOf(String endpoint, FaultVariant sample) {
+        return endpoint + " " + sample.reportedPath() + " " + sample.fault();
+    }
+
+    public void add(FaultVariant sample, TestLevelSimulationResults result) {
+        test = result.getTest();
+        inferred &= result.isInferred();
+        if (!result.isCaught()) {
+            missed.add(sample.path());
+        } else if (error == null) {
+            error = result.getError();
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * The variant the row is reported under, at the sampled path.
+     */
+    public FaultVariant getReported() {
+        return reported;
+    }
+
+    public TestLevelSimulationResults toResult() {
+        TestLevelSimulationResults result = new TestLevelSimulationResults();
+        result.setTest(test);
+        result.setInferred(inferred);
+        result.setCaught(missed.isEmpty());
+        result.setError(missed.isEmpty() ? error : "Fault not detected for sampled elements " + String.join(", ", missed));
+        return result;
+    }
+}
@@ -1,4 +1,345 @@
 package metatester.runner;
 
+import metatester.http.HTTPFactory;
+import metatester.http.Request;
+import metatester.http.Response;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * State of one test execution: whether the original run is in progress, what it captured, and
+ * the response its current rerun is served. Each test method gets its own context, bound to the
+ * test thread while the test and its reruns execute, so tests run in parallel by JUnit do not
+ * overwrite each other's captures.
+ * <p>
+ * The binding is inherited by threads the test starts, but pooled threads outlive the test
+ * that created them, so a context is closed when its test finishes and a closed context is
+ * never current. Work handed to a pool or a client's dispatcher carries the context it was
+ * submitted from, see {@link #wrap(Runnable)}; interceptors whose response arrives on such a
+ * thread take the context on the calling thread and hand it to their callbacks instead of
+ * looking it up there. Code running outside of any test, like calls made from lifecycle
+ * methods, shares one fallback context.
+ */
 public class TestContext {
+    private static final TestContext SHARED = new TestContext((String) null);
+    private static final InheritableThreadLocal<TestContext> CURRENT = new InheritableThreadLocal<>();
+
+    private final String testId;
+    private final FieldAccessTracker fieldAccessTracker;
+    private volatile boolean closed;
+    private volatile boolean firstRun = true;
+    private volatile boolean responseStreamed;
+    private volatile String skipReason;
+    private final AtomicInteger asyncCaptures = new AtomicInteger();
+    private volatile String interceptedUrl;
+    private volatile Response originalResponse;
+    private volatile Response simulatedResponse;
+    private volatile Request originalRequest;
+    private List<CampaignCache.CachedResult> resultsToCache;
+    private final Map<String, SampledResult> sampledResults = new LinkedHashMap<>();
+    private final Map<HttpURLConnection, InputStream> connectionStreams = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    public TestContext(String testId) {
+        this.testId = testId;
+        this.fieldAccessTracker = new FieldAccessTracker();
+    }
+
+    private TestContext(TestContext parent) {
+        this.testId = parent.testId;
+        this.fieldAccessTracker = parent.fieldAccessTracker;
+        this.firstRun = false;
+        this.responseStreamed = parent.responseStreamed;
+        this.interceptedUrl = parent.interceptedUrl;
+        this.originalResponse = parent.originalResponse;
+        this.originalRequest = parent.originalRequest;
+        this.simulatedResponse = parent.simulatedResponse;
+    }
+
+    /**
+     * The context bound to the calling thread, or the shared fallback when none is or the
+     * bound one is closed.
+     */
+    public static TestContext current() {
+        TestContext context = CURRENT.get();
+        return context != null && !context.closed ? context : SHARED;
+    }
+
+    /**
+     * Binds a context to the calling thread.
+     *
+     * @return the context bound before, to be passed to {@link #restore(TestContext)}
+     */
+    public static TestContext bind(TestContext context) {
+        TestContext previous = CURRENT.get();
+        CURRENT.set(context);
+        return previous;
+    }
+
+    public static void restore(TestContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Marks the test of this context finished. Threads it was bound to or inherited by, such as
+     * pooled threads the test created, no longer see it as current.
+     */
+    public void close() {
+        closed = true;
+        connectionStreams.clear();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * The task bound to this context while it runs, on whatever thread that is. The shared
+     * fallback leaves the task as it is.
+     */
+    public Runnable wrap(Runnable task) {
+        if (this == SHARED) {
+            return task;
+        }
+        return () -> {
+            TestContext previous = bind(this);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * As {@link #wrap(Runnable)}, for a task with a result.
+     */
+    public <T> Callable<T> wrap(Callable<T> task) {
+        if (this == SHARED) {
+            return task;
+        }
+        return () -> {
+            TestContext previous = bind(this);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * As {@link #wrap(Runnable)}, for an argument declared with the given type: runnables,
+     * callables and the functional types {@link java.util.concurrent.CompletableFuture} takes.
+     * Arguments of any other type are returned as they are.
+     */
+    @SuppressWarnings("unchecked")
+    public Object wrap(Class<?> type, Object task) {
+        if (task == null || this == SHARED) {
+            return task;
+        }
+        if (type == Runnable.class) {
+            return wrap((Runnable) task);
+        }
+        if (type == Callable.class) {
+            return wrap((Callable<Object>) task);
+        }
+        if (type == Supplier.class) {
+            Supplier<Object> supplier = (Supplier<Object>) task;
+            return (Supplier<Object>) () -> callBound(supplier);
+        }
+        if (type == Function.class) {
+            Function<Object, Object> function = (Function<Object, Object>) task;
+            return (Function<Object, Object>) value -> callBound(() -> function.apply(value));
+        }
+        if (type == Consumer.class) {
+            Consumer<Object> consumer = (Consumer<Object>) task;
+            return (Consumer<Object>) value -> callBound(() -> {
+                consumer.accept(value);
+                return null;
+            });
+        }
+        if (type == BiFunction.class) {
+            BiFunction<Object, Object, Object> function = (BiFunction<Object, Object, Object>) task;
+            return (BiFunction<Object, Object, Object>) (first, second) -> callBound(() -> function.apply(first, second));
+        }
+        if (type == BiConsumer.class) {
+            BiConsumer<Object, Object> consumer = (BiConsumer<Object, Object>) task;
+            return (BiConsumer<Object, Object>) (first, second) -> callBound(() -> {
+                consumer.accept(first, second);
+                return null;
+            });
+        }
+        return task;
+    }
+
+    /**
+     * As {@link #wrap(Callable)}, for each of the tasks.
+     */
+    public <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+        List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            wrapped.add(wrap(task));
+        }
+        return wrapped;
+    }
+
+    private <T> T callBound(Supplier<T> body) {
+        TestContext previous = bind(this);
+        try {
+            return body.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * A context for a rerun on another thread: it shares the captures of this one and holds
+     * its own simulated response, so reruns of several variants can run at once.
+     */
+    public TestContext forVariant() {
+        return new TestContext(this);
+    }
+
+    /**
+     * Class and method of the test, or null for the shared fallback.
+     */
+    public String getTestId() {
+        return testId;
+    }
+
+    public boolean isFirstRun() {
+        return firstRun;
+    }
+
+    public void setFirstRun(boolean firstRun) {
+        this.firstRun = firstRun;
+    }
+
+    public boolean isResponseStreamed() {
+        return responseStreamed;
+    }
+
+    public void setResponseStreamed(boolean responseStreamed) {
+        this.responseStreamed = responseStreamed;
+    }
+
+    /**
+     * Marks the captured response as unusable for fault simulation, for a reason other than
+     * its size. The first reason given is kept.
+     */
+    public synchronized void skipSimulation(String reason) {
+        if (skipReason == null) {
+            skipReason = reason;
+        }
+    }
+
+    /**
+     * Why fault simulation is skipped for this test, or null when it is not.
+     */
+    public String getSkipReason() {
+        return skipReason;
+    }
+
+    /**
+     * Counts a capture started by an asynchronous call of the first run.
+     *
+     * @return the number of such captures so far, including this one
+     */
+    public int countAsyncCapture() {
+        return asyncCaptures.incrementAndGet();
+    }
+
+    public Response getOriginalResponse() {
+        return originalResponse;
+    }
+
+    public void setOriginalResponse(Object originalResponse) {
+        Response response = HTTPFactory.createResponseFrom(originalResponse);
+        if (response.getUrl() != null) {
+            this.interceptedUrl = response.getUrl();
+        }
+        this.originalResponse = response;
+        this.simulatedResponse = response;
+    }
+
+    public Response getSimulatedResponse() {
+        return simulatedResponse;
+    }
+
+    public void setSimulatedResponse(Response simulatedResponse) {
+        this.simulatedResponse = simulatedResponse;
+    }
+
+    public Request getOriginalRequest() {
+        return originalRequest;
+    }
+
+    public void setOriginalRequest(Object originalRequest) {
+        Request request = HTTPFactory.createRequestFrom(originalRequest);
+        this.originalRequest = request;
+        this.interceptedUrl = request != null ? request.getUrl() : null;
+    }
+
+    public String getInterceptedUrl() {
+        return interceptedUrl;
+    }
+
+    /**
+     * Path of the intercepted URL, the key endpoints are reported and excluded by.
+     */
+    public String getInterceptedEndpoint() {
+        return interceptedUrl != null ? URI.create(interceptedUrl).getPath() : null;
+    }
+
+    public FieldAccessTracker getFieldAccessTracker() {
+        return fieldAccessTracker;
+    }
+
+    /**
+     * Streams handed out by HttpURLConnection.getInputStream in this test, by connection, so
+     * repeated calls return the same stream. Dropped when the test finishes.
+     */
+    public Map<HttpURLConnection, InputStream> getConnectionStreams() {
+        return connectionStreams;
+    }
+
+    /**
+     * Results of the current reruns to be stored in the campaign cache, or null when they
+     * are not cached.
+     */
+    List<CampaignCache.CachedResult> getResultsToCache() {
+        return resultsToCache;
+    }
+
+    void setResultsToCache(List<CampaignCache.CachedResult> resultsToCache) {
+        this.resultsToCache = resultsToCache;
+    }
+
+    /**
+     * Results of the current reruns on sampled array elements, combined by reported row until
+     * the reruns are over.
+     */
+    Map<String, SampledResult> getSampledResults() {
+        return sampledResults;
+    }
 }
@@ -1,4 +1,24 @@
 package metatester.runner;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 public class TestReflectionHelper {
+
+    /**
+     * Reads the class file of a test class as it exists on the classpath. Load-time weaving
+     * does not change the resource, so the bytes only change when the test code is recompiled.
+     *
+     * @param type the class to read
+     * @return the class file bytes, or an empty array when the class file is not available
+     */
+    public static byte[] readClassBytes(Class<?> type) {
+        String resource = type.getName().replace('.', '/') + ".class";
+        ClassLoader classLoader = type.getClassLoader() != null ? type.getClassLoader() : ClassLoader.getSystemClassLoader();
+        try (InputStream inputStream = classLoader.getResourceAsStream(resource)) {
+            return inputStream != null ? inputStream.readAllBytes() : new byte[0];
+        } catch (IOException e) {
+            return new byte[0];
+        }
+    }
 }
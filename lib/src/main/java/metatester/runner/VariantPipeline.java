@@ -0,0 +1,119 @@
+package metatester.runner;
+
+import metatester.http.Response;
+import metatester.injection.FaultVariant;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Prepares the simulated responses of a fault plan ahead of the reruns that serve them.
+ * With a depth above zero a background thread walks the plan and keeps up to {@code depth}
+ * prepared variants in a bounded queue, so mutation and encoding of the next bodies overlap
+ * with the rerun of the current one and the test thread only dequeues. With depth zero every
+ * variant is prepared on the caller's thread when it is reached.
+ * <p>
+ * The plan is walked ahead of the results, so plans that adapt to recorded results, like
+ * {@link SampledFaultPlan}, must use depth zero.
+ */
+public class VariantPipeline implements Iterator<VariantPipeline.Prepared>, AutoCloseable {
+
+    /**
+     * A variant and the response its rerun is served, or null when it needs no rerun.
+     */
+    public record Prepared(FaultVariant variant, Response response) {
+    }
+
+    private static final Object END = new Object();
+
+    private final Iterator<FaultVariant> plan;
+    private final Function<FaultVariant, Response> prepare;
+    private final BlockingQueue<Object> queue;
+    private final Thread producer;
+    private Object next;
+
+    public VariantPipeline(Iterable<FaultVariant> plan, Function<FaultVariant, Response> prepare, int depth) {
+        this.plan = plan.iterator();
+        this.prepare = prepare;
+        if (depth > 0) {
+            this.queue = new ArrayBlockingQueue<>(depth);
+            this.producer = new Thread(this::produce, "metatester-variant-pipeline");
+            this.producer.setDaemon(true);
+            this.producer.start();
+        } else {
+            this.queue = null;
+            this.producer = null;
+        }
+    }
+
+    private void produce() {
+        try {
+            try {
+                while (plan.hasNext()) {
+                    FaultVariant variant = plan.next();
+                    queue.put(new Prepared(variant, prepare.apply(variant)));
+                }
+                queue.put(END);
+            } catch (RuntimeException | Error e) {
+                // handed to the test thread, which rethrows it
+                queue.put(e);
+            }
+        } catch (InterruptedException e) {
+            // closed before the plan was exhausted
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = queue != null ? take() : prepareNext();
+        }
+        if (next instanceof RuntimeException e) {
+            throw e;
+        }
+        if (next instanceof Error e) {
+            throw e;
+        }
+        return next != END;
+    }
+
+    @Override
+    public Prepared next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Prepared prepared = (Prepared) next;
+        next = null;
+        return prepared;
+    }
+
+    private Object prepareNext() {
+        if (!plan.hasNext()) {
+            return END;
+        }
+        FaultVariant variant = plan.next();
+        return new Prepared(variant, prepare.apply(variant));
+    }
+
+    private Object take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next fault variant", e);
+        }
+    }
+
+    /**
+     * Stops the background thread when the reruns end before the plan does.
+     */
+    @Override
+    public void close() {
+        if (producer != null) {
+            producer.interrupt();
+        }
+    }
+}
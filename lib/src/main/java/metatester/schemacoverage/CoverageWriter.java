@@ -0,0 +1,72 @@
+package metatester.schemacoverage;
+
+import metatester.config.SimulatorConfig;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the schema coverage file in the background. Intercepted requests only mark
+ * the collected data as dirty; updates are coalesced and flushed when the batch size
+ * is reached, on a fixed interval and once more when the test plan finishes.
+ */
+public class CoverageWriter {
+    private static final String DEFAULT_COVERAGE_PATH = "schema_coverage.json";
+    private static final CoverageWriter INSTANCE = new CoverageWriter(DEFAULT_COVERAGE_PATH,
+            SimulatorConfig.getCoverageFlushIntervalMs(), SimulatorConfig.getCoverageFlushBatchSize());
+
+    private final String path;
+    private final int batchSize;
+    private final AtomicInteger pendingUpdates = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * A writer of the collected data to {@code path}; the campaign uses {@link #getInstance()}.
+     */
+    public CoverageWriter(String path, long flushIntervalMs, int batchSize) {
+        this.path = path;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metatester-coverage-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushIfDirty, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public static CoverageWriter getInstance() {
+        return INSTANCE;
+    }
+
+    public void markDirty() {
+        if (pendingUpdates.incrementAndGet() == batchSize) {
+            try {
+                scheduler.execute(this::flushIfDirty);
+            } catch (RejectedExecutionException e) {
+                // closing or closed: the update stays pending for the final flush in close()
+            }
+        }
+    }
+
+    private synchronized void flushIfDirty() {
+        if (pendingUpdates.getAndSet(0) > 0) {
+            FileUtils.saveToJsonFile(path);
+        }
+    }
+
+    /**
+     * Stops the background flushes and writes any pending updates.
+     */
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushIfDirty();
+    }
+}
@@ -2,14 +2,35 @@ package metatester.schemacoverage;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 public class FileUtils {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Serializes the collected data and replaces the target file atomically,
+     * so readers never observe a partially written file.
+     */
     public static void saveToJsonFile(String path) {
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            objectMapper.writeValue(new FileWriter(path), Collector.data);
+            byte[] content;
+            CollectorData collectorData = Collector.getData();
+            synchronized (collectorData) {
+                content = objectMapper.writeValueAsBytes(collectorData);
+            }
+            Path target = Paths.get(path).toAbsolutePath();
+            Path tempFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            Files.write(tempFile, content);
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -36,15 +36,6 @@ public class Logger {
                 }
             }
 
-            if (collectorData.getDateCollected() == null) {
-                collectorData.setDateCollected(String.valueOf(System.currentTimeMillis()));
-                collectorData.setHost(baseUriObj.getScheme() + "://" + baseUriObj.getHost());
-            }
-
-            Map<String, Map<String, EndpointCall>> paths = collectorData.getPaths();
-            Map<String, EndpointCall> methodsMap = paths.computeIfAbsent(endpoint, k -> new HashMap<>());
-
-
             Map<String, String> headers = new HashMap<>();
             if (httpRequestBase.getAllHeaders() != null) {
                 Arrays.stream(httpRequestBase.getAllHeaders()).forEach(header -> {
@@ -63,9 +54,19 @@ public class Logger {
             endpointCall.setBody(body);
             endpointCall.setUrlParameters(urlParams);
 
-            methodsMap.put(method, endpointCall);
+            // the coverage writer serializes the same data from its own thread
+            synchronized (collectorData) {
+                if (collectorData.getDateCollected() == null) {
+                    collectorData.setDateCollected(String.valueOf(System.currentTimeMillis()));
+                    collectorData.setHost(baseUriObj.getScheme() + "://" + baseUriObj.getHost());
+                }
+
+                Map<String, Map<String, EndpointCall>> paths = collectorData.getPaths();
+                Map<String, EndpointCall> methodsMap = paths.computeIfAbsent(endpoint, k -> new HashMap<>());
+                methodsMap.put(method, endpointCall);
+            }
 
-            FileUtils.saveToJsonFile("schema_coverage.json");
+            CoverageWriter.getInstance().markDirty();
 
         } catch (URISyntaxException e) {
             e.printStackTrace();
@@ -1,4 +1,48 @@
 package metatester.utils;
 
-public class JsonUtils {
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.Map;
+
+/**
+ * Shared JSON reader and writer. ObjectReader and ObjectWriter are immutable and
+ * thread-safe, so a single instance serves every captured response and variant.
+ */
+public final class JsonUtils {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader TREE_READER = MAPPER.reader();
+    private static final ObjectWriter COMPACT_WRITER = MAPPER.writer();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private JsonUtils() {
+    }
+
+    public static JsonNode readTree(String json) throws JsonProcessingException {
+        return TREE_READER.readTree(json);
+    }
+
+    public static String write(JsonNode node) {
+        try {
+            return COMPACT_WRITER.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize JSON tree", e);
+        }
+    }
+
+    public static byte[] writeBytes(JsonNode node) {
+        try {
+            return COMPACT_WRITER.writeValueAsBytes(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize JSON tree", e);
+        }
+    }
+
+    public static Map<String, Object> toMap(JsonNode node) {
+        return MAPPER.convertValue(node, MAP_TYPE);
+    }
 }
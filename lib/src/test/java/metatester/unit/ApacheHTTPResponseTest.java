@@ -0,0 +1,166 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import metatester.config.FaultCollection;
+import metatester.http.ApacheHTTPResponse;
+import metatester.http.ResponseSnapshot;
+import metatester.injection.FaultInjector;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApacheHTTPResponseTest {
+
+    private HttpResponse createResponse(String body) throws Exception {
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 201, "Created");
+        response.addHeader("Content-Type", "application/json");
+        response.addHeader("Content-Length", String.valueOf(body.length()));
+        response.addHeader("X-Request-Id", "abc");
+        response.setEntity(new StringEntity(body));
+        return response;
+    }
+
+    @Test
+    void constructor_capturesStatusHeadersAndBody() throws Exception {
+        // Arrange
+        String body = "{\"id\":1,\"name\":\"user\"}";
+
+        // Act
+        ApacheHTTPResponse response = new ApacheHTTPResponse(createResponse(body));
+
+        // Assert
+        assertEquals(201, response.getStatusCode());
+        assertEquals("application/json", response.getHeaders().get("Content-Type"));
+        assertEquals("abc", response.getHeaders().get("X-Request-Id"));
+        assertEquals(body, response.getBody());
+        assertEquals("user", response.getResponseAsMap().get("name"));
+    }
+
+    @Test
+    void toSimulatedHttpResponse_keepsStatusAndHeadersWithNewBody() throws Exception {
+        // Arrange
+        ApacheHTTPResponse response = new ApacheHTTPResponse(createResponse("{\"id\":1,\"name\":\"user\"}"));
+        String simulatedBody = "{\"id\":1}";
+
+        // Act
+        CloseableHttpResponse simulated = response.toSimulatedHttpResponse(simulatedBody);
+
+        // Assert
+        assertEquals(201, simulated.getStatusLine().getStatusCode());
+        assertEquals("Created", simulated.getStatusLine().getReasonPhrase());
+        assertEquals("abc", simulated.getFirstHeader("X-Request-Id").getValue());
+        assertNull(simulated.getFirstHeader("Content-Length"));
+        assertEquals(simulatedBody, EntityUtils.toString(simulated.getEntity()));
+    }
+
+    @Test
+    void toSimulatedHttpResponse_servesCapturedBodyWithSwappedStatus() throws Exception {
+        // Arrange
+        String body = "{\"id\":1,\"name\":\"user\"}";
+        ApacheHTTPResponse response = new ApacheHTTPResponse(createResponse(body));
+
+        // Act
+        CloseableHttpResponse simulated = response.toSimulatedHttpResponse(body, FaultCollection.server_error_status);
+
+        // Assert
+        assertEquals(500, simulated.getStatusLine().getStatusCode());
+        assertEquals("Internal Server Error", simulated.getStatusLine().getReasonPhrase());
+        assertEquals("application/json", simulated.getFirstHeader("Content-Type").getValue());
+        assertEquals(body, EntityUtils.toString(simulated.getEntity()));
+        assertEquals(201, response.getStatusCode());
+    }
+
+    @Test
+    void applyTo_dropsContentTypeFromLiveResponse() throws Exception {
+        // Arrange
+        String body = "{\"id\":1,\"name\":\"user\"}";
+        ApacheHTTPResponse captured = new ApacheHTTPResponse(createResponse(body));
+        HttpResponse live = createResponse(body);
+
+        // Act
+        captured.applyTo(live, "{\"id\":1}", FaultCollection.content_type_removed);
+
+        // Assert
+        assertEquals(201, live.getStatusLine().getStatusCode());
+        assertNull(live.getFirstHeader("Content-Type"));
+        assertNull(live.getEntity().getContentType());
+        assertEquals("abc", live.getFirstHeader("X-Request-Id").getValue());
+        assertEquals("{\"id\":1}", EntityUtils.toString(live.getEntity()));
+    }
+
+    @Test
+    void constructor_spillsBodyAboveThresholdAndServesPatches() throws Exception {
+        // Arrange
+        String body = "{\"id\":1,\"name\":\"user\"}";
+
+        // Act
+        ApacheHTTPResponse response = new ApacheHTTPResponse(createResponse(body), 8);
+        CloseableHttpResponse simulated = response.toSimulatedHttpResponse(
+                FaultInjector.patch(response.getFieldIndex(), "/name", FaultCollection.null_field), null);
+        HttpResponse live = createResponse(body);
+        response.restore(live);
+
+        // Assert
+        assertTrue(response.isSpilled());
+        assertNull(response.getResponseAsTree());
+        assertEquals("{\"id\":1,\"name\":null}", EntityUtils.toString(simulated.getEntity()));
+        assertEquals(body, EntityUtils.toString(live.getEntity()));
+        assertEquals(body, response.getBody());
+    }
+
+    @Test
+    void restore_keepsLengthHeadersOfCapturedBody() throws Exception {
+        // Arrange
+        String body = "{\"id\":1,\"name\":\"user\"}";
+        HttpResponse live = createResponse(body);
+        ApacheHTTPResponse captured = new ApacheHTTPResponse(live, "http://localhost/users/1");
+
+        // Act
+        captured.restore(live);
+
+        // Assert
+        assertEquals("http://localhost/users/1", captured.getUrl());
+        assertEquals(String.valueOf(body.length()), live.getFirstHeader("Content-Length").getValue());
+        assertEquals(body, EntityUtils.toString(live.getEntity()));
+    }
+
+    @Test
+    void applyTo_dropsLengthHeadersOnlyWithReplacedBody() throws Exception {
+        // Arrange
+        String body = "{\"id\":1,\"name\":\"user\"}";
+        ApacheHTTPResponse captured = new ApacheHTTPResponse(createResponse(body));
+        HttpResponse unchanged = createResponse(body);
+        HttpResponse replaced = createResponse(body);
+
+        // Act
+        captured.applyTo(unchanged, body, FaultCollection.server_error_status);
+        captured.applyTo(replaced, "{\"id\":1}", FaultCollection.null_field);
+
+        // Assert
+        assertEquals(String.valueOf(body.length()), unchanged.getFirstHeader("Content-Length").getValue());
+        assertNull(replaced.getFirstHeader("Content-Length"));
+    }
+
+    @Test
+    void snapshot_putsBackBodyThatIsNotJson() throws Exception {
+        // Arrange
+        String body = "<html>maintenance</html>";
+        HttpResponse live = createResponse(body);
+        ResponseSnapshot snapshot = ResponseSnapshot.capture(live);
+
+        // Act
+        assertThrows(JsonProcessingException.class, () -> new ApacheHTTPResponse(snapshot, "http://localhost/users"));
+        snapshot.applyTo(live, null);
+
+        // Assert
+        assertEquals(201, live.getStatusLine().getStatusCode());
+        assertEquals(String.valueOf(body.length()), live.getFirstHeader("Content-Length").getValue());
+        assertEquals(body, EntityUtils.toString(live.getEntity()));
+    }
+}
@@ -0,0 +1,63 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import metatester.injection.ArraySampler;
+import metatester.utils.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArraySamplerTest {
+
+    private JsonNode numbers(int count) throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i > 0 ? "," : "").append(i);
+        }
+        return JsonUtils.readTree(json.append("]").toString());
+    }
+
+    @Test
+    void sample_takesFirstLastAndSeededRandomElements() throws Exception {
+        // Arrange
+        JsonNode array = numbers(5000);
+        ArraySampler sampler = new ArraySampler(3, 42);
+
+        // Act
+        int[] sample = sampler.sample("/items", array, 50);
+
+        // Assert
+        assertEquals(5, sample.length);
+        assertEquals(0, sample[0]);
+        assertEquals(4999, sample[4]);
+        assertEquals(Arrays.toString(sample), Arrays.toString(new ArraySampler(3, 42).sample("/items", array, 50)));
+    }
+
+    @Test
+    void sample_keepsOneElementPerShape() throws Exception {
+        // Arrange
+        JsonNode array = JsonUtils.readTree("[{\"id\":1},{\"id\":2},{\"id\":3,\"tag\":\"x\"},{\"id\":4},{\"id\":\"5\"},{\"id\":6}]");
+        ArraySampler sampler = new ArraySampler(0, 42);
+
+        // Act
+        int[] sample = sampler.sample("", array, 50);
+
+        // Assert
+        assertEquals("[0, 2, 4, 5]", Arrays.toString(sample));
+    }
+
+    @Test
+    void sample_isCutToMaxElementsBeforeRandomElements() throws Exception {
+        // Arrange
+        JsonNode array = JsonUtils.readTree("[1,\"a\",true,null,2,3,4,5]");
+        ArraySampler sampler = new ArraySampler(3, 42);
+
+        // Act
+        int[] sample = sampler.sample("", array, 4);
+
+        // Assert
+        assertEquals("[0, 1, 2, 7]", Arrays.toString(sample));
+    }
+}
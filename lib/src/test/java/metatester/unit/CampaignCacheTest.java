@@ -0,0 +1,63 @@
+package metatester.unit;
+
+import metatester.config.FaultCollection;
+import metatester.report.TestLevelSimulationResults;
+import metatester.runner.CampaignCache;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CampaignCacheTest {
+
+    @Test
+    void key_isStableForSameInputs() {
+        String first = CampaignCache.key(CampaignCacheTest.class, "testGetUser", "{\"id\":1}", "[null_field]");
+        String second = CampaignCache.key(CampaignCacheTest.class, "testGetUser", "{\"id\":1}", "[null_field]");
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void key_changesWithTestResponseAndPlan() {
+        String key = CampaignCache.key(CampaignCacheTest.class, "testGetUser", "{\"id\":1}", "[null_field]");
+
+        assertNotEquals(key, CampaignCache.key(FaultCollection.class, "testGetUser", "{\"id\":1}", "[null_field]"));
+        assertNotEquals(key, CampaignCache.key(CampaignCacheTest.class, "testGetUsers", "{\"id\":1}", "[null_field]"));
+        assertNotEquals(key, CampaignCache.key(CampaignCacheTest.class, "testGetUser", "{\"id\":2}", "[null_field]"));
+        assertNotEquals(key, CampaignCache.key(CampaignCacheTest.class, "testGetUser", "{\"id\":1}", "[missing_field]"));
+    }
+
+    @Test
+    void storeAndLoad_roundTripsResults() throws Exception {
+        // Arrange
+        Path directory = Files.createTempDirectory("campaign-cache");
+        CampaignCache cache = new CampaignCache(directory.resolve("nested"));
+        TestLevelSimulationResults result = new TestLevelSimulationResults();
+        result.setTest("testGetUser");
+        result.setCaught(true);
+        result.setError("expected name");
+
+        // Act
+        cache.store("abc", List.of(new CampaignCache.CachedResult("/users/1", "/name", FaultCollection.null_field, result)));
+        List<CampaignCache.CachedResult> loaded = cache.load("abc");
+
+        // Assert
+        assertEquals(1, loaded.size());
+        assertEquals("/users/1", loaded.get(0).endpoint());
+        assertEquals("/name", loaded.get(0).path());
+        assertEquals(FaultCollection.null_field, loaded.get(0).fault());
+        assertTrue(loaded.get(0).result().isCaught());
+        assertEquals("expected name", loaded.get(0).result().getError());
+    }
+
+    @Test
+    void load_returnsNullOnMiss() throws Exception {
+        CampaignCache cache = new CampaignCache(Files.createTempDirectory("campaign-cache"));
+
+        assertNull(cache.load("missing"));
+    }
+}
@@ -0,0 +1,75 @@
+package metatester.unit;
+
+import metatester.http.CapturingInputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapturingInputStreamTest {
+
+    private static final String BODY = "{\n  \"id\": 1,\n  \"name\": \"user\"\n}\n";
+
+    private InputStream source() {
+        return new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void read_recordsBodyWhileReaderConsumesIt() throws Exception {
+        // Arrange
+        List<byte[]> captured = new ArrayList<>();
+        StringBuilder read = new StringBuilder();
+
+        // Act
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new CapturingInputStream(source(), -1, 1024, captured::add), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                read.append(line).append('\n');
+            }
+        }
+
+        // Assert
+        assertEquals(BODY, read.toString());
+        assertEquals(1, captured.size());
+        assertEquals(BODY, new String(captured.get(0), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void close_readsRestBeforeHandingOverBody() throws Exception {
+        // Arrange
+        List<byte[]> captured = new ArrayList<>();
+        InputStream stream = new CapturingInputStream(source(), BODY.length(), 1024, captured::add);
+
+        // Act
+        stream.read(new byte[4]);
+        stream.skip(3);
+        stream.close();
+
+        // Assert
+        assertEquals(1, captured.size());
+        assertEquals(BODY, new String(captured.get(0), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void read_handsOverNullWhenBodyExceedsLimit() throws Exception {
+        // Arrange
+        List<byte[]> captured = new ArrayList<>();
+        InputStream stream = new CapturingInputStream(source(), -1, 10, captured::add);
+
+        // Act
+        String read = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+
+        // Assert
+        assertEquals(BODY, read);
+        assertEquals(1, captured.size());
+        assertNull(captured.get(0));
+    }
+}
@@ -0,0 +1,122 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import metatester.schemacoverage.Collector;
+import metatester.schemacoverage.CollectorData;
+import metatester.schemacoverage.CoverageWriter;
+import metatester.schemacoverage.EndpointCall;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageWriterTest {
+
+    private static final long NO_INTERVAL_FLUSH_MS = 3_600_000;
+
+    private CollectorData previousData;
+
+    @BeforeEach
+    void replaceCollectedData() {
+        previousData = Collector.data;
+        Collector.data = new CollectorData();
+    }
+
+    @AfterEach
+    void restoreCollectedData() {
+        Collector.data = previousData;
+    }
+
+    private void recordCall(String endpoint, String method, Map<String, String> headers, Object body,
+                            Map<String, String> urlParameters) {
+        EndpointCall call = new EndpointCall();
+        call.setHeaders(headers);
+        call.setBody(body);
+        call.setUrlParameters(urlParameters);
+        Collector.getData().getPaths().computeIfAbsent(endpoint, k -> new HashMap<>()).put(method, call);
+    }
+
+    @Test
+    void close_writesCalledEndpointsAndOmitsUncalledOnes() throws Exception {
+        // Arrange
+        Path file = Files.createTempDirectory("coverage").resolve("schema_coverage.json");
+        CoverageWriter writer = new CoverageWriter(file.toString(), NO_INTERVAL_FLUSH_MS, 100);
+        Collector.getData().setHost("http://localhost");
+        recordCall("/users", "GET", Map.of("Accept", "application/json"), null, Map.of("page", "1"));
+        recordCall("/orders", "POST", Map.of(), "{\"id\":1}", Map.of());
+        writer.markDirty();
+        writer.markDirty();
+
+        // Act
+        writer.close();
+
+        // Assert
+        JsonNode paths = new ObjectMapper().readTree(file.toFile()).get("paths");
+        assertEquals("application/json", paths.at("/~1users/GET/headers/Accept").asText());
+        assertEquals("1", paths.at("/~1users/GET/urlParameters/page").asText());
+        assertEquals("{\"id\":1}", paths.at("/~1orders/POST/body").asText());
+        assertFalse(paths.get("/users").has("DELETE"));
+        assertFalse(paths.has("/admin"));
+    }
+
+    @Test
+    void markDirty_flushesInBackgroundWhenBatchIsFull() throws Exception {
+        // Arrange
+        Path file = Files.createTempDirectory("coverage").resolve("schema_coverage.json");
+        CoverageWriter writer = new CoverageWriter(file.toString(), NO_INTERVAL_FLUSH_MS, 2);
+        recordCall("/users", "GET", Map.of(), null, Map.of());
+
+        // Act
+        writer.markDirty();
+        boolean writtenBeforeBatch = Files.exists(file);
+        writer.markDirty();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Files.exists(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        try {
+            assertFalse(writtenBeforeBatch);
+            assertTrue(Files.exists(file));
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void close_writesNothingWithoutPendingUpdates() throws Exception {
+        // Arrange
+        Path file = Files.createTempDirectory("coverage").resolve("schema_coverage.json");
+        CoverageWriter writer = new CoverageWriter(file.toString(), NO_INTERVAL_FLUSH_MS, 100);
+        recordCall("/users", "GET", Map.of(), null, Map.of());
+
+        // Act
+        writer.close();
+
+        // Assert
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void markDirty_afterCloseDoesNotThrowOrWrite() throws Exception {
+        // Arrange
+        Path file = Files.createTempDirectory("coverage").resolve("schema_coverage.json");
+        CoverageWriter writer = new CoverageWriter(file.toString(), NO_INTERVAL_FLUSH_MS, 1);
+        recordCall("/users", "GET", Map.of(), null, Map.of());
+        writer.close();
+
+        // Act
+        assertDoesNotThrow(writer::markDirty);
+
+        // Assert
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,83 @@
+package metatester.unit;
+
+import metatester.injection.DelayInjector;
+import metatester.injection.VirtualClock;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DelayInjectorTest {
+
+    @Test
+    void virtualDelay_beyondTimeout_timesOutWithoutWaiting() {
+        // Arrange
+        long clockBefore = VirtualClock.getInstance().getElapsedMillis();
+        long start = System.nanoTime();
+
+        // Act
+        assertThrows(SocketTimeoutException.class, () -> DelayInjector.delay(31_000, 30_000, false));
+
+        // Assert
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertEquals(30_000, VirtualClock.getInstance().getElapsedMillis() - clockBefore);
+    }
+
+    @Test
+    void virtualDelay_withinTimeout_returnsAndAdvancesClock() throws Exception {
+        // Arrange
+        long clockBefore = VirtualClock.getInstance().getElapsedMillis();
+
+        // Act
+        DelayInjector.delay(5_000, 30_000, false);
+        DelayInjector.delay(5_000, 0, false);
+
+        // Assert
+        assertEquals(10_000, VirtualClock.getInstance().getElapsedMillis() - clockBefore);
+    }
+
+    @Test
+    void realDelay_sleeps() throws Exception {
+        // Arrange
+        long start = System.nanoTime();
+
+        // Act
+        DelayInjector.delay(50, 0, true);
+
+        // Assert
+        assertTrue(System.nanoTime() - start >= 50_000_000L);
+    }
+
+    @Test
+    void delayAsync_beyondTimeout_failsStageWithoutBlocking() {
+        // Arrange
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<String> delayed = DelayInjector.delayAsync(response, 100,
+                () -> new HttpTimeoutException("request timed out"));
+        response.complete("body");
+
+        // Assert
+        CompletionException failure = assertThrows(CompletionException.class, delayed::join);
+        assertTrue(failure.getCause() instanceof HttpTimeoutException);
+    }
+
+    @Test
+    void apacheReadTimeout_prefersRequestConfig() {
+        // Arrange
+        HttpGet configured = new HttpGet("http://localhost/users");
+        configured.setConfig(RequestConfig.custom().setSocketTimeout(1_500).build());
+        HttpGet unconfigured = new HttpGet("http://localhost/users");
+
+        // Assert
+        assertEquals(1_500, DelayInjector.apacheReadTimeout(null, new Object[]{configured}));
+        assertEquals(0, DelayInjector.apacheReadTimeout(null, new Object[]{unconfigured}));
+    }
+}
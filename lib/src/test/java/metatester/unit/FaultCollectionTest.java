@@ -1,8 +1,11 @@
 package metatester.unit;
 
 import metatester.config.FaultCollection;
+import metatester.config.SimulatorConfig;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FaultCollectionTest {
@@ -13,6 +16,11 @@ public class FaultCollectionTest {
         assertNotNull(FaultCollection.missing_field);
         assertNotNull(FaultCollection.invalid_value);
         assertNotNull(FaultCollection.http_method_change);
+        assertNotNull(FaultCollection.delay_injection);
+        assertNotNull(FaultCollection.client_error_status);
+        assertNotNull(FaultCollection.server_error_status);
+        assertNotNull(FaultCollection.content_type_removed);
+        assertNotNull(FaultCollection.charset_changed);
     }
 
     @Test
@@ -21,11 +29,16 @@ public class FaultCollectionTest {
         assertEquals("missing_field", FaultCollection.missing_field.name());
         assertEquals("invalid_value", FaultCollection.invalid_value.name());
         assertEquals("http_method_change", FaultCollection.http_method_change.name());
+        assertEquals("delay_injection", FaultCollection.delay_injection.name());
+        assertEquals("client_error_status", FaultCollection.client_error_status.name());
+        assertEquals("server_error_status", FaultCollection.server_error_status.name());
+        assertEquals("content_type_removed", FaultCollection.content_type_removed.name());
+        assertEquals("charset_changed", FaultCollection.charset_changed.name());
     }
 
     @Test
     public void testEnumValuesCount() {
-        assertEquals(4, FaultCollection.values().length);
+        assertEquals(9, FaultCollection.values().length);
     }
 
     @Test
@@ -34,8 +47,28 @@ public class FaultCollectionTest {
                 FaultCollection.null_field,
                 FaultCollection.missing_field,
                 FaultCollection.invalid_value,
-                FaultCollection.http_method_change
+                FaultCollection.http_method_change,
+                FaultCollection.delay_injection,
+                FaultCollection.client_error_status,
+                FaultCollection.server_error_status,
+                FaultCollection.content_type_removed,
+                FaultCollection.charset_changed
         };
         assertArrayEquals(expectedValues, FaultCollection.values());
     }
+
+    @Test
+    public void testHttpMethodChangeIsNotSupportedYet() {
+        assertFalse(FaultCollection.http_method_change.isSupported());
+        assertTrue(FaultCollection.delay_injection.isSupported());
+        assertTrue(FaultCollection.null_field.isSupported());
+    }
+
+    @Test
+    public void testShippedConfigEnablesInvalidValue() {
+        List<FaultCollection> enabledFaults = SimulatorConfig.getEnabledFaults();
+
+        assertTrue(enabledFaults.contains(FaultCollection.invalid_value));
+        assertEquals(1, enabledFaults.stream().filter(fault -> fault == FaultCollection.invalid_value).count());
+    }
 }
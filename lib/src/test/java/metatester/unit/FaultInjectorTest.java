@@ -0,0 +1,133 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import metatester.config.FaultCollection;
+import metatester.injection.FaultInjector;
+import metatester.utils.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultInjectorTest {
+
+    private static final String BODY = "{\"id\":1,\"name\":\"user\",\"active\":true,\"address\":{\"city\":\"Vilnius\"}}";
+
+    @Test
+    void nullField_setsFieldToNull() throws Exception {
+        // Arrange
+        JsonNode original = JsonUtils.readTree(BODY);
+
+        // Act
+        String simulated = FaultInjector.inject(original, "/name", FaultCollection.null_field);
+
+        // Assert
+        assertEquals("{\"id\":1,\"name\":null,\"active\":true,\"address\":{\"city\":\"Vilnius\"}}", simulated);
+    }
+
+    @Test
+    void missingField_removesField() throws Exception {
+        // Arrange
+        JsonNode original = JsonUtils.readTree(BODY);
+
+        // Act
+        String simulated = FaultInjector.inject(original, "/id", FaultCollection.missing_field);
+
+        // Assert
+        assertEquals("{\"name\":\"user\",\"active\":true,\"address\":{\"city\":\"Vilnius\"}}", simulated);
+    }
+
+    @Test
+    void invalidValue_keepsTypeButChangesValue() throws Exception {
+        // Arrange
+        JsonNode original = JsonUtils.readTree(BODY);
+
+        // Act
+        JsonNode number = FaultInjector.apply(original, "/id", FaultCollection.invalid_value);
+        JsonNode bool = FaultInjector.apply(original, "/active", FaultCollection.invalid_value);
+
+        // Assert
+        assertTrue(number.get("id").isNumber());
+        assertNotEquals(original.get("id"), number.get("id"));
+        assertFalse(bool.get("active").booleanValue());
+    }
+
+    @Test
+    void apply_leavesOriginalUntouchedAndSharesOtherNodes() throws Exception {
+        // Arrange
+        JsonNode original = JsonUtils.readTree(BODY);
+
+        // Act
+        JsonNode simulated = FaultInjector.apply(original, "/name", FaultCollection.missing_field);
+
+        // Assert
+        assertEquals(BODY, JsonUtils.write(original));
+        assertSame(original.get("address"), simulated.get("address"));
+    }
+
+    @Test
+    void apply_returnsOriginalForBodyIndependentFault() throws Exception {
+        // Arrange
+        JsonNode original = JsonUtils.readTree(BODY);
+
+        // Act
+        JsonNode simulated = FaultInjector.apply(original, "/name", FaultCollection.http_method_change);
+
+        // Assert
+        assertSame(original, simulated);
+    }
+
+    @Test
+    void nestedPath_copiesOnlyContainersOnThePath() throws Exception {
+        // Arrange
+        JsonNode original = JsonUtils.readTree("{\"user\":{\"address\":{\"city\":\"Vilnius\"},\"tags\":[\"a\"]},\"id\":1}");
+
+        // Act
+        JsonNode simulated = FaultInjector.apply(original, "/user/address/city", FaultCollection.null_field);
+
+        // Assert
+        assertTrue(simulated.at("/user/address/city").isNull());
+        assertEquals("Vilnius", original.at("/user/address/city").asText());
+        assertSame(original.at("/user/tags"), simulated.at("/user/tags"));
+    }
+
+    @Test
+    void arrayElementPath_faultsSingleElement() throws Exception {
+        // Arrange
+        JsonNode original = JsonUtils.readTree("[{\"id\":1},{\"id\":2}]");
+
+        // Act
+        String nullId = FaultInjector.inject(original, "/1/id", FaultCollection.null_field);
+        String missingElement = FaultInjector.inject(original, "/0", FaultCollection.missing_field);
+
+        // Assert
+        assertEquals("[{\"id\":1},{\"id\":null}]", nullId);
+        assertEquals("[{\"id\":2}]", missingElement);
+    }
+
+    @Test
+    void unknownPath_returnsOriginal() throws Exception {
+        // Arrange
+        JsonNode original = JsonUtils.readTree(BODY);
+
+        // Act
+        JsonNode simulated = FaultInjector.apply(original, "/address/street", FaultCollection.null_field);
+
+        // Assert
+        assertSame(original, simulated);
+    }
+
+    @Test
+    void injectPaths_removesArrayElementsWithoutShiftingLaterOnes() throws Exception {
+        // Arrange
+        JsonNode original = JsonUtils.readTree("{\"items\":[\"a\",\"b\",\"c\"],\"id\":1}");
+
+        // Act
+        String simulated = FaultInjector.inject(original, List.of("/items/0", "/items/2", "/id"),
+                FaultCollection.missing_field);
+
+        // Assert
+        assertEquals("{\"items\":[\"b\"]}", simulated);
+    }
+}
@@ -0,0 +1,129 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import metatester.config.FaultCollection;
+import metatester.injection.ArraySampler;
+import metatester.injection.FaultPlan;
+import metatester.injection.FaultVariant;
+import metatester.utils.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultPlanTest {
+
+    private static final List<FaultCollection> FAULTS = List.of(FaultCollection.null_field, FaultCollection.missing_field);
+
+    private List<String> targets(FaultPlan plan) {
+        List<String> targets = new ArrayList<>();
+        for (FaultVariant variant : plan) {
+            targets.add(variant.path() + " " + variant.fault());
+        }
+        return targets;
+    }
+
+    @Test
+    void iterator_visitsNestedFieldsDepthFirst() throws Exception {
+        // Arrange
+        JsonNode root = JsonUtils.readTree("{\"id\":1,\"address\":{\"city\":\"Vilnius\"},\"tags\":[\"a\",\"b\"]}");
+
+        // Act
+        List<String> targets = targets(new FaultPlan(root, FAULTS, 3, 50));
+
+        // Assert
+        assertEquals(List.of(
+                "/id null_field", "/id missing_field",
+                "/address null_field", "/address missing_field",
+                "/address/city null_field", "/address/city missing_field",
+                "/tags null_field", "/tags missing_field",
+                "/tags/0 null_field", "/tags/0 missing_field",
+                "/tags/1 null_field", "/tags/1 missing_field"), targets);
+    }
+
+    @Test
+    void iterator_respectsMaxDepth() throws Exception {
+        // Arrange
+        JsonNode root = JsonUtils.readTree("{\"a\":{\"b\":{\"c\":1}}}");
+
+        // Act
+        List<String> targets = targets(new FaultPlan(root, List.of(FaultCollection.null_field), 2, 50));
+
+        // Assert
+        assertEquals(List.of("/a null_field", "/a/b null_field"), targets);
+    }
+
+    @Test
+    void iterator_respectsMaxFanOut() throws Exception {
+        // Arrange
+        JsonNode root = JsonUtils.readTree("[{\"id\":1},{\"id\":2},{\"id\":3}]");
+
+        // Act
+        List<String> targets = targets(new FaultPlan(root, List.of(FaultCollection.null_field), 3, 2));
+
+        // Assert
+        assertEquals(List.of("/0 null_field", "/0/id null_field", "/1 null_field", "/1/id null_field"), targets);
+    }
+
+    @Test
+    void iterator_escapesPointerTokens() throws Exception {
+        // Arrange
+        JsonNode root = JsonUtils.readTree("{\"a/b\":1,\"c~d\":2}");
+
+        // Act
+        List<String> targets = targets(new FaultPlan(root, List.of(FaultCollection.null_field), 3, 50));
+
+        // Assert
+        assertEquals(List.of("/a~1b null_field", "/c~0d null_field"), targets);
+    }
+
+    @Test
+    void iterator_isEmptyForScalarRoot() throws Exception {
+        // Arrange
+        JsonNode root = JsonUtils.readTree("\"text\"");
+
+        // Act
+        Iterator<FaultVariant> iterator = new FaultPlan(root, FAULTS, 3, 50).iterator();
+
+        // Assert
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void responseFaults_comeFirstOnceAtRoot() throws Exception {
+        // Arrange
+        JsonNode root = JsonUtils.readTree("{\"id\":1}");
+
+        // Act
+        List<String> targets = targets(new FaultPlan(root,
+                List.of(FaultCollection.null_field, FaultCollection.delay_injection), 3, 50));
+
+        // Assert
+        assertEquals(List.of(" delay_injection", "/id null_field"), targets);
+    }
+
+    @Test
+    void iterator_faultsSampledArrayElementsUnderOneReportedPath() throws Exception {
+        // Arrange
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            items.append(i > 0 ? "," : "").append("{\"id\":").append(i).append("}");
+        }
+        JsonNode root = JsonUtils.readTree("{\"items\":" + items.append("]") + "}");
+
+        // Act
+        List<FaultVariant> variants = new ArrayList<>();
+        new FaultPlan(root, List.of(FaultCollection.null_field), 3, 50, new ArraySampler(2, 7)).forEach(variants::add);
+
+        // Assert
+        assertEquals(1 + 4 * 2, variants.size());
+        assertEquals("/items/0", variants.get(1).path());
+        assertEquals("/items/*", variants.get(1).reportedField());
+        assertEquals("/items/0/id", variants.get(2).path());
+        assertEquals("/items/*/id", variants.get(2).reportedField());
+        assertEquals("/items/999/id", variants.get(variants.size() - 1).path());
+    }
+}
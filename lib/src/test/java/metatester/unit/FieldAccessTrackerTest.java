@@ -0,0 +1,100 @@
+package metatester.unit;
+
+import metatester.runner.FieldAccessTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldAccessTrackerTest {
+
+    private FieldAccessTracker tracker;
+
+    @BeforeEach
+    public void setUp() {
+        tracker = new FieldAccessTracker();
+    }
+
+    @Test
+    void nothingRead_everyFieldIsUntouched() {
+        assertTrue(tracker.isUntouched("/name"));
+        assertTrue(tracker.isUntouched("/address/city"));
+    }
+
+    @Test
+    void readField_touchesFieldAncestorsAndDescendants() {
+        // Act
+        tracker.recordPath("user.address");
+
+        // Assert
+        assertFalse(tracker.isUntouched("/user"));
+        assertFalse(tracker.isUntouched("/user/address"));
+        assertFalse(tracker.isUntouched("/user/address/city"));
+        assertTrue(tracker.isUntouched("/user/name"));
+        assertTrue(tracker.isUntouched("/id"));
+    }
+
+    @Test
+    void listSpread_touchesEveryElement() {
+        // Act
+        tracker.recordPath("items.id");
+
+        // Assert
+        assertFalse(tracker.isUntouched("/items/0/id"));
+        assertFalse(tracker.isUntouched("/items/42/id"));
+        assertTrue(tracker.isUntouched("/items/0/name"));
+    }
+
+    @Test
+    void indexedRead_touchesOnlyThatElement() {
+        // Act
+        tracker.recordPath("items[1].id");
+
+        // Assert
+        assertFalse(tracker.isUntouched("/items/1/id"));
+        assertTrue(tracker.isUntouched("/items/0/id"));
+    }
+
+    @Test
+    void rootListRead_touchesElementsOfRootArray() {
+        // Act
+        tracker.recordPath("[0].name");
+
+        // Assert
+        assertFalse(tracker.isUntouched("/0/name"));
+        assertTrue(tracker.isUntouched("/1/name"));
+    }
+
+    @Test
+    void complexExpression_widensToEnclosingField() {
+        // Act
+        tracker.recordPath("items.find { it.id == 1 }.name");
+
+        // Assert
+        assertFalse(tracker.isUntouched("/items/3/name"));
+        assertTrue(tracker.isUntouched("/total"));
+    }
+
+    @Test
+    void unresolvableExpression_marksWholeBodyRead() {
+        // Act
+        tracker.recordPath("$");
+
+        // Assert
+        assertTrue(tracker.isWholeBodyRead());
+        assertFalse(tracker.isUntouched("/anything"));
+    }
+
+    @Test
+    void reset_forgetsRecordedReads() {
+        // Arrange
+        tracker.recordPath("name");
+        tracker.recordWholeBody();
+
+        // Act
+        tracker.reset();
+
+        // Assert
+        assertTrue(tracker.isUntouched("/name"));
+    }
+}
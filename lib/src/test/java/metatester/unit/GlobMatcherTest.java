@@ -0,0 +1,61 @@
+package metatester.unit;
+
+import metatester.config.GlobMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobMatcherTest {
+
+    @Test
+    void star_matchesAnyRunIncludingSlashes() {
+        GlobMatcher matcher = GlobMatcher.compile(List.of("*/login*"));
+
+        assertTrue(matcher.matches("http://localhost:8080/api/login"));
+        assertTrue(matcher.matches("/login?next=/home"));
+        assertFalse(matcher.matches("/users/1"));
+        assertFalse(matcher.matches("login"));
+    }
+
+    @Test
+    void questionMarkAndEscape_matchOneCharacterAndLiterals() {
+        GlobMatcher matcher = GlobMatcher.compile(List.of("/users/?", "/literal\\*"));
+
+        assertTrue(matcher.matches("/users/7"));
+        assertFalse(matcher.matches("/users/42"));
+        assertTrue(matcher.matches("/literal*"));
+        assertFalse(matcher.matches("/literalX"));
+    }
+
+    @Test
+    void noPatterns_matchNothing() {
+        assertFalse(GlobMatcher.compile(null).matches("anything"));
+        assertFalse(GlobMatcher.compile(List.of()).matches(""));
+        assertFalse(GlobMatcher.compile(List.of("*")).matches(null));
+    }
+
+    @Test
+    void manyPatterns_agreeWithRegexTranslation() {
+        // Arrange
+        List<String> globs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            globs.add(i % 3 == 0 ? "*/svc" + i + "/*" : i % 3 == 1 ? "/api/v?/item" + i + "*" : "*health" + i);
+        }
+        GlobMatcher matcher = GlobMatcher.compile(globs);
+        List<Pattern> regexes = globs.stream()
+                .map(glob -> Pattern.compile(glob.replace("*", ".*").replace("?", ".")))
+                .toList();
+        String[] inputs = {"/x/svc3/y", "/x/svc4/y", "/api/v1/item4", "/api/v12/item4", "/api/v2/item13/details",
+                "readyhealth299", "health2", "/svc33/", "", "/api/v1/item1"};
+
+        // Act & Assert
+        for (String input : inputs) {
+            boolean expected = regexes.stream().anyMatch(regex -> regex.matcher(input).matches());
+            assertEquals(expected, matcher.matches(input), input);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package metatester.unit;
+
+import metatester.config.FaultCollection;
+import metatester.injection.FaultVariant;
+import metatester.runner.GroupTester;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupTesterTest {
+
+    private List<FaultVariant> variants(int count) {
+        List<FaultVariant> variants = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            variants.add(new FaultVariant("/f" + i, FaultCollection.null_field));
+        }
+        return variants;
+    }
+
+    /**
+     * A test that detects exactly the faults on the given fields.
+     */
+    private GroupTester.Rerun detecting(Set<String> detectedPaths) {
+        return group -> group.stream().anyMatch(variant -> detectedPaths.contains(variant.path()))
+                ? new AssertionError("detected") : null;
+    }
+
+    @Test
+    void test_undetectedGroupCostsOneRerun() {
+        // Arrange
+        GroupTester tester = new GroupTester(detecting(Set.of()));
+
+        // Act
+        List<GroupTester.Outcome> outcomes = tester.test(variants(16));
+
+        // Assert
+        assertEquals(1, tester.getReruns());
+        assertEquals(16, outcomes.size());
+        assertTrue(outcomes.stream().noneMatch(GroupTester.Outcome::isDetected));
+        assertTrue(outcomes.stream().allMatch(GroupTester.Outcome::inferred));
+    }
+
+    @Test
+    void test_bisectsToExactResultsInGroupOrder() {
+        // Arrange
+        List<FaultVariant> variants = variants(16);
+        GroupTester tester = new GroupTester(detecting(Set.of("/f3", "/f12")));
+
+        // Act
+        List<GroupTester.Outcome> outcomes = tester.test(variants);
+
+        // Assert
+        for (int i = 0; i < variants.size(); i++) {
+            assertEquals(variants.get(i), outcomes.get(i).variant());
+            assertEquals(i == 3 || i == 12, outcomes.get(i).isDetected(), variants.get(i).path());
+        }
+        assertFalse(outcomes.get(3).inferred());
+        assertFalse(outcomes.get(12).inferred());
+        assertTrue(tester.getReruns() < variants.size());
+    }
+
+    @Test
+    void test_deducedFailureIsConfirmedByItsOwnRerun() {
+        // Arrange: the fault is only detected together with another one
+        GroupTester tester = new GroupTester(group -> group.size() == 2 ? new AssertionError("both") : null);
+
+        // Act
+        List<GroupTester.Outcome> outcomes = tester.test(variants(2));
+
+        // Assert
+        assertFalse(outcomes.get(0).isDetected());
+        assertFalse(outcomes.get(1).isDetected());
+        assertFalse(outcomes.get(1).inferred());
+        assertEquals(3, tester.getReruns());
+    }
+}
@@ -0,0 +1,118 @@
+package metatester.unit;
+
+import metatester.config.FaultCollection;
+import metatester.config.SimulatorConfig;
+import metatester.http.HttpURLConnectionResponse;
+import metatester.http.ResponseSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpURLConnectionResponseTest {
+
+    private static final String BODY = "{\"id\":1,\"name\":\"user\"}";
+
+    private HttpURLConnection connection() throws Exception {
+        return new HttpURLConnection(new URL("http://localhost/users/1")) {
+            @Override
+            public Map<String, List<String>> getHeaderFields() {
+                Map<String, List<String>> fields = new LinkedHashMap<>();
+                fields.put(null, List.of("HTTP/1.1 200 OK"));
+                fields.put("Content-Type", List.of("application/json; charset=UTF-8"));
+                return fields;
+            }
+
+            @Override
+            public String getContentType() {
+                return "application/json; charset=UTF-8";
+            }
+
+            @Override
+            public int getResponseCode() {
+                return 200;
+            }
+
+            @Override
+            public String getResponseMessage() {
+                return "OK";
+            }
+
+            @Override
+            public void connect() {
+            }
+
+            @Override
+            public void disconnect() {
+            }
+
+            @Override
+            public boolean usingProxy() {
+                return false;
+            }
+        };
+    }
+
+    @Test
+    void openStream_servesSimulatedBody() throws Exception {
+        // Arrange
+        HttpURLConnectionResponse response = new HttpURLConnectionResponse(connection(), BODY.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        InputStream stream = response.openStream("{\"id\":null}", FaultCollection.null_field);
+
+        // Assert
+        assertEquals("http://localhost/users/1", response.getUrl());
+        assertEquals("application/json; charset=UTF-8", response.getHeaders().get("Content-Type"));
+        assertEquals("user", response.getResponseAsMap().get("name"));
+        assertEquals("{\"id\":null}", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void openStream_failsLikeConnectionForClientErrorStatus() throws Exception {
+        // Arrange
+        HttpURLConnectionResponse response = new HttpURLConnectionResponse(connection(), BODY.getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(FileNotFoundException.class, () -> response.openStream(BODY, FaultCollection.client_error_status));
+    }
+
+    @Test
+    void served_reportsStatusAndHeaderFaults() throws Exception {
+        // Arrange
+        HttpURLConnectionResponse response = new HttpURLConnectionResponse(connection(), BODY.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        ResponseSnapshot serverError = response.served(FaultCollection.server_error_status);
+        ResponseSnapshot noContentType = response.served(FaultCollection.content_type_removed);
+
+        // Assert
+        assertEquals(SimulatorConfig.getServerErrorStatus(), serverError.getStatusCode());
+        assertEquals(200, noContentType.getStatusCode());
+        assertNull(noContentType.getHeader("Content-Type"));
+        assertFalse(noContentType.getHeaderFields().containsKey("Content-Type"));
+        assertEquals(List.of("application/json; charset=UTF-8"), response.served(null).getHeaderFields().get("Content-Type"));
+    }
+
+    @Test
+    void openErrorStream_servesBodyOnlyForStatusFault() throws Exception {
+        // Arrange
+        HttpURLConnectionResponse response = new HttpURLConnectionResponse(connection(), BODY.getBytes(StandardCharsets.UTF_8));
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        InputStream error = response.openErrorStream(body, FaultCollection.server_error_status);
+
+        // Assert
+        assertEquals(BODY, new String(error.readAllBytes(), StandardCharsets.UTF_8));
+        assertNull(response.openErrorStream(body, FaultCollection.null_field));
+    }
+}
@@ -0,0 +1,143 @@
+package metatester.unit;
+
+import com.sun.net.httpserver.HttpServer;
+import metatester.config.FaultCollection;
+import metatester.http.JdkHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdkHttpResponseTest {
+
+    private static final String BODY = "{\"id\":1,\"name\":\"user\"}";
+
+    private HttpServer server;
+    private URI uri;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users/1", exchange -> {
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("X-Request-Id", "abc");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/health", exchange -> {
+            byte[] body = "OK".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/users/1");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private JdkHttpResponse capture() throws Exception {
+        AtomicReference<JdkHttpResponse> captured = new AtomicReference<>();
+        client.send(HttpRequest.newBuilder(uri).build(),
+                JdkHttpResponse.capturing(HttpResponse.BodyHandlers.ofString(), uri, 1024, captured::set, e -> {
+                    throw e;
+                }));
+        return captured.get();
+    }
+
+    @Test
+    void capturing_recordsBodyAndPassesItOn() throws Exception {
+        // Arrange
+        AtomicReference<JdkHttpResponse> captured = new AtomicReference<>();
+
+        // Act
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+                JdkHttpResponse.capturing(HttpResponse.BodyHandlers.ofString(), uri, 1024, captured::set, e -> {
+                    throw e;
+                }));
+
+        // Assert
+        assertEquals(BODY, response.body());
+        assertEquals(uri.toString(), captured.get().getUrl());
+        assertEquals(200, captured.get().getStatusCode());
+        assertEquals("user", captured.get().getResponseAsMap().get("name"));
+    }
+
+    @Test
+    void serving_replacesBodyAndStatusOfConcurrentCalls() throws Exception {
+        // Arrange
+        JdkHttpResponse captured = capture();
+        String simulatedBody = "{\"id\":1,\"name\":null}";
+        List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            calls.add(client.sendAsync(HttpRequest.newBuilder(uri).build(),
+                            captured.serving(HttpResponse.BodyHandlers.ofString(), simulatedBody, FaultCollection.server_error_status))
+                    .thenApply(response -> captured.applyTo(response, FaultCollection.server_error_status)));
+        }
+
+        // Assert
+        for (CompletableFuture<HttpResponse<String>> call : calls) {
+            HttpResponse<String> response = call.join();
+            assertEquals(500, response.statusCode());
+            assertEquals(simulatedBody, response.body());
+            assertEquals("abc", response.headers().firstValue("X-Request-Id").orElse(null));
+        }
+    }
+
+    @Test
+    void capturing_handsOverNullWhenBodyExceedsLimit() throws Exception {
+        // Arrange
+        List<JdkHttpResponse> captured = new ArrayList<>();
+
+        // Act
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+                JdkHttpResponse.capturing(HttpResponse.BodyHandlers.ofString(), uri, 10, captured::add, e -> {
+                    throw e;
+                }));
+
+        // Assert
+        assertEquals(BODY, response.body());
+        assertEquals(1, captured.size());
+        assertNull(captured.get(0));
+    }
+
+    @Test
+    void capturing_completesCallerWhenBodyIsNotJson() throws Exception {
+        // Arrange
+        URI health = uri.resolve("/health");
+        List<JdkHttpResponse> captured = new ArrayList<>();
+        List<RuntimeException> failures = new ArrayList<>();
+
+        // Act
+        HttpResponse<String> response = client.sendAsync(HttpRequest.newBuilder(health).build(),
+                JdkHttpResponse.capturing(HttpResponse.BodyHandlers.ofString(), health, 1024, captured::add, failures::add))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("OK", response.body());
+        assertTrue(captured.isEmpty());
+        assertEquals(1, failures.size());
+    }
+}
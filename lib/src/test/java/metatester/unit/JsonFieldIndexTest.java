@@ -0,0 +1,126 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import metatester.config.FaultCollection;
+import metatester.http.ApacheHTTPResponse;
+import metatester.http.BodyPatch;
+import metatester.http.JsonFieldIndex;
+import metatester.injection.FaultInjector;
+import metatester.injection.FaultPlan;
+import metatester.injection.FaultVariant;
+import metatester.utils.JsonUtils;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFieldIndexTest {
+
+    private static final String BODY = "{ \"id\" : 1, \"name\":\"us\\\"er\",\n \"active\":true,"
+            + "\"score\":-1.5e2, \"address\":{\"city\":\"Vilnius\", \"zip\":null},"
+            + " \"tags\":[ \"a\" , \"b\" ], \"empty\":{} }";
+
+    private ApacheHTTPResponse spilled(String body) throws Exception {
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+        return new ApacheHTTPResponse(response, 0);
+    }
+
+    private byte[] apply(BodyPatch patch, String body) {
+        return patch.applyTo(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void scan_indexesFieldsInFaultPlanOrder() throws Exception {
+        // Arrange
+        List<FaultCollection> faults = List.of(FaultCollection.null_field, FaultCollection.missing_field);
+        JsonFieldIndex index = JsonFieldIndex.scan(spilled(BODY).getSnapshot().getSpilledBody(),
+                StandardCharsets.UTF_8, 3, 50);
+
+        // Act
+        List<FaultVariant> fromIndex = new ArrayList<>();
+        new FaultPlan(index, faults).forEach(fromIndex::add);
+        List<FaultVariant> fromTree = new ArrayList<>();
+        new FaultPlan(JsonUtils.readTree(BODY), faults, 3, 50).forEach(fromTree::add);
+
+        // Assert
+        assertEquals(fromTree, fromIndex);
+    }
+
+    @Test
+    void scan_appliesDepthAndFanOut() throws Exception {
+        // Arrange
+        ApacheHTTPResponse response = spilled("{\"a\":{\"b\":{\"c\":1}},\"list\":[1,2,3]}");
+
+        // Act
+        JsonFieldIndex index = JsonFieldIndex.scan(response.getSnapshot().getSpilledBody(),
+                StandardCharsets.UTF_8, 2, 2);
+
+        // Assert
+        List<String> paths = new ArrayList<>();
+        index.paths().forEachRemaining(paths::add);
+        assertEquals(List.of("/a", "/a/b", "/list", "/list/0", "/list/1"), paths);
+    }
+
+    @Test
+    void patch_producesSameDocumentAsTreeInjection() throws Exception {
+        // Arrange
+        JsonNode tree = JsonUtils.readTree(BODY);
+        JsonFieldIndex index = JsonFieldIndex.scan(spilled(BODY).getSnapshot().getSpilledBody(),
+                StandardCharsets.UTF_8, 3, 50);
+
+        for (JsonFieldIndex.Field field : index.getFields()) {
+            for (FaultCollection fault : List.of(FaultCollection.null_field, FaultCollection.missing_field,
+                    FaultCollection.invalid_value)) {
+                // Act
+                byte[] patched = apply(FaultInjector.patch(index, field.getPath(), fault), BODY);
+
+                // Assert
+                assertEquals(FaultInjector.apply(tree, field.getPath(), fault),
+                        JsonUtils.readTree(new String(patched, StandardCharsets.UTF_8)),
+                        field.getPath() + " " + fault);
+            }
+        }
+    }
+
+    @Test
+    void patch_removesOnlyMemberWithoutComma() throws Exception {
+        // Arrange
+        String body = "{\"list\":[ 7 ],\"last\":1}";
+        JsonFieldIndex index = JsonFieldIndex.scan(spilled(body).getSnapshot().getSpilledBody(),
+                StandardCharsets.UTF_8, 3, 50);
+
+        // Act
+        byte[] onlyElement = apply(FaultInjector.patch(index, "/list/0", FaultCollection.missing_field), body);
+        byte[] lastMember = apply(FaultInjector.patch(index, "/last", FaultCollection.missing_field), body);
+
+        // Assert
+        assertEquals("{\"list\":[  ],\"last\":1}", new String(onlyElement, StandardCharsets.UTF_8));
+        assertEquals("{\"list\":[ 7 ]}", new String(lastMember, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void patch_isEncodedInCapturedCharset() throws Exception {
+        // Arrange
+        BasicHttpResponse latin1 = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        latin1.setEntity(new StringEntity("{\"name\":\"cafe\",\"id\":1}",
+                ContentType.create("application/json", StandardCharsets.ISO_8859_1)));
+        ApacheHTTPResponse response = new ApacheHTTPResponse(latin1, 0);
+
+        // Act
+        BodyPatch patch = FaultInjector.patch(response.getFieldIndex(), "/id", FaultCollection.null_field);
+        BodyPatch accented = BodyPatch.replace(0, 0, "\u00e9", StandardCharsets.ISO_8859_1);
+
+        // Assert
+        assertEquals(StandardCharsets.ISO_8859_1, patch.charset());
+        assertArrayEquals(new byte[] {(byte) 0xe9}, accented.replacement());
+        assertEquals("bytes [0, 0) replaced by '\u00e9'", accented.toString());
+    }
+}
@@ -0,0 +1,70 @@
+package metatester.unit;
+
+import metatester.metrics.LatencyHistogram;
+import metatester.metrics.MetricsRegistry;
+import metatester.metrics.Phase;
+import metatester.metrics.PhaseTimer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void histogram_percentilesStayWithinBucketPrecision() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos * 1_000_000);
+        }
+
+        // Assert
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_000_000, histogram.getPercentile(50), 500_000_000 * 0.125);
+        assertEquals(990_000_000, histogram.getPercentile(99), 990_000_000 * 0.125);
+        assertEquals(1_000_000_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rerunTimings_areGroupedByTestAndEndpoint() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry(true);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            try (PhaseTimer ignored = registry.start(Phase.RERUN, "UserTest#testGetUser", "/users")) {
+                registry.increment(MetricsRegistry.VARIANTS_RERUN, 1);
+            }
+        }
+        registry.recordInterception("apache", false, true, 1000);
+        Map<String, Object> summary = registry.toSummary();
+
+        // Assert
+        Map<String, Object> byTest = (Map<String, Object>) summary.get("rerunsByTest");
+        assertEquals(3L, ((Map<String, Object>) byTest.get("UserTest#testGetUser")).get("count"));
+        Map<String, Object> byEndpoint = (Map<String, Object>) summary.get("rerunsByEndpoint");
+        assertEquals(3L, ((Map<String, Object>) byEndpoint.get("/users")).get("count"));
+        assertEquals(3L, registry.getCount(MetricsRegistry.VARIANTS_RERUN));
+        assertEquals(1L, registry.getCount(MetricsRegistry.RERUNS_SHORT_CIRCUITED));
+        Map<String, Object> phases = (Map<String, Object>) summary.get("phases");
+        assertEquals(1L, ((Map<String, Object>) phases.get("interceptionOverhead")).get("count"));
+    }
+
+    @Test
+    void disabledRegistry_recordsNothing() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry(false);
+
+        // Act
+        registry.start(Phase.MUTATION, null, null).close();
+        registry.increment(MetricsRegistry.VARIANTS_GENERATED, 5);
+
+        // Assert
+        assertEquals(0, registry.getCount(MetricsRegistry.VARIANTS_GENERATED));
+    }
+}
@@ -0,0 +1,100 @@
+package metatester.unit;
+
+import metatester.report.MutationScoreEstimator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutationScoreEstimatorTest {
+
+    @Test
+    void estimate_weightsStrataByPopulation() {
+        // Arrange
+        MutationScoreEstimator estimator = new MutationScoreEstimator(0.95, 0.03);
+        estimator.addPopulation("/users", "null_field", 300);
+        estimator.addPopulation("/users", "missing_field", 100);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            estimator.record("/users", "null_field", true);
+            estimator.record("/users", "missing_field", false);
+        }
+
+        // Assert
+        assertEquals(0.75, estimator.getEstimate(), 1e-9);
+    }
+
+    @Test
+    void unsampledStratum_isNeverPreciseEnough() {
+        // Arrange
+        MutationScoreEstimator estimator = new MutationScoreEstimator(0.95, 0.5);
+        estimator.addPopulation("/users", "null_field", 4);
+        estimator.addPopulation("/payments", "null_field", 4);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            estimator.record("/users", "null_field", true);
+        }
+
+        // Assert
+        assertFalse(estimator.isPreciseEnough());
+        assertEquals(Double.POSITIVE_INFINITY, estimator.getHalfWidth(), 0);
+    }
+
+    @Test
+    void exhaustiveSample_hasZeroWidthInterval() {
+        // Arrange
+        MutationScoreEstimator estimator = new MutationScoreEstimator(0.95, 0.03);
+        estimator.addPopulation("/users", "null_field", 3);
+
+        // Act
+        estimator.record("/users", "null_field", true);
+        estimator.record("/users", "null_field", false);
+        estimator.record("/users", "null_field", true);
+
+        // Assert
+        assertEquals(0.0, estimator.getHalfWidth(), 1e-12);
+        assertTrue(estimator.isPreciseEnough());
+    }
+
+    @Test
+    void halfWidth_shrinksAsSamplesGrow() {
+        // Arrange
+        MutationScoreEstimator estimator = new MutationScoreEstimator(0.95, 0.03);
+        estimator.addPopulation("/users", "null_field", 100000);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            estimator.record("/users", "null_field", i % 2 == 0);
+        }
+        double afterHundred = estimator.getHalfWidth();
+        for (int i = 0; i < 1000; i++) {
+            estimator.record("/users", "null_field", i % 2 == 0);
+        }
+
+        // Assert
+        assertTrue(estimator.getHalfWidth() < afterHundred);
+        assertEquals(0.098, afterHundred, 0.002);
+        assertTrue(estimator.isPreciseEnough());
+    }
+
+    @Test
+    void summary_containsBoundedInterval() {
+        // Arrange
+        MutationScoreEstimator estimator = new MutationScoreEstimator(0.95, 0.03);
+        estimator.addPopulation("/users", "null_field", 50);
+        estimator.record("/users", "null_field", true);
+
+        // Act
+        Map<String, Object> summary = estimator.toSummary();
+
+        // Assert
+        assertEquals(1.0, (double) summary.get("estimate"), 1e-9);
+        assertTrue((double) summary.get("lower") >= 0);
+        assertTrue((double) summary.get("upper") <= 1);
+        assertEquals(1L, summary.get("sampledVariants"));
+        assertEquals(50L, summary.get("totalVariants"));
+    }
+}
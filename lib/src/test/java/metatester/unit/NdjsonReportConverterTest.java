@@ -0,0 +1,86 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import metatester.report.NdjsonReportConverter;
+import metatester.report.NdjsonReportWriter;
+import metatester.report.TestLevelSimulationResults;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonReportConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TestLevelSimulationResults result(String test, boolean caught, String error) {
+        TestLevelSimulationResults result = new TestLevelSimulationResults();
+        result.setTest(test);
+        result.setCaught(caught);
+        result.setError(error);
+        return result;
+    }
+
+    private JsonNode writeAndConvert(boolean gzip) throws Exception {
+        Path directory = Files.createTempDirectory("ndjson-report");
+        Path stream = directory.resolve(gzip ? "report.ndjson.gz" : "report.ndjson");
+        Path json = directory.resolve("report.json");
+
+        try (NdjsonReportWriter writer = new NdjsonReportWriter(stream, gzip, objectMapper)) {
+            writer.write("/users/1", "name", "null_field", result("testGetUser", true, "expected name"));
+            writer.write("/users/1", "name", "missing_field", result("testGetUser", false, null));
+            writer.write("/users/1", "id", "null_field", result("testGetUser", false, null));
+            writer.write("/payments", "status", "null_field", result("testCreatePayment", true, "status"));
+        }
+        NdjsonReportConverter.convert(stream, json);
+        return objectMapper.readTree(json.toFile());
+    }
+
+    @Test
+    void convert_rebuildsNestedReport() throws Exception {
+        // Act
+        JsonNode report = writeAndConvert(false);
+
+        // Assert
+        assertEquals(2, report.size());
+        assertEquals(2, report.path("/users/1").size());
+        assertTrue(report.path("/users/1").path("name").path("null_field").get(0).path("caught").asBoolean());
+        assertEquals("expected name", report.path("/users/1").path("name").path("null_field").get(0).path("error").asText());
+        assertFalse(report.path("/users/1").path("name").path("missing_field").get(0).path("caught").asBoolean());
+        assertEquals("testCreatePayment", report.path("/payments").path("status").path("null_field").get(0).path("test").asText());
+    }
+
+    @Test
+    void convert_readsGzipStream() throws Exception {
+        // Act
+        JsonNode report = writeAndConvert(true);
+
+        // Assert
+        assertEquals(2, report.size());
+        assertEquals(1, report.path("/payments").path("status").path("null_field").size());
+    }
+
+    @Test
+    void convert_skipsTruncatedLastLine() throws Exception {
+        // Arrange
+        Path directory = Files.createTempDirectory("ndjson-report");
+        Path stream = directory.resolve("report.ndjson");
+        Path json = directory.resolve("report.json");
+        try (NdjsonReportWriter writer = new NdjsonReportWriter(stream, false, objectMapper)) {
+            writer.write("/users/1", "name", "null_field", result("testGetUser", true, "expected name"));
+        }
+        Files.write(stream, "{\"endpoint\":\"/users/1\",\"fi".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        // Act
+        NdjsonReportConverter.convert(stream, json);
+
+        // Assert
+        JsonNode report = objectMapper.readTree(json.toFile());
+        assertEquals(1, report.path("/users/1").path("name").path("null_field").size());
+    }
+}
@@ -0,0 +1,102 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import metatester.config.FaultCollection;
+import metatester.http.OkHttpResponse;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OkHttpResponseTest {
+
+    private static final String BODY = "{\"id\":1,\"name\":\"user\"}";
+
+    private Response createResponse(ResponseBody body) {
+        return new Response.Builder()
+                .request(new Request.Builder().url("http://localhost/users/1").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .headers(Headers.of("Content-Type", "application/json", "Content-Length", "23", "X-Request-Id", "abc"))
+                .body(body)
+                .build();
+    }
+
+    private ResponseBody chunkedBody(String body) {
+        // no declared length, like a chunked response
+        return ResponseBody.create(new Buffer().write(body.getBytes(StandardCharsets.UTF_8)),
+                MediaType.parse("application/json"), -1);
+    }
+
+    @Test
+    void capture_readsBodyUpToLimit() throws Exception {
+        // Arrange
+        Response response = createResponse(chunkedBody(BODY));
+
+        // Act
+        OkHttpResponse captured = OkHttpResponse.capture(response, 1024);
+
+        // Assert
+        assertNotNull(captured);
+        assertEquals("http://localhost/users/1", captured.getUrl());
+        assertEquals(200, captured.getStatusCode());
+        assertEquals("abc", captured.getHeaders().get("X-Request-Id"));
+        assertEquals(BODY, captured.getBody());
+        assertEquals("user", captured.getResponseAsMap().get("name"));
+    }
+
+    @Test
+    void capture_leavesLargerBodyToStream() throws Exception {
+        // Arrange
+        Response response = createResponse(chunkedBody(BODY));
+
+        // Act
+        OkHttpResponse captured = OkHttpResponse.capture(response, BODY.length() - 1);
+
+        // Assert
+        assertNull(captured);
+        assertEquals(BODY, response.body().string());
+    }
+
+    @Test
+    void applyTo_rebuildsResponseWithFault() throws Exception {
+        // Arrange
+        Response response = createResponse(chunkedBody(BODY));
+        OkHttpResponse captured = OkHttpResponse.capture(response, 1024);
+
+        // Act
+        Response served = captured.applyTo(response.newBuilder(), "{\"id\":1}", FaultCollection.client_error_status);
+
+        // Assert
+        assertEquals(404, served.code());
+        assertEquals("Not Found", served.message());
+        assertEquals("abc", served.header("X-Request-Id"));
+        assertNull(served.header("Content-Length"));
+        assertEquals("http://localhost/users/1", served.request().url().toString());
+        assertEquals("{\"id\":1}", served.body().string());
+    }
+
+    @Test
+    void withBody_handsBackBodyThatIsNotJson() throws Exception {
+        // Arrange
+        Response response = createResponse(chunkedBody("<html>maintenance</html>"));
+        byte[] body = OkHttpResponse.readBody(response, 1024);
+
+        // Act
+        Response served = OkHttpResponse.withBody(response, body);
+
+        // Assert
+        assertThrows(JsonProcessingException.class, () -> OkHttpResponse.of(response, body));
+        assertEquals("<html>maintenance</html>", served.body().string());
+        assertEquals("abc", served.header("X-Request-Id"));
+    }
+}
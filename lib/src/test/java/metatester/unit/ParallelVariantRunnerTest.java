@@ -0,0 +1,105 @@
+package metatester.unit;
+
+import metatester.config.FaultCollection;
+import metatester.injection.FaultVariant;
+import metatester.runner.ParallelVariantRunner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelVariantRunnerTest {
+
+    private List<FaultVariant> plan(int count) {
+        List<FaultVariant> plan = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            plan.add(new FaultVariant("/f" + i, i % 3 == 0 ? FaultCollection.missing_field : FaultCollection.null_field));
+        }
+        return plan;
+    }
+
+    // later variants finish first, so completion order is the reverse of plan order
+    private String rerun(FaultVariant variant) {
+        int index = Integer.parseInt(variant.path().substring(2));
+        try {
+            Thread.sleep(40 - index);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return variant.path() + (variant.fault() == FaultCollection.missing_field ? " caught" : " missed");
+    }
+
+    @Test
+    void run_recordsSameResultsAsSerialExecution() throws Throwable {
+        // Arrange
+        List<FaultVariant> plan = plan(30);
+        List<String> serial = new ArrayList<>();
+        for (FaultVariant variant : plan) {
+            serial.add(rerun(variant));
+        }
+        List<String> parallel = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        // Act
+        try {
+            new ParallelVariantRunner(pool, 8).run(plan, variant -> null, this::rerun,
+                    (variant, result) -> parallel.add(result));
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    void run_keepsInlineResultsInPlanOrder() throws Throwable {
+        // Arrange
+        List<FaultVariant> plan = plan(10);
+        Function<FaultVariant, String> inline = variant -> variant.fault() == FaultCollection.missing_field
+                ? variant.path() + " inferred" : null;
+        List<String> recorded = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        // Act
+        try {
+            new ParallelVariantRunner(pool, 4).run(plan, inline, this::rerun,
+                    (variant, result) -> recorded.add(result));
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertEquals(List.of("/f0 inferred", "/f1 missed", "/f2 missed", "/f3 inferred", "/f4 missed",
+                "/f5 missed", "/f6 inferred", "/f7 missed", "/f8 missed", "/f9 inferred"), recorded);
+    }
+
+    @Test
+    void run_rethrowsFailureOfAPooledVariant() {
+        // Arrange
+        List<FaultVariant> plan = plan(5);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        // Act
+        IllegalStateException thrown;
+        try {
+            thrown = assertThrows(IllegalStateException.class, () -> new ParallelVariantRunner(pool, 4).run(plan,
+                    variant -> null,
+                    variant -> {
+                        throw new IllegalStateException("rerun failed");
+                    },
+                    (variant, result) -> {
+                    }));
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertEquals("rerun failed", thrown.getMessage());
+    }
+}
@@ -0,0 +1,93 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import metatester.report.ReportMerger;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportMergerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Path write(Path directory, String name, String json) throws Exception {
+        return Files.writeString(directory.resolve(name), json.replace('\'', '"'));
+    }
+
+    @Test
+    void merge_concatenatesResultsAndRecountsDetection() throws Exception {
+        // Arrange
+        Path directory = Files.createTempDirectory("report-merger");
+        Path first = write(directory, "report.shard-0.json",
+                "{'/users':{'/name':{'null_field':[{'test':'a','caught':true}]}}}");
+        Path second = write(directory, "report.shard-1.json",
+                "{'/users':{'/name':{'null_field':[{'test':'b','caught':false}]},"
+                        + "'/id':{'missing_field':[{'test':'b','caught':true}]}},"
+                        + "'/payments':{'/status':{'null_field':[{'test':'c','caught':false,'inferred':true}]}}}");
+        Path output = directory.resolve("report.json");
+
+        // Act
+        ReportMerger.merge(List.of(first, second), output);
+        JsonNode report = objectMapper.readTree(output.toFile());
+
+        // Assert
+        JsonNode nameResults = report.path("/users").path("/name").path("null_field");
+        assertEquals(2, nameResults.size());
+        assertEquals("a", nameResults.get(0).path("test").asText());
+        assertEquals("b", nameResults.get(1).path("test").asText());
+        assertEquals(1, report.path("/users").path("/id").path("missing_field").size());
+        JsonNode detection = report.path("summary").path("detection");
+        assertEquals(4, detection.path("variants").asLong());
+        assertEquals(2, detection.path("detected").asLong());
+        assertEquals(1, detection.path("inferred").asLong());
+        assertEquals(0.5, detection.path("score").asDouble(), 1e-9);
+        assertEquals(2, report.path("summary").path("shards").asInt());
+    }
+
+    @Test
+    void merge_weightsSampledScoresByShardPopulation() throws Exception {
+        // Arrange
+        Path directory = Files.createTempDirectory("report-merger");
+        Path first = write(directory, "report.shard-0.json", "{'summary':{'mutationScore':"
+                + "{'estimate':0.9,'halfWidth':0.04,'confidence':0.95,'targetMarginOfError':0.03,"
+                + "'sampledVariants':100,'totalVariants':300}}}");
+        Path second = write(directory, "report.shard-1.json", "{'summary':{'mutationScore':"
+                + "{'estimate':0.5,'halfWidth':0.04,'confidence':0.95,'targetMarginOfError':0.03,"
+                + "'sampledVariants':50,'totalVariants':100}}}");
+        Path output = directory.resolve("report.json");
+
+        // Act
+        ReportMerger.merge(List.of(first, second), output);
+        JsonNode score = objectMapper.readTree(output.toFile()).path("summary").path("mutationScore");
+
+        // Assert
+        assertEquals(0.8, score.path("estimate").asDouble(), 1e-9);
+        assertEquals(Math.sqrt(0.03 * 0.03 + 0.01 * 0.01), score.path("halfWidth").asDouble(), 1e-9);
+        assertEquals(150, score.path("sampledVariants").asLong());
+        assertEquals(400, score.path("totalVariants").asLong());
+        assertTrue(objectMapper.readTree(output.toFile()).path("summary").path("shardSummaries").has("report.shard-1.json"));
+    }
+
+    @Test
+    void findShardReports_expandsWildcardsAndDirectories() throws Exception {
+        // Arrange
+        Path directory = Files.createTempDirectory("report-merger");
+        Path first = write(directory, "report.shard-0-worker-1.json", "{}");
+        Path second = write(directory, "report.shard-0-worker-2.json", "{}");
+        Path third = write(directory, "report.shard-1.json", "{}");
+        write(directory, "report.json", "{}");
+
+        // Act
+        List<Path> matched = ReportMerger.findShardReports(directory + "/report.shard-0-*.json");
+        List<Path> listed = ReportMerger.findShardReports(directory.toString());
+
+        // Assert
+        assertEquals(List.of(first, second), matched);
+        assertEquals(List.of(first, second, third), listed);
+    }
+}
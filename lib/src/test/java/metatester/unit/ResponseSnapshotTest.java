@@ -0,0 +1,72 @@
+package metatester.unit;
+
+import metatester.http.ResponseSnapshot;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseSnapshotTest {
+
+    private static final String BODY = "{\"name\":\"Zo\u00eb\"}";
+
+    private ResponseSnapshot capture() throws Exception {
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.addHeader("Content-Type", "application/json; charset=UTF-8");
+        response.addHeader("Set-Cookie", "a=1");
+        response.addHeader("Set-Cookie", "b=2");
+        response.setEntity(new ByteArrayEntity(BODY.getBytes(StandardCharsets.UTF_8),
+                ContentType.APPLICATION_JSON));
+        return ResponseSnapshot.capture(response);
+    }
+
+    @Test
+    void capture_readsBodyOnceInDeclaredCharset() throws Exception {
+        // Act
+        ResponseSnapshot snapshot = capture();
+
+        // Assert
+        assertEquals(BODY, snapshot.getBodyAsString());
+        assertEquals(StandardCharsets.UTF_8, snapshot.getCharset());
+        assertEquals("a=1", snapshot.getHeader("set-cookie"));
+        assertEquals("b=2", snapshot.getHeaders().get("Set-Cookie"));
+    }
+
+    @Test
+    void withDeclaredCharset_relabelsContentTypeButKeepsBodyBytes() throws Exception {
+        // Arrange
+        ResponseSnapshot snapshot = capture();
+
+        // Act
+        CloseableHttpResponse served = snapshot.withDeclaredCharset(StandardCharsets.ISO_8859_1).toHttpResponse(null);
+
+        // Assert
+        assertEquals("application/json; charset=ISO-8859-1", served.getFirstHeader("Content-Type").getValue());
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), EntityUtils.toByteArray(served.getEntity()));
+        assertNotEquals(BODY, EntityUtils.toString(served.getEntity()));
+        assertEquals("application/json; charset=UTF-8", snapshot.getHeader("Content-Type"));
+    }
+
+    @Test
+    void withStatus_keepsHeadersAndBody() throws Exception {
+        // Arrange
+        ResponseSnapshot snapshot = capture();
+
+        // Act
+        ResponseSnapshot faulted = snapshot.withStatus(404);
+
+        // Assert
+        assertEquals(404, faulted.getStatusCode());
+        assertEquals("Not Found", faulted.getReasonPhrase());
+        assertEquals(2, faulted.toHttpResponse(null).getHeaders("Set-Cookie").length);
+        assertEquals(BODY, faulted.getBodyAsString());
+        assertEquals(200, snapshot.getStatusCode());
+    }
+}
@@ -0,0 +1,87 @@
+package metatester.unit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import metatester.report.ResultStore;
+import metatester.report.TestLevelSimulationResults;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TestLevelSimulationResults result(String test, boolean caught, String error) {
+        TestLevelSimulationResults result = new TestLevelSimulationResults();
+        result.setTest(test);
+        result.setCaught(caught);
+        result.setError(error);
+        return result;
+    }
+
+    private JsonNode export(ResultStore store) throws Exception {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            store.writeStart(generator);
+            generator.writeEndObject();
+        }
+        return objectMapper.readTree(writer.toString());
+    }
+
+    @Test
+    void export_nestsSortedGroupsAndKeepsInsertionOrder() throws Exception {
+        // Arrange
+        ResultStore store = new ResultStore(1000);
+        store.add("/users", "/name", "null_field", result("testB", true, "expected name"));
+        store.add("/payments", "/status", "null_field", result("testC", false, null));
+        store.add("/users", "/name", "null_field", result("testA", false, null));
+        store.add("/users", "/id", "missing_field", result("testA", true, "expected id"));
+
+        // Act
+        JsonNode report = export(store);
+
+        // Assert
+        assertEquals("/payments", report.fieldNames().next());
+        assertEquals("/id", report.path("/users").fieldNames().next());
+        JsonNode nameResults = report.path("/users").path("/name").path("null_field");
+        assertEquals(2, nameResults.size());
+        assertEquals("testB", nameResults.get(0).path("test").asText());
+        assertTrue(nameResults.get(0).path("caught").asBoolean());
+        assertEquals("expected name", nameResults.get(0).path("error").asText());
+        assertTrue(nameResults.get(1).path("error").isNull());
+        assertFalse(report.path("/payments").path("/status").path("null_field").get(0).path("inferred").asBoolean());
+    }
+
+    @Test
+    void repeatedStrings_areStoredOnce() {
+        // Arrange
+        ResultStore store = new ResultStore(1000);
+
+        // Act
+        for (int i = 0; i < 10000; i++) {
+            store.add("/users", "/field" + (i % 10), "null_field", result("testGetUser", i % 2 == 0, "expected:<1> but was:<null>"));
+        }
+
+        // Assert
+        assertEquals(10000, store.size());
+        assertEquals(14, store.dictionarySize());
+    }
+
+    @Test
+    void longErrors_areTruncated() throws Exception {
+        // Arrange
+        ResultStore store = new ResultStore(10);
+        store.add("/users", "/name", "null_field", result("testGetUser", true, "0123456789abcdef"));
+
+        // Act
+        JsonNode report = export(store);
+
+        // Assert
+        assertEquals("0123456789... [truncated]",
+                report.path("/users").path("/name").path("null_field").get(0).path("error").asText());
+    }
+}
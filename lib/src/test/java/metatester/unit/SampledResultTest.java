@@ -0,0 +1,60 @@
+package metatester.unit;
+
+import metatester.config.FaultCollection;
+import metatester.injection.FaultVariant;
+import metatester.report.TestLevelSimulationResults;
+import metatester.runner.SampledResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampledResultTest {
+
+    private TestLevelSimulationResults result(boolean caught, String error) {
+        TestLevelSimulationResults result = new TestLevelSimulationResults();
+        result.setTest("listsUsers");
+        result.setCaught(caught);
+        result.setError(error);
+        return result;
+    }
+
+    @Test
+    void toResult_isCaughtOnlyIfEverySampleWasCaught() {
+        // Arrange
+        FaultVariant first = new FaultVariant("/users/0/id", FaultCollection.null_field, "/users/*/id");
+        FaultVariant third = new FaultVariant("/users/2/id", FaultCollection.null_field, "/users/*/id");
+        FaultVariant last = new FaultVariant("/users/7/id", FaultCollection.null_field, "/users/*/id");
+        SampledResult sampled = new SampledResult("/users", first);
+
+        // Act
+        sampled.add(first, result(true, "expected id"));
+        sampled.add(third, result(false, null));
+        sampled.add(last, result(false, null));
+        TestLevelSimulationResults combined = sampled.toResult();
+
+        // Assert
+        assertEquals("/users/*/id", sampled.getReported().reportedField());
+        assertEquals("listsUsers", combined.getTest());
+        assertFalse(combined.isCaught());
+        assertEquals("Fault not detected for sampled elements /users/2/id, /users/7/id", combined.getError());
+        assertEquals(SampledResult.keyOf("/users", first), SampledResult.keyOf("/users", last));
+    }
+
+    @Test
+    void toResult_keepsFirstErrorWhenAllSamplesWereCaught() {
+        // Arrange
+        FaultVariant first = new FaultVariant("/users/0", FaultCollection.missing_field, "/users/*");
+        FaultVariant last = new FaultVariant("/users/7", FaultCollection.missing_field, "/users/*");
+        SampledResult sampled = new SampledResult("/users", first);
+
+        // Act
+        sampled.add(first, result(true, "expected user 0"));
+        sampled.add(last, result(true, "expected user 7"));
+        TestLevelSimulationResults combined = sampled.toResult();
+
+        // Assert
+        assertTrue(combined.isCaught());
+        assertFalse(combined.isInferred());
+        assertEquals("expected user 0", combined.getError());
+    }
+}
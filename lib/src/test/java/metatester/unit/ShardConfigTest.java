@@ -0,0 +1,83 @@
+package metatester.unit;
+
+import metatester.config.ShardConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardConfigTest {
+
+    private final String gradleWorker = System.getProperty(ShardConfig.GRADLE_WORKER_PROPERTY);
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(ShardConfig.SHARD_INDEX_PROPERTY);
+        System.clearProperty(ShardConfig.SHARD_COUNT_PROPERTY);
+        System.clearProperty(ShardConfig.FORKED_PROPERTY);
+        if (gradleWorker != null) {
+            System.setProperty(ShardConfig.GRADLE_WORKER_PROPERTY, gradleWorker);
+        } else {
+            System.clearProperty(ShardConfig.GRADLE_WORKER_PROPERTY);
+        }
+    }
+
+    @Test
+    void notSharded_ownsEveryTestAndKeepsPaths() {
+        assertTrue(ShardConfig.isOwnedByThisShard("UserTest#testGetUser"));
+        assertEquals("fault_simulation_report.json", ShardConfig.shardPath("fault_simulation_report.json"));
+    }
+
+    @Test
+    void shards_partitionTestsExactlyOnce() {
+        // Arrange
+        String[] tests = {"UserTest#testGetUser", "UserTest#testListUsers", "PaymentTest#testCreate", "PaymentTest#testRefund"};
+        int[] owners = new int[tests.length];
+
+        // Act
+        System.setProperty(ShardConfig.SHARD_COUNT_PROPERTY, "3");
+        for (int index = 0; index < 3; index++) {
+            System.setProperty(ShardConfig.SHARD_INDEX_PROPERTY, String.valueOf(index));
+            for (int i = 0; i < tests.length; i++) {
+                if (ShardConfig.isOwnedByThisShard(tests[i])) owners[i]++;
+            }
+        }
+
+        // Assert
+        for (int owner : owners) {
+            assertEquals(1, owner);
+        }
+    }
+
+    @Test
+    void shardPath_insertsShardIdBeforeExtension() {
+        // Arrange
+        System.setProperty(ShardConfig.SHARD_COUNT_PROPERTY, "4");
+        System.setProperty(ShardConfig.SHARD_INDEX_PROPERTY, "2");
+
+        // Assert
+        assertEquals("fault_simulation_report.shard-2.json", ShardConfig.shardPath("fault_simulation_report.json"));
+        assertEquals("out/report.shard-2.ndjson.gz", ShardConfig.shardPath("out/report.ndjson.gz"));
+    }
+
+    @Test
+    void shardPath_keepsForksOfAnExplicitShardApart() {
+        // Arrange
+        System.setProperty(ShardConfig.SHARD_COUNT_PROPERTY, "4");
+        System.setProperty(ShardConfig.SHARD_INDEX_PROPERTY, "2");
+        System.setProperty(ShardConfig.FORKED_PROPERTY, "true");
+        System.setProperty(ShardConfig.GRADLE_WORKER_PROPERTY, "5");
+
+        // Assert
+        assertEquals("2-worker-5", ShardConfig.getShardId());
+        assertEquals("fault_simulation_report.shard-2-worker-5.json", ShardConfig.shardPath("fault_simulation_report.json"));
+    }
+
+    @Test
+    void invalidIndex_isRejected() {
+        System.setProperty(ShardConfig.SHARD_COUNT_PROPERTY, "2");
+        System.setProperty(ShardConfig.SHARD_INDEX_PROPERTY, "2");
+
+        assertThrows(IllegalArgumentException.class, ShardConfig::getShardIndex);
+    }
+}
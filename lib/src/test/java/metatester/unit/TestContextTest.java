@@ -0,0 +1,185 @@
+package metatester.unit;
+
+import metatester.config.FaultCollection;
+import metatester.http.Response;
+import metatester.http.SimulatedResponse;
+import metatester.runner.TestContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestContextTest {
+
+    @Test
+    void bind_keepsStateOfConcurrentTestsApart() throws InterruptedException {
+        // Arrange
+        TestContext first = new TestContext("A#first");
+        TestContext second = new TestContext("B#second");
+        AtomicReference<String> seenByOther = new AtomicReference<>();
+
+        // Act
+        TestContext previous = TestContext.bind(first);
+        try {
+            TestContext.current().setFirstRun(false);
+            Thread other = new Thread(() -> {
+                TestContext.bind(second);
+                seenByOther.set(TestContext.current().getTestId() + ":" + TestContext.current().isFirstRun());
+            });
+            other.start();
+            other.join();
+        } finally {
+            TestContext.restore(previous);
+        }
+
+        // Assert
+        assertEquals("B#second:true", seenByOther.get());
+        assertFalse(first.isFirstRun());
+        assertTrue(second.isFirstRun());
+    }
+
+    @Test
+    void current_isInheritedByThreadsTheTestStarts() throws InterruptedException {
+        // Arrange
+        TestContext context = new TestContext("A#test");
+        AtomicReference<TestContext> seenByChild = new AtomicReference<>();
+
+        // Act
+        TestContext previous = TestContext.bind(context);
+        try {
+            Thread child = new Thread(() -> {
+                seenByChild.set(TestContext.current());
+                TestContext.current().setResponseStreamed(true);
+            });
+            child.start();
+            child.join();
+        } finally {
+            TestContext.restore(previous);
+        }
+
+        // Assert
+        assertSame(context, seenByChild.get());
+        assertTrue(context.isResponseStreamed());
+    }
+
+    @Test
+    void restore_fallsBackToSharedContextOutsideOfTests() {
+        // Arrange
+        TestContext outside = TestContext.current();
+
+        // Act
+        TestContext previous = TestContext.bind(new TestContext("A#test"));
+        TestContext.restore(previous);
+
+        // Assert
+        assertSame(outside, TestContext.current());
+        assertNull(TestContext.current().getTestId());
+    }
+
+    @Test
+    void forVariant_sharesCapturesWithItsOwnSimulatedResponse() {
+        // Arrange
+        TestContext context = new TestContext("A#test");
+        Response served = new SimulatedResponse(null, "{}", FaultCollection.server_error_status);
+        context.setSimulatedResponse(served);
+        Response variant = new SimulatedResponse(null, "{\"a\":null}", FaultCollection.null_field);
+
+        // Act
+        TestContext variantContext = context.forVariant();
+        variantContext.setSimulatedResponse(variant);
+
+        // Assert
+        assertEquals("A#test", variantContext.getTestId());
+        assertFalse(variantContext.isFirstRun());
+        assertSame(context.getFieldAccessTracker(), variantContext.getFieldAccessTracker());
+        assertSame(served, context.getSimulatedResponse());
+        assertSame(variant, variantContext.getSimulatedResponse());
+    }
+
+    @Test
+    void current_ignoresContextOfAFinishedTestOnThreadsItStarted() throws Exception {
+        // Arrange
+        TestContext finished = new TestContext("A#finished");
+        ExecutorService pool;
+        TestContext previous = TestContext.bind(finished);
+        try {
+            // the pool thread is created, and inherits the binding, while the first test runs
+            pool = Executors.newSingleThreadExecutor();
+            pool.submit(() -> { }).get();
+        } finally {
+            finished.close();
+            TestContext.restore(previous);
+        }
+
+        // Act
+        TestContext seenByPool;
+        try {
+            seenByPool = pool.submit(TestContext::current).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertNull(seenByPool.getTestId());
+        assertTrue(finished.isClosed());
+    }
+
+    @Test
+    void wrap_runsTaskInContextItWasSubmittedFrom() throws Exception {
+        // Arrange
+        TestContext context = new TestContext("B#running");
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        // Act
+        TestContext seenByPool;
+        TestContext seenAfter;
+        try {
+            pool.submit(() -> { }).get();
+            seenByPool = pool.submit(context.wrap((Callable<TestContext>) TestContext::current)).get();
+            seenAfter = pool.submit(TestContext::current).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertSame(context, seenByPool);
+        assertNull(seenAfter.getTestId());
+    }
+
+    @Test
+    void wrap_bindsContextForCompletableFutureStagesAndInvokedTasks() throws Exception {
+        // Arrange
+        TestContext context = new TestContext("C#async");
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        // Act
+        List<String> seen;
+        try {
+            @SuppressWarnings("unchecked")
+            Supplier<String> supplier = (Supplier<String>) context.wrap(Supplier.class,
+                    (Supplier<String>) () -> TestContext.current().getTestId());
+            @SuppressWarnings("unchecked")
+            Function<String, String> function = (Function<String, String>) context.wrap(Function.class,
+                    (Function<String, String>) value -> value + ":" + TestContext.current().getTestId());
+            String stage = CompletableFuture.supplyAsync(supplier).thenApplyAsync(function).get(5, TimeUnit.SECONDS);
+            List<Callable<String>> tasks = List.of(() -> TestContext.current().getTestId());
+            String invoked = pool.invokeAll(context.wrapAll(tasks)).get(0).get();
+            seen = List.of(stage, invoked);
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertEquals(List.of("C#async:C#async", "C#async"), seen);
+        assertSame(pool, context.wrap(ExecutorService.class, pool));
+    }
+}
@@ -0,0 +1,103 @@
+package metatester.unit;
+
+import metatester.config.FaultCollection;
+import metatester.http.Response;
+import metatester.http.SimulatedResponse;
+import metatester.injection.FaultVariant;
+import metatester.runner.VariantPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariantPipelineTest {
+
+    private List<FaultVariant> plan(int count) {
+        List<FaultVariant> plan = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            plan.add(new FaultVariant("/f" + i, FaultCollection.null_field));
+        }
+        return plan;
+    }
+
+    private Response prepared(FaultVariant variant) {
+        return new SimulatedResponse(null, variant.path(), variant.fault());
+    }
+
+    @Test
+    void next_deliversPreparedVariantsInPlanOrder() {
+        // Arrange
+        List<FaultVariant> plan = plan(100);
+        List<String> bodies = new ArrayList<>();
+
+        // Act
+        try (VariantPipeline pipeline = new VariantPipeline(plan, this::prepared, 3)) {
+            while (pipeline.hasNext()) {
+                bodies.add(pipeline.next().response().getBody());
+            }
+        }
+
+        // Assert
+        assertEquals(plan.stream().map(FaultVariant::path).toList(), bodies);
+    }
+
+    @Test
+    void next_preparesAheadOnAnotherThread() throws Exception {
+        // Arrange
+        List<Thread> threads = new ArrayList<>();
+
+        // Act
+        try (VariantPipeline pipeline = new VariantPipeline(plan(2), variant -> {
+            threads.add(Thread.currentThread());
+            return prepared(variant);
+        }, 2)) {
+            pipeline.next();
+            pipeline.next();
+            assertFalse(pipeline.hasNext());
+        }
+
+        // Assert
+        assertEquals(2, threads.size());
+        assertTrue(threads.get(0) != Thread.currentThread());
+    }
+
+    @Test
+    void next_withoutDepthPreparesOnCallerThread() {
+        // Arrange
+        List<Thread> threads = new ArrayList<>();
+
+        // Act
+        try (VariantPipeline pipeline = new VariantPipeline(plan(2), variant -> {
+            threads.add(Thread.currentThread());
+            return null;
+        }, 0)) {
+            while (pipeline.hasNext()) {
+                assertNull(pipeline.next().response());
+            }
+        }
+
+        // Assert
+        assertEquals(List.of(Thread.currentThread(), Thread.currentThread()), threads);
+    }
+
+    @Test
+    void hasNext_rethrowsFailureOfPreparation() {
+        // Arrange
+        VariantPipeline pipeline = new VariantPipeline(plan(3), variant -> {
+            if (variant.path().equals("/f1")) {
+                throw new IllegalStateException("cannot mutate");
+            }
+            return prepared(variant);
+        }, 2);
+
+        // Act
+        pipeline.next();
+        IllegalStateException failure = assertThrows(IllegalStateException.class, pipeline::hasNext);
+        pipeline.close();
+
+        // Assert
+        assertEquals("cannot mutate", failure.getMessage());
+    }
+}